@@ -0,0 +1,197 @@
+package com.qoderv3.qoder_v3.benchmark;
+
+import com.qoderv3.qoder_v3.entity.Project;
+import com.qoderv3.qoder_v3.entity.User;
+import com.qoderv3.qoder_v3.repository.ProjectRepository;
+import com.qoderv3.qoder_v3.repository.UserRepository;
+import com.qoderv3.qoder_v3.repository.projection.ProjectSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity hydration and repository queries against the H2 PostgreSQL-mode
+ * datasource used by the tests. The schema comes from benchmark-schema.sql and
+ * is seeded once per trial with JDBC batches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    @Param({"20000"})
+    private int projectCount;
+
+    @Param({"50"})
+    private int deepPage;
+
+    private static final int PAGE_SIZE = 20;
+    private static final int USER_COUNT = 1000;
+
+    private ConfigurableApplicationContext context;
+    private ProjectRepository projectRepository;
+    private UserRepository userRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private List<UUID> hydrationIds;
+    private Project deepPageCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BenchmarkPersistenceConfig.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.sql.init.mode=always",
+                        "--spring.sql.init.schema-locations=classpath:benchmark-schema.sql",
+                        "--spring.flyway.enabled=false",
+                        "--logging.level.root=WARN");
+        projectRepository = context.getBean(ProjectRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        seed(context.getBean(JdbcTemplate.class));
+
+        Random random = new Random(42);
+        List<Project> all = projectRepository.findAll();
+        hydrationIds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            hydrationIds.add(all.get(random.nextInt(all.size())).getId());
+        }
+        List<Project> pagePrefix = projectRepository
+                .findMostStarredProjects(PageRequest.of(deepPage - 1, PAGE_SIZE)).getContent();
+        deepPageCursor = pagePrefix.get(pagePrefix.size() - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Project findProjectBySlug() {
+        return projectRepository.findBySlug("project-" + (projectCount / 2)).orElseThrow();
+    }
+
+    @Benchmark
+    public List<Project> hydrate100ProjectsById() {
+        return projectRepository.findAllById(hydrationIds);
+    }
+
+    @Benchmark
+    public Page<Project> mostStarredOffsetDeepPage() {
+        return projectRepository.findMostStarredProjects(PageRequest.of(deepPage, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<String> mostStarredFirstPageFullNamesLazyOwner() {
+        return readOnlyTransaction.execute(status -> projectRepository
+                .findMostStarredProjects(PageRequest.of(0, PAGE_SIZE)).map(Project::getFullName).getContent());
+    }
+
+    @Benchmark
+    public List<String> mostStarredFirstPageFullNamesSummaries() {
+        return projectRepository.findMostStarredProjectSummaries(PageRequest.of(0, PAGE_SIZE))
+                .map(ProjectSummary::getFullName).getContent();
+    }
+
+    @Benchmark
+    public Page<ProjectSummary> mostStarredSummariesOffsetDeepPage() {
+        return projectRepository.findMostStarredProjectSummaries(PageRequest.of(deepPage, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<ProjectSummary> mostStarredKeysetDeepPage() {
+        return projectRepository.findMostStarredProjectsAfter(deepPageCursor.getStarsCount(),
+                deepPageCursor.getCreatedAt(), deepPageCursor.getId(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public User findUserByUsername() {
+        return userRepository.findByUsernameIgnoreCase("user-" + (USER_COUNT / 2)).orElseThrow();
+    }
+
+    @Benchmark
+    public Page<User> searchUsersLike() {
+        return userRepository.searchUsers("er-42", PageRequest.of(0, PAGE_SIZE));
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Random random = new Random(7);
+        OffsetDateTime now = OffsetDateTime.now();
+        List<UUID> userIds = new ArrayList<>();
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            UUID id = UUID.randomUUID();
+            userIds.add(id);
+            users.add(new Object[]{id, "user-" + i, "user-" + i + "@example.com", "User " + i,
+                    Timestamp.from(now.minusDays(i % 365).toInstant())});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username, email, full_name, created_at) VALUES (?, ?, ?, ?, ?)",
+                users);
+        List<Object[]> projects = new ArrayList<>();
+        for (int i = 0; i < projectCount; i++) {
+            projects.add(new Object[]{UUID.randomUUID(), "Project " + i, "project-" + i, "Benchmark project " + i,
+                    userIds.get(random.nextInt(userIds.size())), random.nextInt(5000), random.nextInt(500),
+                    Timestamp.from(now.minusMinutes(random.nextInt(1_000_000)).toInstant())});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO projects (id, name, slug, description, owner_id, stars_count, " +
+                "forks_count, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", projects);
+    }
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class, SqlInitializationAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Project.class)
+    @EnableJpaRepositories(basePackageClasses = ProjectRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                    classes = {ProjectRepository.class, UserRepository.class}))
+    static class BenchmarkPersistenceConfig {
+    }
+}
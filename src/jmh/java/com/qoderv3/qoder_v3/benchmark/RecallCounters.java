@@ -0,0 +1,66 @@
+package com.qoderv3.qoder_v3.benchmark;
+
+import com.qoderv3.qoder_v3.vector.HnswIndex;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Recall of approximate searches, reported as JMH secondary results next to the
+ * latency. recall@k is {@code recallHits / recallExpected}; both are event
+ * counts, so the ratio holds however JMH aggregates them across iterations.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class RecallCounters {
+
+    /**
+     * Returned results that are in the exact top k
+     */
+    public long recallHits;
+
+    /**
+     * Results an exact search returns
+     */
+    public long recallExpected;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        recallHits = 0;
+        recallExpected = 0;
+    }
+
+    /**
+     * Counts one search over array indexes
+     * @param exact indexes of the exact top k
+     * @param returned indexes returned by the search under test
+     */
+    void record(Set<Integer> exact, int[] returned) {
+        for (int id : returned) {
+            if (exact.contains(id)) {
+                recallHits++;
+            }
+        }
+        recallExpected += exact.size();
+    }
+
+    /**
+     * Counts one HNSW search
+     * @param exact ids of the exact top k
+     * @param returned results of the search under test
+     */
+    void record(Set<UUID> exact, List<HnswIndex.Result> returned) {
+        for (HnswIndex.Result result : returned) {
+            if (exact.contains(result.entry().id())) {
+                recallHits++;
+            }
+        }
+        recallExpected += exact.size();
+    }
+}
@@ -0,0 +1,121 @@
+package com.qoderv3.qoder_v3.benchmark;
+
+import com.qoderv3.qoder_v3.persistence.AdmissionControlDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency percentiles of simulated requests under more
+ * concurrent clients than Tomcat's default 200 worker threads. Each request
+ * blocks on an embedding model call and then holds a pooled H2 connection for a
+ * short query. PLATFORM is the current thread-pool mode; VIRTUAL runs each
+ * request on a virtual thread behind the admission semaphore, and
+ * VIRTUAL_UNBOUNDED leaves the waiting to the connection pool. The virtual modes
+ * need a Java 21+ runtime, e.g. {@code -Djmh.args="RequestExecutionBenchmark -p mode=PLATFORM"}
+ * on older ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Threads(400)
+@Fork(1)
+public class RequestExecutionBenchmark {
+
+    public enum ExecutionMode {
+        PLATFORM, VIRTUAL, VIRTUAL_UNBOUNDED
+    }
+
+    @Param({"PLATFORM", "VIRTUAL", "VIRTUAL_UNBOUNDED"})
+    private ExecutionMode mode;
+
+    @Param({"200"})
+    private int requestThreads;
+
+    @Param({"10"})
+    private int poolSize;
+
+    @Param({"50"})
+    private int modelLatencyMillis;
+
+    @Param({"2"})
+    private int queryMillis;
+
+    private HikariDataSource pool;
+    private DataSource dataSource;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:requests;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        config.setConnectionTimeout(60_000);
+        pool = new HikariDataSource(config);
+        if (mode == ExecutionMode.PLATFORM) {
+            dataSource = pool;
+            executor = Executors.newFixedThreadPool(requestThreads, new CustomizableThreadFactory("request-"));
+            return;
+        }
+        dataSource = mode == ExecutionMode.VIRTUAL
+                ? new AdmissionControlDataSource(pool, poolSize, Duration.ofSeconds(60))
+                : pool;
+        try {
+            executor = Executors.newCachedThreadPool(new VirtualThreadTaskExecutor("request-").getVirtualThreadFactory());
+        } catch (UnsupportedOperationException e) {
+            pool.close();
+            throw new IllegalStateException(mode + " needs a Java 21+ runtime; run with -p mode=PLATFORM", e);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        pool.close();
+    }
+
+    @Benchmark
+    public int request() throws Exception {
+        return executor.submit(this::handle).get();
+    }
+
+    private int handle() throws Exception {
+        // Embedding model call, made without holding a connection
+        Thread.sleep(modelLatencyMillis);
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT 1")) {
+            rs.next();
+            Thread.sleep(queryMillis);
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.qoderv3.qoder_v3.benchmark;
+
+import com.qoderv3.qoder_v3.entity.Embedding;
+import com.qoderv3.qoder_v3.persistence.PgVector;
+import com.qoderv3.qoder_v3.persistence.VectorType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of pgvector values in the text and binary wire formats,
+ * and the {@link Embedding#getVectorDimensions()} accessor.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorCodecBenchmark {
+
+    @Param({"384", "1536"})
+    private int dimensions;
+
+    private float[] vector;
+    private String text;
+    private byte[] binary;
+    private Embedding embedding;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = random.nextFloat() * 2 - 1;
+        }
+        text = PgVector.format(vector);
+        PgVector pgVector = new PgVector(vector);
+        binary = new byte[pgVector.lengthInBytes()];
+        pgVector.toBytes(binary, 0);
+        embedding = new Embedding();
+        embedding.setEmbeddingVector(vector);
+    }
+
+    @Benchmark
+    public String encodeText() {
+        return PgVector.format(vector);
+    }
+
+    @Benchmark
+    public float[] decodeText() throws SQLException {
+        return VectorType.toFloatArray(text);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        PgVector pgVector = new PgVector(vector);
+        byte[] bytes = new byte[pgVector.lengthInBytes()];
+        pgVector.toBytes(bytes, 0);
+        return bytes;
+    }
+
+    @Benchmark
+    public float[] decodeBinary() throws SQLException {
+        PgVector pgVector = new PgVector();
+        pgVector.setByteValue(binary, 0);
+        return VectorType.toFloatArray(pgVector);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int vectorDimensions() {
+        return embedding.getVectorDimensions();
+    }
+}
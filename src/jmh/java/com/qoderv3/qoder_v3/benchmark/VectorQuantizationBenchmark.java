@@ -0,0 +1,162 @@
+package com.qoderv3.qoder_v3.benchmark;
+
+import com.qoderv3.qoder_v3.vector.VectorMath;
+import com.qoderv3.qoder_v3.vector.VectorQuantization;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recall and latency of top-10 cosine search when candidates are taken from a
+ * quantized copy of the vectors and re-ranked with the float32 originals, as
+ * find_similar_embeddings_quantized does. Scans are exhaustive so the numbers
+ * isolate the representation from the ANN index. Recall@10 against the exact
+ * result is reported through {@link RecallCounters}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorQuantizationBenchmark {
+
+    private static final int DIMENSIONS = 1536;
+    private static final int CLUSTERS = 100;
+    private static final int LIMIT = 10;
+    private static final int RECALL_QUERIES = 50;
+
+    @Param({"10000"})
+    private int corpusSize;
+
+    @Param({"NONE", "BINARY"})
+    private VectorQuantization quantization;
+
+    @Param({"1", "4", "10"})
+    private int rerankFactor;
+
+    private float[][] vectors;
+    private long[][] binaryVectors;
+    private float[][] queries;
+    private Set<Integer>[] exact;
+    private int next;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Random random = new Random(42);
+        float[][] centroids = new float[CLUSTERS][];
+        for (int c = 0; c < CLUSTERS; c++) {
+            centroids[c] = gaussian(random, 1f);
+        }
+        vectors = new float[corpusSize][];
+        binaryVectors = new long[corpusSize][];
+        for (int i = 0; i < corpusSize; i++) {
+            vectors[i] = VectorMath.normalize(near(centroids[random.nextInt(CLUSTERS)], random));
+            binaryVectors[i] = VectorMath.binaryQuantize(vectors[i]);
+        }
+        queries = new float[RECALL_QUERIES][];
+        exact = new Set[RECALL_QUERIES];
+        for (int q = 0; q < RECALL_QUERIES; q++) {
+            queries[q] = VectorMath.normalize(near(centroids[random.nextInt(CLUSTERS)], random));
+            exact[q] = ids(exactTop(queries[q], LIMIT));
+        }
+    }
+
+    @Benchmark
+    public int[] top10(RecallCounters recall) {
+        int q = next;
+        next = (next + 1) % queries.length;
+        int[] ids = search(queries[q]);
+        recall.record(exact[q], ids);
+        return ids;
+    }
+
+    private int[] search(float[] query) {
+        return switch (quantization) {
+            case NONE -> exactTop(query, LIMIT);
+            case BINARY -> rerank(query, binaryTop(query, LIMIT * rerankFactor));
+        };
+    }
+
+    private int[] exactTop(float[] query, int k) {
+        return top(k, i -> VectorMath.dot(query, vectors[i]));
+    }
+
+    private int[] binaryTop(float[] query, int k) {
+        long[] bits = VectorMath.binaryQuantize(query);
+        return top(k, i -> -VectorMath.hammingDistance(bits, binaryVectors[i]));
+    }
+
+    private int[] rerank(float[] query, int[] candidates) {
+        Integer[] boxed = Arrays.stream(candidates).boxed().toArray(Integer[]::new);
+        Arrays.sort(boxed, (a, b) -> Float.compare(VectorMath.dot(query, vectors[b]), VectorMath.dot(query, vectors[a])));
+        return Arrays.stream(boxed).limit(LIMIT).mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Indexes of the k highest scores, best first
+     */
+    private int[] top(int k, Score score) {
+        PriorityQueue<float[]> heap = new PriorityQueue<>((a, b) -> Float.compare(a[0], b[0]));
+        for (int i = 0; i < corpusSize; i++) {
+            float value = score.of(i);
+            if (heap.size() < k) {
+                heap.add(new float[]{value, i});
+            } else if (value > heap.peek()[0]) {
+                heap.poll();
+                heap.add(new float[]{value, i});
+            }
+        }
+        int[] ids = new int[heap.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = (int) heap.poll()[1];
+        }
+        return ids;
+    }
+
+    private static Set<Integer> ids(int[] ids) {
+        Set<Integer> set = new HashSet<>();
+        for (int id : ids) {
+            set.add(id);
+        }
+        return set;
+    }
+
+    private static float[] near(float[] centroid, Random random) {
+        float[] vector = gaussian(random, 0.5f);
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] += centroid[i];
+        }
+        return vector;
+    }
+
+    private static float[] gaussian(Random random, float scale) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian() * scale;
+        }
+        return vector;
+    }
+
+    @FunctionalInterface
+    private interface Score {
+        float of(int index);
+    }
+}
@@ -0,0 +1,100 @@
+package com.qoderv3.qoder_v3.benchmark;
+
+import com.qoderv3.qoder_v3.vector.HnswIndex;
+import com.qoderv3.qoder_v3.vector.VectorMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cosine scoring of single vector pairs and top-k search over the in-process
+ * HNSW index compared to an exact scan of the same vectors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorScoringBenchmark {
+
+    private static final int DIMENSIONS = 1536;
+
+    private float[] a;
+    private float[] b;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        a = randomVector(random);
+        b = randomVector(random);
+    }
+
+    /**
+     * Index built once per trial, only for the search benchmarks
+     */
+    @State(Scope.Benchmark)
+    public static class IndexState {
+
+        @Param({"10000"})
+        private int indexSize;
+
+        private float[] query;
+        private HnswIndex index;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(43);
+            query = randomVector(random);
+            index = new HnswIndex(DIMENSIONS, 16, 200, 42);
+            for (int i = 0; i < indexSize; i++) {
+                index.add(UUID.randomUUID(), UUID.randomUUID(), i, randomVector(random));
+            }
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public float cosineSimilarity() {
+        return VectorMath.cosineSimilarity(a, b);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public float dotProduct() {
+        return VectorMath.dot(a, b);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<HnswIndex.Result> hnswTop10(IndexState state) {
+        return state.index.search(state.query, 10, 64);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<HnswIndex.Result> exactTop10(IndexState state) {
+        return state.index.exactSearch(state.query, 10);
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
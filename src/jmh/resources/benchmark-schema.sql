@@ -0,0 +1,56 @@
+-- H2 (PostgreSQL mode) schema for the persistence benchmarks.
+-- Mirrors the users and projects tables of the Flyway migrations with the
+-- PostgreSQL-only types (enums, TEXT[]) replaced by H2 equivalents.
+
+CREATE TABLE users (
+    id UUID PRIMARY KEY,
+    username VARCHAR(50) UNIQUE NOT NULL,
+    email VARCHAR(255) UNIQUE NOT NULL,
+    password_hash VARCHAR(255),
+    first_name VARCHAR(100),
+    last_name VARCHAR(100),
+    full_name VARCHAR(255),
+    avatar_url TEXT,
+    bio TEXT,
+    github_username VARCHAR(50),
+    status VARCHAR(30) DEFAULT 'ACTIVE',
+    email_verified BOOLEAN DEFAULT FALSE,
+    email_verification_token VARCHAR(255),
+    password_reset_token VARCHAR(255),
+    password_reset_expires_at TIMESTAMP WITH TIME ZONE,
+    last_login_at TIMESTAMP WITH TIME ZONE,
+    projects_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE projects (
+    id UUID PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    slug VARCHAR(255) UNIQUE NOT NULL,
+    description TEXT,
+    detailed_description TEXT,
+    owner_id UUID NOT NULL REFERENCES users(id),
+    repository_url TEXT,
+    homepage_url TEXT,
+    documentation_url TEXT,
+    license VARCHAR(50),
+    programming_languages VARCHAR(100) ARRAY,
+    tags VARCHAR(100) ARRAY,
+    status VARCHAR(30) DEFAULT 'ACTIVE',
+    visibility VARCHAR(20) DEFAULT 'PUBLIC',
+    is_template BOOLEAN DEFAULT FALSE,
+    is_fork BOOLEAN DEFAULT FALSE,
+    fork_parent_id UUID REFERENCES projects(id),
+    stars_count INTEGER NOT NULL DEFAULT 0,
+    forks_count INTEGER NOT NULL DEFAULT 0,
+    watchers_count INTEGER DEFAULT 0,
+    issues_count INTEGER DEFAULT 0,
+    last_activity_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_projects_owner_id ON projects(owner_id);
+CREATE INDEX idx_users_username ON users(username);
+CREATE INDEX idx_projects_public_stars_keyset ON projects(stars_count DESC, created_at DESC, id DESC);
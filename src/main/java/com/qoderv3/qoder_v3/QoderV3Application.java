@@ -2,8 +2,10 @@ package com.qoderv3.qoder_v3;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class QoderV3Application {
 
 	public static void main(String[] args) {
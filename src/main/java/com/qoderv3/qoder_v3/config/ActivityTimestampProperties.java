@@ -0,0 +1,27 @@
+package com.qoderv3.qoder_v3.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the write-behind project activity and user login timestamps.
+ * Bound from the {@code qoder.activity-timestamps} prefix.
+ */
+@Data
+@ConfigurationProperties(prefix = "qoder.activity-timestamps")
+public class ActivityTimestampProperties {
+
+    /**
+     * How often the latest pending timestamps are written; each row is written at
+     * most once per interval however often it is touched
+     */
+    private Duration flushInterval = Duration.ofSeconds(30);
+
+    /**
+     * Maximum number of rows updated per statement (at most 32767, two bind
+     * parameters per row)
+     */
+    private int maxBatchSize = 1000;
+}
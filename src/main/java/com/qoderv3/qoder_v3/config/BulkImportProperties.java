@@ -0,0 +1,33 @@
+package com.qoderv3.qoder_v3.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for COPY-based bulk imports.
+ * Bound from the {@code qoder.import} prefix.
+ */
+@Data
+@ConfigurationProperties(prefix = "qoder.import")
+public class BulkImportProperties {
+
+    /**
+     * Maximum number of rejected rows listed in an import report; all are counted
+     */
+    private int maxReportedRejections = 1000;
+
+    /**
+     * work_mem for the import transaction, sized for the de-duplication sorts
+     */
+    private String workMem = "256MB";
+
+    /**
+     * Input bytes between progress log lines while copying
+     */
+    private long progressLogBytes = 64L * 1024 * 1024;
+
+    /**
+     * Expected embedding vector dimensions; rows with any other size are rejected
+     */
+    private int embeddingDimensions = 1536;
+}
@@ -0,0 +1,61 @@
+package com.qoderv3.qoder_v3.config;
+
+import com.qoderv3.qoder_v3.persistence.AdmissionControlDataSource;
+import com.qoderv3.qoder_v3.persistence.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Wraps the application {@link DataSource} in an {@link AdmissionControlDataSource}
+ * when admission control is enabled, sized to the Hikari pool unless configured.
+ */
+@Slf4j
+@Component
+public class DatabaseAdmissionPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<DatabaseAdmissionProperties> properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public DatabaseAdmissionPostProcessor(ObjectProvider<DatabaseAdmissionProperties> properties,
+                                          ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || isAdmittedOrRouted(dataSource)) {
+            return bean;
+        }
+        DatabaseAdmissionProperties admission = properties.getIfAvailable();
+        if (admission == null || !admission.isEnabled()) {
+            return bean;
+        }
+        int maxConcurrent = admission.getMaxConcurrent();
+        if (maxConcurrent < 1) {
+            maxConcurrent = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+        }
+        AdmissionControlDataSource admitted =
+                new AdmissionControlDataSource(dataSource, maxConcurrent, admission.getAcquireTimeout());
+        meterRegistry.ifAvailable(admitted::bindTo);
+        log.info("Database admission control enabled for '{}' with {} permits", beanName, maxConcurrent);
+        return admitted;
+    }
+
+    private static boolean isAdmittedOrRouted(DataSource dataSource) {
+        try {
+            // Routing datasources admit each of their pools separately
+            return dataSource.isWrapperFor(AdmissionControlDataSource.class)
+                    || dataSource.isWrapperFor(ReplicaRoutingDataSource.class);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.qoderv3.qoder_v3.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for bounding concurrent database work.
+ * Bound from the {@code qoder.db.admission} prefix.
+ */
+@Data
+@ConfigurationProperties(prefix = "qoder.db.admission")
+public class DatabaseAdmissionProperties {
+
+    /**
+     * Whether connections are handed out through an admission semaphore
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum connections checked out at once; 0 uses the connection pool's maximum size
+     */
+    private int maxConcurrent = 0;
+
+    /**
+     * How long a caller waits for a permit before failing
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,53 @@
+package com.qoderv3.qoder_v3.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the embedding backfill pipeline.
+ * Bound from the {@code qoder.embeddings.backfill} prefix.
+ */
+@Data
+@ConfigurationProperties(prefix = "qoder.embeddings.backfill")
+public class EmbeddingBackfillProperties {
+
+    /**
+     * Whether to run a backfill once the application is ready
+     */
+    private boolean runOnStartup = false;
+
+    /**
+     * Rows read per keyset page
+     */
+    private int pageSize = 1000;
+
+    /**
+     * Approximate token budget of a single embedding model call
+     */
+    private int maxTokensPerBatch = 8000;
+
+    /**
+     * Maximum number of texts in a single embedding model call
+     */
+    private int maxItemsPerBatch = 128;
+
+    /**
+     * Number of micro-batches embedded and written concurrently
+     */
+    private int concurrency = 4;
+
+    /**
+     * Model name recorded in embedding_model for backfilled rows
+     */
+    private String modelName = "text-embedding-ada-002";
+
+    /**
+     * Expected vector dimensions; vectors of any other size are rejected
+     */
+    private int dimensions = 1536;
+
+    /**
+     * Rough characters-per-token ratio used to size batches without a tokenizer
+     */
+    private double charsPerToken = 4.0;
+}
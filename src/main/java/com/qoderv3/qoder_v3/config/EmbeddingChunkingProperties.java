@@ -0,0 +1,41 @@
+package com.qoderv3.qoder_v3.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for splitting long content into multi-chunk embeddings.
+ * Bound from the {@code qoder.embeddings.chunking} prefix. Model batching, the
+ * model name and the vector dimensions come from {@link EmbeddingBackfillProperties}.
+ */
+@Data
+@ConfigurationProperties(prefix = "qoder.embeddings.chunking")
+public class EmbeddingChunkingProperties {
+
+    /**
+     * Approximate token budget of a single chunk
+     */
+    private int maxTokens = 512;
+
+    /**
+     * Approximate tokens of the previous chunk repeated at the start of the next
+     */
+    private int overlapTokens = 64;
+
+    /**
+     * Maximum chunks per content item. Longer content fails unless {@code truncate}
+     * is set.
+     */
+    private int maxChunks = 256;
+
+    /**
+     * Whether text beyond {@code maxChunks} is left out, and reported as truncated,
+     * instead of failing the content item
+     */
+    private boolean truncate = false;
+
+    /**
+     * Rough characters-per-token ratio used to size chunks without a tokenizer
+     */
+    private double charsPerToken = 4.0;
+}
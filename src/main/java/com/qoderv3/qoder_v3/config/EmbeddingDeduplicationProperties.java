@@ -0,0 +1,30 @@
+package com.qoderv3.qoder_v3.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for reusing vectors of identical content text.
+ * Bound from the {@code qoder.embeddings.dedup} prefix.
+ */
+@Data
+@ConfigurationProperties(prefix = "qoder.embeddings.dedup")
+public class EmbeddingDeduplicationProperties {
+
+    /**
+     * Whether stored vectors are looked up by content hash before calling the model
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum vectors kept in the in-memory hash cache (about 6 KB each at 1536 dimensions)
+     */
+    private long cacheMaxSize = 5000;
+
+    /**
+     * How long a cached vector is kept after its last use
+     */
+    private Duration cacheTtl = Duration.ofMinutes(30);
+}
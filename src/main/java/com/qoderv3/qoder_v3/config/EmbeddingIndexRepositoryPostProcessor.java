@@ -0,0 +1,90 @@
+package com.qoderv3.qoder_v3.config;
+
+import com.qoderv3.qoder_v3.entity.Embedding;
+import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepository;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepositoryCustom.ChunkInsert;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepositoryCustom.VectorUpdate;
+import com.qoderv3.qoder_v3.service.EmbeddingVectorIndexService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Adds an interceptor to the {@link EmbeddingRepository} proxy so that bulk JPQL
+ * updates and deletes, which bypass entity listeners, are mirrored into the
+ * in-process vector index.
+ */
+@Component
+public class EmbeddingIndexRepositoryPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<EmbeddingVectorIndexService> indexService;
+
+    public EmbeddingIndexRepositoryPostProcessor(ObjectProvider<EmbeddingVectorIndexService> indexService) {
+        this.indexService = indexService;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean
+                && EmbeddingRepository.class.equals(factoryBean.getObjectType())) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(new IndexSyncInterceptor())));
+        }
+        return bean;
+    }
+
+    private final class IndexSyncInterceptor implements MethodInterceptor {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object result = invocation.proceed();
+            EmbeddingVectorIndexService index = indexService.getIfAvailable();
+            if (index == null) {
+                return result;
+            }
+            Object[] args = invocation.getArguments();
+            switch (invocation.getMethod().getName()) {
+                case "updateEmbeddingVector" -> index.onVectorUpdated((UUID) args[0], (float[]) args[1]);
+                case "batchFillMissingVectors" -> {
+                    for (VectorUpdate update : (List<VectorUpdate>) args[0]) {
+                        index.onVectorUpdated(update.id(), update.vector());
+                    }
+                }
+                case "insertChunks" -> index.onChunksInserted((UUID) args[0], (EmbeddingContentType) args[1],
+                        (List<ChunkInsert>) args[2]);
+                case "deleteByContentId" -> index.onContentDeleted((UUID) args[0], null);
+                case "deleteByContentIdAndContentType" ->
+                        index.onContentDeleted((UUID) args[0], (EmbeddingContentType) args[1]);
+                case "deleteOldEmbeddings" -> index.onDeletedOlderThan((OffsetDateTime) args[0]);
+                case "deleteOldEmbeddingsByContentType" ->
+                        index.onDeletedOlderThan((EmbeddingContentType) args[0], (OffsetDateTime) args[1]);
+                case "deleteAllByIdInBatch" -> {
+                    for (Object id : (Iterable<?>) args[0]) {
+                        index.onDeleted((UUID) id);
+                    }
+                }
+                case "deleteAllInBatch" -> {
+                    if (args.length == 0) {
+                        index.reloadAfterCommit();
+                    } else {
+                        for (Object embedding : (Iterable<?>) args[0]) {
+                            index.onDeleted(((Embedding) embedding).getId());
+                        }
+                    }
+                }
+                default -> {
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.qoderv3.qoder_v3.config;
+
+import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration for the per content type embedding retention job.
+ * Bound from the {@code qoder.embeddings.retention} prefix.
+ */
+@Data
+@ConfigurationProperties(prefix = "qoder.embeddings.retention")
+public class EmbeddingRetentionProperties {
+
+    /**
+     * How often expired embeddings are deleted
+     */
+    private Duration interval = Duration.ofHours(1);
+
+    /**
+     * Maximum age of embeddings per content type; types without an entry are kept forever
+     */
+    private Map<EmbeddingContentType, Duration> maxAge = new EnumMap<>(EmbeddingContentType.class);
+}
@@ -0,0 +1,92 @@
+package com.qoderv3.qoder_v3.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.qoderv3.qoder_v3.entity.Project;
+import com.qoderv3.qoder_v3.entity.User;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for {@link User} and {@link Project}, backed by
+ * bounded Caffeine caches through JCache. Entity, natural-id and query result
+ * regions are created up front with size and time limits; the update timestamps
+ * region is unbounded, as Hibernate requires for query cache correctness.
+ * Hibernate statistics and per-region cache metrics are published to Micrometer.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "qoder.cache.hibernate", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class HibernateCacheConfig {
+
+    static final List<Class<?>> CACHED_ENTITIES = List.of(User.class, Project.class);
+
+    private static final String NATURAL_ID_SUFFIX = "##NaturalId";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(HibernateCacheProperties properties) {
+        // A manager of its own per application context: the provider's default manager is a JVM-wide
+        // singleton, so a second context would share regions and the first to close would close it for both
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("qoder:hibernate-cache:" + UUID.randomUUID()),
+                        HibernateCacheConfig.class.getClassLoader());
+        for (Class<?> entity : CACHED_ENTITIES) {
+            createCache(cacheManager, entity.getName(), properties.getEntityMaxSize(), properties.getEntityTtl());
+            createCache(cacheManager, entity.getName() + NATURAL_ID_SUFFIX, properties.getEntityMaxSize(),
+                    properties.getEntityTtl());
+        }
+        createCache(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                properties.getQueryMaxSize(), properties.getQueryTtl());
+        createCache(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, null, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+            // Regions are created above; a missing one means an entity was cached without being configured
+            hibernateProperties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    @Bean
+    public MeterBinder hibernateCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> {
+            for (String name : hibernateCacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(name));
+            }
+        };
+    }
+
+    private static void createCache(CacheManager cacheManager, String name, Long maxSize, Duration ttl) {
+        // getCache would try to load an external configuration for names it does not know yet
+        for (String existing : cacheManager.getCacheNames()) {
+            if (existing.equals(name)) {
+                return;
+            }
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maxSize != null ? OptionalLong.of(maxSize) : OptionalLong.empty());
+        configuration.setExpireAfterWrite(ttl != null ? OptionalLong.of(ttl.toNanos()) : OptionalLong.empty());
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
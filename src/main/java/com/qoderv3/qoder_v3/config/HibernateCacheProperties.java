@@ -0,0 +1,40 @@
+package com.qoderv3.qoder_v3.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the Hibernate second-level cache (Caffeine through JCache).
+ * Bound from the {@code qoder.cache.hibernate} prefix.
+ */
+@Data
+@ConfigurationProperties(prefix = "qoder.cache.hibernate")
+public class HibernateCacheProperties {
+
+    /**
+     * Whether the second-level and query caches are enabled
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum entries per entity and natural-id region
+     */
+    private long entityMaxSize = 10_000;
+
+    /**
+     * Time after which cached entities expire
+     */
+    private Duration entityTtl = Duration.ofMinutes(10);
+
+    /**
+     * Maximum entries in the query results region
+     */
+    private long queryMaxSize = 5_000;
+
+    /**
+     * Time after which cached query results expire
+     */
+    private Duration queryTtl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,50 @@
+package com.qoderv3.qoder_v3.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for hybrid lexical + vector project search.
+ * Bound from the {@code qoder.search.hybrid} prefix.
+ */
+@Data
+@ConfigurationProperties(prefix = "qoder.search.hybrid")
+public class HybridSearchProperties {
+
+    /**
+     * Candidates taken from the full-text search
+     */
+    private int lexicalCandidates = 50;
+
+    /**
+     * Candidates taken from the vector similarity search
+     */
+    private int semanticCandidates = 50;
+
+    /**
+     * Weight of the full-text ranking in the fused score
+     */
+    private double lexicalWeight = 1.0;
+
+    /**
+     * Weight of the vector ranking in the fused score
+     */
+    private double semanticWeight = 1.0;
+
+    /**
+     * Reciprocal-rank fusion constant k in weight / (k + rank)
+     */
+    private int rrfK = 60;
+
+    /**
+     * Maximum time to wait for a candidate query before fusing without it
+     */
+    private Duration candidateTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Platform threads running candidate queries; unused when virtual threads are active
+     */
+    private int threads = 8;
+}
@@ -0,0 +1,25 @@
+package com.qoderv3.qoder_v3.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the write-behind project star/fork counters.
+ * Bound from the {@code qoder.projects.counters} prefix.
+ */
+@Data
+@ConfigurationProperties(prefix = "qoder.projects.counters")
+public class ProjectCounterProperties {
+
+    /**
+     * How often pending counter deltas are flushed to the projects table
+     */
+    private Duration flushInterval = Duration.ofSeconds(5);
+
+    /**
+     * Maximum number of projects updated per JDBC batch
+     */
+    private int maxBatchSize = 500;
+}
@@ -0,0 +1,29 @@
+package com.qoderv3.qoder_v3.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Event weights of the time-decayed project trending score. The decay half-life
+ * is part of the stored score and fixed by the V10 migration.
+ * Bound from the {@code qoder.projects.trending} prefix.
+ */
+@Data
+@ConfigurationProperties(prefix = "qoder.projects.trending")
+public class ProjectTrendingProperties {
+
+    /**
+     * Weight of one star; unstars do not lower the score
+     */
+    private double starWeight = 1.0;
+
+    /**
+     * Weight of one fork
+     */
+    private double forkWeight = 2.0;
+
+    /**
+     * Weight of a counter flush that recorded any activity for the project
+     */
+    private double activityWeight = 0.25;
+}
@@ -0,0 +1,111 @@
+package com.qoderv3.qoder_v3.config;
+
+import com.qoderv3.qoder_v3.persistence.AdmissionControlDataSource;
+import com.qoderv3.qoder_v3.persistence.ReplicaLagMonitor;
+import com.qoderv3.qoder_v3.persistence.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured datasource with a primary pool and one pool per
+ * read replica behind a {@link ReplicaRoutingDataSource}. Pool settings from
+ * {@code spring.datasource.hikari} apply to every pool. Locally, the replicas
+ * can point at a second PostgreSQL instance or at an H2 database with
+ * {@code lag-query=SELECT 0}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "qoder.datasource.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 ReadReplicaProperties replicaProperties,
+                                 ObjectProvider<DatabaseAdmissionProperties> admissionProperties,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 Environment environment) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class).build();
+        bindPoolSettings(primary, environment, "primary", meterRegistry);
+        pools.add(primary);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReadReplicaProperties.Replica> instances = replicaProperties.getInstances();
+        for (int i = 0; i < instances.size(); i++) {
+            ReadReplicaProperties.Replica instance = instances.get(i);
+            String name = instance.getName() != null ? instance.getName() : "replica-" + (i + 1);
+            HikariDataSource replica = new HikariDataSource();
+            bindPoolSettings(replica, environment, name, meterRegistry);
+            replica.setJdbcUrl(instance.getUrl());
+            replica.setUsername(instance.getUsername());
+            replica.setPassword(instance.getPassword());
+            replica.setMaximumPoolSize(instance.getMaximumPoolSize());
+            replica.setMinimumIdle(Math.min(replica.getMinimumIdle(), instance.getMaximumPoolSize()));
+            replica.setReadOnly(true);
+            pools.add(replica);
+            replicas.put(name, admit(replica, admissionProperties.getIfAvailable()));
+        }
+
+        DataSource admittedPrimary = admit(primary, admissionProperties.getIfAvailable());
+        if (admittedPrimary instanceof AdmissionControlDataSource admission) {
+            // Admission metrics are published for the primary, where writes queue
+            meterRegistry.ifAvailable(admission::bindTo);
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(admittedPrimary, replicas,
+                replicaProperties.getReadYourWritesWindow());
+        meterRegistry.ifAvailable(routing::bindTo);
+        // Defers the routing decision until the transaction's read-only flag is set
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSource dataSource, ReadReplicaProperties replicaProperties,
+                                               MeterRegistry meterRegistry) throws SQLException {
+        return new ReplicaLagMonitor(dataSource.unwrap(ReplicaRoutingDataSource.class),
+                replicaProperties.getLagQuery(), replicaProperties.getMaxLag(), meterRegistry);
+    }
+
+    @PreDestroy
+    void closePools() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private static void bindPoolSettings(HikariDataSource pool, Environment environment, String name,
+                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        meterRegistry.ifAvailable(registry ->
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    }
+
+    private static DataSource admit(HikariDataSource pool, DatabaseAdmissionProperties admission) {
+        if (admission == null || !admission.isEnabled()) {
+            return pool;
+        }
+        int maxConcurrent = admission.getMaxConcurrent() > 0
+                ? admission.getMaxConcurrent()
+                : pool.getMaximumPoolSize();
+        return new AdmissionControlDataSource(pool, maxConcurrent, admission.getAcquireTimeout());
+    }
+}
@@ -0,0 +1,70 @@
+package com.qoderv3.qoder_v3.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration for routing read-only transactions to read replicas.
+ * Bound from the {@code qoder.datasource.read-replicas} prefix.
+ */
+@Data
+@ConfigurationProperties(prefix = "qoder.datasource.read-replicas")
+public class ReadReplicaProperties {
+
+    /**
+     * Whether read-only transactions are routed to the replicas
+     */
+    private boolean enabled = false;
+
+    /**
+     * Replica connection settings; pool timeouts are shared with spring.datasource.hikari
+     */
+    private List<Replica> instances = new ArrayList<>();
+
+    /**
+     * Replicas lagging by more than this are taken out of rotation
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Interval between replication lag checks
+     */
+    private Duration checkInterval = Duration.ofSeconds(5);
+
+    /**
+     * How long a caller's reads stay on the primary after it commits a write
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * Query returning a replica's lag in seconds; replay lag counts as zero once
+     * everything received has been replayed, so an idle primary does not look like lag
+     */
+    private String lagQuery = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    /**
+     * Connection settings of one replica
+     */
+    @Data
+    public static class Replica {
+
+        /**
+         * Name used in metrics and logs; defaults to replica-N
+         */
+        private String name;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+    }
+}
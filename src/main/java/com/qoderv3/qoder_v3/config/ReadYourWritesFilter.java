@@ -0,0 +1,65 @@
+package com.qoderv3.qoder_v3.config;
+
+import com.qoderv3.qoder_v3.persistence.ReadYourWrites;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+
+/**
+ * Carries the client's last write time between requests in a cookie, so reads
+ * in the requests that follow a write stay on the primary for the
+ * read-your-writes window. The cookie is added when the write commits; if the
+ * response is already committed by then, only the current request is covered.
+ */
+@Component
+@ConditionalOnProperty(prefix = "qoder.datasource.read-replicas", name = "enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "qoder_last_write";
+
+    private final ReadReplicaProperties properties;
+
+    public ReadYourWritesFilter(ReadReplicaProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadYourWrites.restore(parse(WebUtils.getCookie(request, COOKIE_NAME)));
+        ReadYourWrites.onWrite(lastWrite -> {
+            if (!response.isCommitted()) {
+                Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(lastWrite));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, properties.getReadYourWritesWindow().toSeconds()));
+                response.addCookie(cookie);
+            }
+        });
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+
+    private static Long parse(Cookie cookie) {
+        if (cookie == null) {
+            return null;
+        }
+        try {
+            // Capped at now, so a forged future value cannot pin reads to the primary
+            return Math.min(Long.parseLong(cookie.getValue()), System.currentTimeMillis());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.qoderv3.qoder_v3.config;
+
+import com.qoderv3.qoder_v3.persistence.RepositoryMetricsInterceptor;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepository;
+import com.qoderv3.qoder_v3.repository.ProjectRepository;
+import com.qoderv3.qoder_v3.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Adds a {@link RepositoryMetricsInterceptor} to the user, project and embedding
+ * repository proxies, so every query method publishes latency, row and error
+ * metrics tagged by method name.
+ */
+@Component
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+    private static final Set<Class<?>> INSTRUMENTED =
+            Set.of(UserRepository.class, ProjectRepository.class, EmbeddingRepository.class);
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean
+                && INSTRUMENTED.contains(factoryBean.getObjectType())) {
+            String repository = factoryBean.getObjectType().getSimpleName();
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> meterRegistry.ifAvailable(registry ->
+                            proxyFactory.addAdvice(new RepositoryMetricsInterceptor(repository, registry)))));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,12 @@
+package com.qoderv3.qoder_v3.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs such as write-behind flushes.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,81 @@
+package com.qoderv3.qoder_v3.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.security.web.csrf.CsrfTokenRequestAttributeHandler;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * HTTP security. Full data dumps under {@code /api/export} and bulk loads under
+ * {@code /api/import} are restricted to the ADMIN role with HTTP Basic and no
+ * session; every other request keeps Spring Boot's default of requiring an
+ * authenticated user. The admin account is the {@code spring.security.user}
+ * account configured in application.properties.
+ *
+ * <p>Browsers resend Basic credentials on their own, so imports still need a
+ * CSRF token: every admin API response carries it in the {@code XSRF-TOKEN}
+ * cookie and a POST must echo it in the {@code X-XSRF-TOKEN} header.
+ */
+@Configuration
+public class SecurityConfig {
+
+    static final String ADMIN_ROLE = "ADMIN";
+
+    @Bean
+    @Order(1)
+    public SecurityFilterChain adminApiSecurityFilterChain(HttpSecurity http) throws Exception {
+        http.securityMatcher("/api/export/**", "/api/import/**")
+                .authorizeHttpRequests(requests -> requests.anyRequest().hasRole(ADMIN_ROLE))
+                .httpBasic(Customizer.withDefaults())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // The raw cookie value is accepted in the header, as scripts and CLI clients send it
+                .csrf(csrf -> csrf.csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse())
+                        .csrfTokenRequestHandler(new CsrfTokenRequestAttributeHandler()))
+                .addFilterAfter(new CsrfCookieFilter(), BasicAuthenticationFilter.class);
+        return http.build();
+    }
+
+    /**
+     * Same rules as Spring Boot's default chain, which backs off once any chain is declared
+     */
+    @Bean
+    @Order(SecurityProperties.BASIC_AUTH_ORDER)
+    public SecurityFilterChain defaultSecurityFilterChain(HttpSecurity http) throws Exception {
+        http.authorizeHttpRequests(requests -> requests.anyRequest().authenticated())
+                .formLogin(Customizer.withDefaults())
+                .httpBasic(Customizer.withDefaults());
+        return http.build();
+    }
+
+    /**
+     * Loads the deferred CSRF token so the cookie is written on every response,
+     * including the GET a client makes before its first import
+     */
+    static final class CsrfCookieFilter extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            CsrfToken token = (CsrfToken) request.getAttribute(CsrfToken.class.getName());
+            if (token != null) {
+                token.getToken();
+            }
+            filterChain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.qoderv3.qoder_v3.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the in-memory leaderboard of users by project count.
+ * Bound from the {@code qoder.users.leaderboard} prefix.
+ */
+@Data
+@ConfigurationProperties(prefix = "qoder.users.leaderboard")
+public class UserLeaderboardProperties {
+
+    /**
+     * Maximum number of users served from the leaderboard
+     */
+    private int size = 100;
+
+    /**
+     * How often users whose projects changed are re-read and merged in
+     */
+    private Duration refreshInterval = Duration.ofSeconds(10);
+
+    /**
+     * How often the whole leaderboard is reloaded, picking up changes made
+     * outside the entity manager (e.g. JDBC imports)
+     */
+    private Duration fullRefreshInterval = Duration.ofMinutes(5);
+}
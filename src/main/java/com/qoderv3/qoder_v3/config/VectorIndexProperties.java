@@ -0,0 +1,53 @@
+package com.qoderv3.qoder_v3.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the optional in-process HNSW index over the embeddings table.
+ * Bound from the {@code qoder.vector.index} prefix.
+ */
+@Data
+@ConfigurationProperties(prefix = "qoder.vector.index")
+public class VectorIndexProperties {
+
+    /**
+     * Whether the in-process index is built and used for similarity queries
+     */
+    private boolean enabled = false;
+
+    /**
+     * Vector dimensions; must match the embedding_vector column
+     */
+    private int dimensions = 1536;
+
+    /**
+     * Maximum connections per node on upper graph layers (layer 0 uses 2 * m)
+     */
+    private int m = 16;
+
+    /**
+     * Candidate list size while inserting; higher builds a better graph more slowly
+     */
+    private int efConstruction = 200;
+
+    /**
+     * Candidate list size while searching; higher improves recall at the cost of latency
+     */
+    private int efSearch = 64;
+
+    /**
+     * Fraction of searches that are re-run exactly to record recall (0 disables sampling)
+     */
+    private double recallSampleRate = 0.01;
+
+    /**
+     * Fraction of tombstoned nodes in a partition that triggers a background rebuild
+     */
+    private double compactionThreshold = 0.3;
+
+    /**
+     * JDBC fetch size used when loading the table at startup
+     */
+    private int loadFetchSize = 1000;
+}
@@ -0,0 +1,56 @@
+package com.qoderv3.qoder_v3.config;
+
+import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+import com.qoderv3.qoder_v3.vector.VectorQuantization;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration for quantized candidate search with full-precision re-ranking.
+ * Bound from the {@code qoder.vector.quantization} prefix.
+ */
+@Data
+@ConfigurationProperties(prefix = "qoder.vector.quantization")
+public class VectorQuantizationProperties {
+
+    /**
+     * Representation used for content types without an entry in {@link #modes}
+     */
+    private VectorQuantization defaultMode = VectorQuantization.NONE;
+
+    /**
+     * Representation used per content type
+     */
+    private Map<EmbeddingContentType, VectorQuantization> modes = new EnumMap<>(EmbeddingContentType.class);
+
+    /**
+     * Candidates re-ranked per requested result
+     */
+    private int rerankFactor = 4;
+
+    /**
+     * Lower bound on the candidates re-ranked by a single query
+     */
+    private int minCandidates = 40;
+
+    /**
+     * Gets the representation used for a content type
+     * @param contentType the content type, or null for a search over every type
+     * @return the configured representation
+     */
+    public VectorQuantization modeFor(EmbeddingContentType contentType) {
+        return contentType != null ? modes.getOrDefault(contentType, defaultMode) : defaultMode;
+    }
+
+    /**
+     * Gets the number of candidates to re-rank for a result limit
+     * @param limit maximum results
+     * @return candidates to fetch from the quantized index
+     */
+    public int candidatesFor(int limit) {
+        return Math.max(minCandidates, limit * rerankFactor);
+    }
+}
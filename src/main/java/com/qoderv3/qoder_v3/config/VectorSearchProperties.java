@@ -0,0 +1,20 @@
+package com.qoderv3.qoder_v3.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-query tuning of pgvector HNSW index scans.
+ * Bound from the {@code qoder.vector.search} prefix. The index build parameters
+ * ({@code m}, {@code ef_construction}) are Flyway placeholders of the V13 migration.
+ */
+@Data
+@ConfigurationProperties(prefix = "qoder.vector.search")
+public class VectorSearchProperties {
+
+    /**
+     * HNSW candidate list size; higher improves recall at the cost of latency.
+     * Queries that need more rows than this raise it to their LIMIT.
+     */
+    private int efSearch = 40;
+}
@@ -0,0 +1,46 @@
+package com.qoderv3.qoder_v3.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates executors for blocking background calls such as embedding model
+ * requests. With {@code spring.threads.virtual.enabled} on a Java 21+ runtime
+ * every task runs on its own virtual thread; otherwise a fixed pool of platform
+ * threads is used.
+ */
+@Component
+public class WorkerExecutors {
+
+    private final boolean virtual;
+
+    public WorkerExecutors(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+    }
+
+    /**
+     * Creates an executor; the caller owns and shuts it down
+     * @param name thread name prefix
+     * @param platformThreads pool size when virtual threads are not active
+     * @return a new executor
+     */
+    public ExecutorService newExecutor(String name, int platformThreads) {
+        if (virtual) {
+            // Idle virtual threads are cheap, so an unbounded cached pool is effectively thread-per-task
+            return Executors.newCachedThreadPool(new VirtualThreadTaskExecutor(name + "-").getVirtualThreadFactory());
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(name + "-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(Math.max(1, platformThreads), threadFactory);
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+}
@@ -0,0 +1,73 @@
+package com.qoderv3.qoder_v3.controller;
+
+import com.qoderv3.qoder_v3.service.DataExportService;
+import com.qoderv3.qoder_v3.service.DataExportService.Dataset;
+import com.qoderv3.qoder_v3.service.DataExportService.Format;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming dumps of projects, users and embeddings. The response is written on
+ * the request thread while rows are read, so nothing is buffered in memory.
+ */
+@RestController
+public class ExportController {
+
+    private final DataExportService exportService;
+
+    public ExportController(DataExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/api/export/{dataset}")
+    public void export(@PathVariable String dataset,
+                       @RequestParam(defaultValue = "ndjson") String format,
+                       @RequestParam(defaultValue = "false") boolean gzip,
+                       HttpServletResponse response) throws IOException {
+        Dataset exportDataset = parse(Dataset.class, dataset);
+        Format exportFormat = parse(Format.class, format);
+
+        String filename = exportDataset.name().toLowerCase(Locale.ROOT) + "." + exportFormat.extension()
+                + (gzip ? ".gz" : "");
+        if (gzip) {
+            // A compressed file download, not a transfer encoding clients would undo
+            response.setContentType("application/gzip");
+        } else {
+            response.setContentType(exportFormat.contentType());
+            response.setCharacterEncoding("UTF-8");
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+
+        OutputStream out = response.getOutputStream();
+        if (gzip) {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+            exportService.export(exportDataset, exportFormat, compressed);
+            compressed.finish();
+        } else {
+            exportService.export(exportDataset, exportFormat, out);
+        }
+        out.flush();
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unsupported " + type.getSimpleName().toLowerCase(Locale.ROOT) + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.qoderv3.qoder_v3.controller;
+
+import com.qoderv3.qoder_v3.dto.ImportReport;
+import com.qoderv3.qoder_v3.service.BulkImportService;
+import com.qoderv3.qoder_v3.service.DataExportService.Dataset;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Bulk CSV imports. The request body is streamed into COPY as it arrives, so
+ * uploads of any size are never held in memory.
+ */
+@RestController
+public class ImportController {
+
+    private final BulkImportService importService;
+
+    public ImportController(BulkImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping(value = "/api/import/{dataset}", consumes = {"text/csv", "application/gzip"})
+    public ResponseEntity<ImportReport> importCsv(@PathVariable String dataset,
+                                                  @RequestParam(defaultValue = "false") boolean gzip,
+                                                  HttpServletRequest request) throws IOException {
+        Dataset importDataset;
+        try {
+            importDataset = Dataset.valueOf(dataset.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported dataset: " + dataset);
+        }
+        boolean compressed = gzip || "application/gzip".equals(request.getContentType());
+        try (InputStream body = compressed
+                ? new GZIPInputStream(request.getInputStream(), 64 * 1024)
+                : request.getInputStream()) {
+            return ResponseEntity.ok(importService.importCsv(importDataset, body));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.qoderv3.qoder_v3.dto;
+
+import java.time.Duration;
+
+/**
+ * Summary of an embedding backfill run.
+ *
+ * @param embedded rows that received a vector
+ * @param failed rows that could not be embedded or written
+ * @param batches number of micro-batches sent to the embedder; batches whose texts
+ *                were all found by content hash make no model call
+ * @param elapsed wall-clock duration of the run
+ */
+public record BackfillReport(long embedded, long failed, long batches, Duration elapsed) {
+
+    /**
+     * Gets the throughput of the run
+     * @return embedded rows per second
+     */
+    public double rowsPerSecond() {
+        double seconds = elapsed.toNanos() / 1_000_000_000d;
+        return seconds > 0 ? embedded / seconds : 0d;
+    }
+}
@@ -0,0 +1,13 @@
+package com.qoderv3.qoder_v3.dto;
+
+/**
+ * Summary of chunking and embedding one content item.
+ *
+ * @param chunks chunk rows written
+ * @param tokens estimated tokens sent to the embedding model
+ * @param batches number of model batches the chunks were embedded in
+ * @param truncated whether text beyond the chunk limit was left out, which only
+ *                  happens when truncation is enabled
+ */
+public record ChunkingReport(int chunks, long tokens, long batches, boolean truncated) {
+}
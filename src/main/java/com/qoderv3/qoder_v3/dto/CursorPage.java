@@ -0,0 +1,20 @@
+package com.qoderv3.qoder_v3.dto;
+
+import java.util.List;
+
+/**
+ * A page of results from keyset (seek) pagination.
+ *
+ * @param content the items on this page
+ * @param nextCursor opaque token for the following page, or null on the last page
+ */
+public record CursorPage<T>(List<T> content, String nextCursor) {
+
+    /**
+     * Checks if there is a following page
+     * @return true if a next cursor is present
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
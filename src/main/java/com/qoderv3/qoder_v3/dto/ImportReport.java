@@ -0,0 +1,36 @@
+package com.qoderv3.qoder_v3.dto;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Summary of a bulk import run.
+ *
+ * @param dataset the imported dataset
+ * @param copied rows read from the input
+ * @param imported rows inserted or updated
+ * @param rejected rows that failed validation
+ * @param rejections the first rejected rows with their reasons, by input line
+ * @param elapsed wall-clock duration of the run
+ */
+public record ImportReport(String dataset, long copied, long imported, long rejected,
+                           List<RejectedRow> rejections, Duration elapsed) {
+
+    /**
+     * Gets the throughput of the run
+     * @return input rows per second
+     */
+    public double rowsPerSecond() {
+        double seconds = elapsed.toNanos() / 1_000_000_000d;
+        return seconds > 0 ? copied / seconds : 0d;
+    }
+
+    /**
+     * A row that was not imported.
+     *
+     * @param line the line number in the input, counting the header as line 1
+     * @param reason why the row was rejected
+     */
+    public record RejectedRow(long line, String reason) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.qoderv3.qoder_v3.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Position of the last row of a keyset page: the listing it belongs to and the
+ * values of its sort keys, in sort order. Clients only ever see the encoded form,
+ * an opaque URL-safe token, so the key layout can change without breaking callers.
+ *
+ * @param listing name of the listing the cursor was issued for
+ * @param keys sort key values of the last row, tie-breaker ID last
+ */
+public record PageCursor(String listing, List<String> keys) {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    public PageCursor {
+        keys = List.copyOf(keys);
+    }
+
+    /**
+     * Encodes the cursor as an opaque token
+     * @return URL-safe token
+     */
+    public String encode() {
+        String raw = VERSION + SEPARATOR + listing + SEPARATOR + String.join(SEPARATOR, keys);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token issued for the given listing
+     * @param token the opaque token
+     * @param listing the listing the token must belong to
+     * @param keyCount the number of sort keys the listing uses
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed or belongs to another listing
+     */
+    public static PageCursor decode(String token, String listing, int keyCount) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+        String[] parts = raw.split("\\" + SEPARATOR, -1);
+        if (parts.length != keyCount + 2 || !VERSION.equals(parts[0]) || !listing.equals(parts[1])) {
+            throw new IllegalArgumentException("Invalid page cursor for listing " + listing);
+        }
+        return new PageCursor(listing, List.of(parts).subList(2, parts.length));
+    }
+
+    /**
+     * Gets a sort key value
+     * @param index position of the key
+     * @return the key value as encoded
+     */
+    public String key(int index) {
+        return keys.get(index);
+    }
+}
@@ -0,0 +1,14 @@
+package com.qoderv3.qoder_v3.dto;
+
+import com.qoderv3.qoder_v3.entity.Project;
+
+/**
+ * A project returned by hybrid search.
+ *
+ * @param project the matching project
+ * @param score fused reciprocal-rank score (higher is better)
+ * @param lexicalRank 1-based rank in the full-text candidates, or null if absent
+ * @param semanticRank 1-based rank in the vector candidates, or null if absent
+ */
+public record ProjectSearchResult(Project project, double score, Integer lexicalRank, Integer semanticRank) {
+}
@@ -0,0 +1,16 @@
+package com.qoderv3.qoder_v3.dto;
+
+import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+
+import java.util.UUID;
+
+/**
+ * Result of a vector similarity query.
+ *
+ * @param id the embedding id
+ * @param contentId the embedded content id
+ * @param contentType the embedded content type
+ * @param similarity cosine similarity to the query vector
+ */
+public record SimilarEmbedding(UUID id, UUID contentId, EmbeddingContentType contentType, double similarity) {
+}
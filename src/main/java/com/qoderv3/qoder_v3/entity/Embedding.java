@@ -1,11 +1,14 @@
 package com.qoderv3.qoder_v3.entity;
 
+import com.qoderv3.qoder_v3.persistence.VectorType;
+import com.qoderv3.qoder_v3.service.EmbeddingIndexListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.Type;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.type.SqlTypes;
 
@@ -19,6 +22,7 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "embeddings")
+@EntityListeners(EmbeddingIndexListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,8 +43,9 @@ public class Embedding {
     @Column(name = "content_text", nullable = false, columnDefinition = "TEXT")
     private String contentText;
     
+    @Type(VectorType.class)
     @Column(name = "embedding_vector", columnDefinition = "vector(1536)")
-    private String embeddingVector;
+    private float[] embeddingVector;
     
     @Column(name = "embedding_model", length = 100)
     private String embeddingModel = "text-embedding-ada-002";
@@ -106,16 +111,7 @@ public class Embedding {
      * @return number of dimensions or -1 if vector is null
      */
     public int getVectorDimensions() {
-        if (embeddingVector == null) {
-            return -1;
-        }
-        // Simple parsing assuming vector format "[x,y,z,...]"
-        try {
-            String[] parts = embeddingVector.replace("[", "").replace("]", "").split(",");
-            return parts.length;
-        } catch (Exception e) {
-            return -1;
-        }
+        return embeddingVector != null ? embeddingVector.length : -1;
     }
     
     /**
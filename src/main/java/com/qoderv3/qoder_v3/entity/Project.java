@@ -1,11 +1,17 @@
 package com.qoderv3.qoder_v3.entity;
 
+import com.qoderv3.qoder_v3.service.ProjectOwnerListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.OffsetDateTime;
@@ -17,7 +23,11 @@ import java.util.UUID;
  * This entity maps to the 'projects' table in the PostgreSQL database.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 @Table(name = "projects")
+@EntityListeners(ProjectOwnerListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,6 +42,7 @@ public class Project {
     @Column(name = "name", nullable = false, length = 255)
     private String name;
     
+    @NaturalId(mutable = true)
     @Column(name = "slug", unique = true, nullable = false, length = 255)
     private String slug;
     
@@ -84,10 +95,10 @@ public class Project {
     @OneToMany(mappedBy = "forkParent", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Project> forks;
     
-    @Column(name = "stars_count")
+    @Column(name = "stars_count", nullable = false)
     private Integer starsCount = 0;
     
-    @Column(name = "forks_count")
+    @Column(name = "forks_count", nullable = false)
     private Integer forksCount = 0;
     
     @Column(name = "watchers_count")
@@ -99,14 +110,23 @@ public class Project {
     @Column(name = "last_activity_at")
     private OffsetDateTime lastActivityAt;
     
+    // Maintained by counter flushes and defaulted by the database (see V10 migration)
+    @Column(name = "trending_score", insertable = false, updatable = false)
+    private Double trendingScore;
+    
     @CreationTimestamp
-    @Column(name = "created_at", updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
     
     @UpdateTimestamp
     @Column(name = "updated_at")
     private OffsetDateTime updatedAt;
     
+    // Owner as last loaded or written, kept by ProjectOwnerListener to detect ownership transfers
+    @Transient
+    @EqualsAndHashCode.Exclude
+    private UUID persistedOwnerId;
+    
     // Helper methods
     
     /**
@@ -5,7 +5,13 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.OffsetDateTime;
@@ -16,8 +22,13 @@ import java.util.UUID;
 /**
  * User entity representing user accounts in the qoder-v3 application.
  * This entity maps to the 'users' table in the PostgreSQL database.
+ * Lazy references (e.g. project owners) are initialized in batches of up to 100.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+@BatchSize(size = 100)
 @Table(name = "users")
 @Data
 @NoArgsConstructor
@@ -30,6 +41,7 @@ public class User {
     @Column(columnDefinition = "UUID")
     private UUID id;
     
+    @NaturalId(mutable = true)
     @Column(name = "username", unique = true, nullable = false, length = 50)
     private String username;
     
@@ -76,6 +88,11 @@ public class User {
     @Column(name = "last_login_at")
     private OffsetDateTime lastLoginAt;
     
+    // Maintained by a trigger on projects; never written by the application
+    @ColumnDefault("0")
+    @Column(name = "projects_count", nullable = false, insertable = false, updatable = false)
+    private Integer projectsCount = 0;
+    
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private OffsetDateTime createdAt;
@@ -0,0 +1,144 @@
+package com.qoderv3.qoder_v3.persistence;
+
+import org.postgresql.util.ByteConverter;
+import org.postgresql.util.PGBinaryObject;
+import org.postgresql.util.PGobject;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * JDBC representation of a pgvector {@code vector} value backed by a {@code float[]}.
+ * Supports pgvector's binary send/receive format (int16 dimensions, int16 unused,
+ * followed by big-endian float4 values) and falls back to the text format
+ * ("[x,y,z,...]") when the driver has not enabled binary transfer for the type.
+ */
+public class PgVector extends PGobject implements PGBinaryObject {
+
+    public static final String TYPE_NAME = "vector";
+
+    private static final int HEADER_BYTES = 4;
+
+    private float[] values;
+
+    public PgVector() {
+        this.type = TYPE_NAME;
+    }
+
+    public PgVector(float[] values) {
+        this();
+        this.values = values;
+    }
+
+    /**
+     * Gets the vector components
+     * @return the float values or null for a SQL NULL
+     */
+    public float[] toArray() {
+        return values;
+    }
+
+    @Override
+    public void setValue(String value) throws SQLException {
+        this.values = value == null ? null : parse(value);
+    }
+
+    @Override
+    public String getValue() {
+        return values == null ? null : format(values);
+    }
+
+    @Override
+    public void setByteValue(byte[] bytes, int offset) throws SQLException {
+        int dimensions = ByteConverter.int2(bytes, offset);
+        float[] decoded = new float[dimensions];
+        int position = offset + HEADER_BYTES;
+        for (int i = 0; i < dimensions; i++) {
+            decoded[i] = ByteConverter.float4(bytes, position);
+            position += Float.BYTES;
+        }
+        this.values = decoded;
+    }
+
+    @Override
+    public int lengthInBytes() {
+        return values == null ? 0 : HEADER_BYTES + values.length * Float.BYTES;
+    }
+
+    @Override
+    public void toBytes(byte[] bytes, int offset) {
+        ByteConverter.int2(bytes, offset, values.length);
+        ByteConverter.int2(bytes, offset + 2, 0);
+        int position = offset + HEADER_BYTES;
+        for (float value : values) {
+            ByteConverter.float4(bytes, position, value);
+            position += Float.BYTES;
+        }
+    }
+
+    /**
+     * Parses the pgvector text format without intermediate string splitting
+     * @param text vector literal such as "[0.1,0.2,0.3]"
+     * @return parsed components
+     */
+    public static float[] parse(String text) {
+        int start = text.indexOf('[') + 1;
+        int end = text.lastIndexOf(']');
+        if (end < 0) {
+            end = text.length();
+        }
+        if (start >= end) {
+            return new float[0];
+        }
+        int dimensions = 1;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == ',') {
+                dimensions++;
+            }
+        }
+        float[] parsed = new float[dimensions];
+        int index = 0;
+        int tokenStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || text.charAt(i) == ',') {
+                parsed[index++] = Float.parseFloat(text.substring(tokenStart, i).trim());
+                tokenStart = i + 1;
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Formats components using the pgvector text format
+     * @param values vector components
+     * @return vector literal
+     */
+    public static String format(float[] values) {
+        StringBuilder builder = new StringBuilder(values.length * 12 + 2);
+        builder.append('[');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(values[i]);
+        }
+        return builder.append(']').toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof PgVector other && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public PgVector clone() throws CloneNotSupportedException {
+        PgVector copy = (PgVector) super.clone();
+        copy.values = values == null ? null : values.clone();
+        return copy;
+    }
+}
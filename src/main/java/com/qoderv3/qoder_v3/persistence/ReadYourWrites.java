@@ -0,0 +1,66 @@
+package com.qoderv3.qoder_v3.persistence;
+
+import java.time.Duration;
+import java.util.function.LongConsumer;
+
+/**
+ * Per-thread time of the caller's last committed write. Read-only work is kept
+ * on the primary for a while after a write so the caller never reads from a
+ * replica that has not replayed it yet. Web requests restore and persist the
+ * value around each request, which extends the window across a client session.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Long> LAST_WRITE_MILLIS = new ThreadLocal<>();
+    private static final ThreadLocal<LongConsumer> WRITE_LISTENER = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * Records a committed write by the current caller
+     */
+    public static void markWritten() {
+        long now = System.currentTimeMillis();
+        LAST_WRITE_MILLIS.set(now);
+        LongConsumer listener = WRITE_LISTENER.get();
+        if (listener != null) {
+            listener.accept(now);
+        }
+    }
+
+    /**
+     * Registers a callback for writes committed by the current thread until {@link #clear()}
+     * @param listener receives the write time in epoch milliseconds
+     */
+    public static void onWrite(LongConsumer listener) {
+        WRITE_LISTENER.set(listener);
+    }
+
+    /**
+     * Checks whether the current caller wrote within the window
+     * @param window how long reads stay on the primary after a write
+     * @return true if reads should go to the primary
+     */
+    public static boolean wroteWithin(Duration window) {
+        Long lastWrite = LAST_WRITE_MILLIS.get();
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < window.toMillis();
+    }
+
+    /**
+     * Restores a last-write time carried over from an earlier request
+     * @param lastWriteMillis epoch milliseconds, or null to clear
+     */
+    public static void restore(Long lastWriteMillis) {
+        if (lastWriteMillis == null) {
+            LAST_WRITE_MILLIS.remove();
+        } else {
+            LAST_WRITE_MILLIS.set(lastWriteMillis);
+        }
+    }
+
+    public static void clear() {
+        LAST_WRITE_MILLIS.remove();
+        WRITE_LISTENER.remove();
+    }
+}
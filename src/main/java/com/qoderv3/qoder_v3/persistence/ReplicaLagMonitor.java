@@ -0,0 +1,74 @@
+package com.qoderv3.qoder_v3.persistence;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures replication lag on each replica and takes replicas that lag by more
+ * than the limit, or cannot be queried, out of read rotation until they catch up.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final ReplicaRoutingDataSource routing;
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routing, String lagQuery, Duration maxLag,
+                             MeterRegistry meterRegistry) {
+        this.routing = routing;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        routing.getReplicas().forEach((key, dataSource) -> {
+            replicas.put(key, jdbcTemplate(dataSource));
+            lagSeconds.put(key, Double.NaN);
+            Gauge.builder("qoder.db.replica.lag", lagSeconds, lags -> lags.getOrDefault(key, Double.NaN))
+                    .description("Replication lag in seconds; NaN while unknown")
+                    .baseUnit("seconds")
+                    .tag("replica", key)
+                    .register(meterRegistry);
+        });
+    }
+
+    /**
+     * Re-measures every replica and updates its place in the rotation
+     */
+    @Scheduled(fixedDelayString = "${qoder.datasource.read-replicas.check-interval:PT5S}")
+    public void check() {
+        replicas.forEach((key, jdbcTemplate) -> {
+            boolean available;
+            try {
+                Double lag = jdbcTemplate.queryForObject(lagQuery, Double.class);
+                double seconds = lag != null ? lag : 0d;
+                lagSeconds.put(key, seconds);
+                available = seconds * 1000 <= maxLag.toMillis();
+            } catch (RuntimeException e) {
+                lagSeconds.put(key, Double.NaN);
+                available = false;
+                log.debug("Replica {} lag check failed: {}", key, e.getMessage());
+            }
+            if (available != routing.isReplicaAvailable(key)) {
+                log.warn("Replica {} {} read rotation (lag {} s, limit {} ms)", key,
+                        available ? "back in" : "taken out of", lagSeconds.get(key), maxLag.toMillis());
+            }
+            routing.setReplicaAvailable(key, available);
+        });
+    }
+
+    private static JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setQueryTimeout(2);
+        return jdbcTemplate;
+    }
+}
@@ -0,0 +1,130 @@
+package com.qoderv3.qoder_v3.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only transactions to replica pools and everything else to the
+ * primary. Replicas are chosen round-robin among those currently available;
+ * when none is, or the caller wrote within the read-your-writes window, reads
+ * go to the primary. The lookup happens when a connection is obtained, so this
+ * must sit behind a {@link LazyConnectionDataSourceProxy} for the transaction's
+ * read-only flag to be known by then.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+
+    public static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final Set<String> unavailable = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Duration readYourWritesWindow;
+
+    private Counter replicaReads;
+    private Counter stickyReads;
+    private Counter fallbackReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    Duration readYourWritesWindow) {
+        this.replicas = Map.copyOf(replicas);
+        this.replicaKeys = List.copyOf(replicas.keySet());
+        this.readYourWritesWindow = readYourWritesWindow;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        ReadYourWrites.markWritten();
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (ReadYourWrites.wroteWithin(readYourWritesWindow)) {
+            increment(stickyReads);
+            return PRIMARY;
+        }
+        for (int attempt = 0; attempt < replicaKeys.size(); attempt++) {
+            String key = replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+            if (!unavailable.contains(key)) {
+                increment(replicaReads);
+                return key;
+            }
+        }
+        increment(fallbackReads);
+        return PRIMARY;
+    }
+
+    /**
+     * Takes a replica out of or back into rotation
+     * @param key the replica name
+     * @param available whether it may serve reads
+     */
+    public void setReplicaAvailable(String key, boolean available) {
+        if (available) {
+            unavailable.remove(key);
+        } else {
+            unavailable.add(key);
+        }
+    }
+
+    public boolean isReplicaAvailable(String key) {
+        return replicas.containsKey(key) && !unavailable.contains(key);
+    }
+
+    /**
+     * Gets the replica pools by name
+     * @return the replicas in configuration order
+     */
+    public Map<String, DataSource> getReplicas() {
+        Map<String, DataSource> ordered = new LinkedHashMap<>();
+        replicaKeys.forEach(key -> ordered.put(key, replicas.get(key)));
+        return ordered;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        replicaReads = readCounter(registry, "replica", "replica");
+        stickyReads = readCounter(registry, "primary", "read_your_writes");
+        fallbackReads = readCounter(registry, "primary", "no_replica_available");
+    }
+
+    private static Counter readCounter(MeterRegistry registry, String target, String reason) {
+        return Counter.builder("qoder.db.routing.reads")
+                .description("Read-only transactions by routing target")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.qoderv3.qoder_v3.persistence;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Times every call of a repository and counts the rows it returns, tagged by
+ * repository and method.
+ * <ul>
+ *   <li>{@code qoder.repository.invocations}: latency histogram and percentiles,
+ *       tagged with the exception class name or {@code none}. The count of calls
+ *       with an exception tag is the error count.</li>
+ *   <li>{@code qoder.repository.rows}: entities or projections returned. Pages and
+ *       slices count their content, and single results count as 0 or 1.</li>
+ * </ul>
+ * Streamed results are timed until the stream is closed, so the timer covers the
+ * time the connection stays checked out. Rows are counted as the stream is consumed.
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private static final String NO_EXCEPTION = "none";
+
+    private final String repository;
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsInterceptor(String repository, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MethodMeters methodMeters = meters.computeIfAbsent(invocation.getMethod(), this::metersFor);
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            timer(methodMeters.method(), e.getClass().getSimpleName())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        if (result instanceof Stream<?> stream) {
+            AtomicLong rows = new AtomicLong();
+            return stream.peek(row -> rows.incrementAndGet()).onClose(() -> {
+                methodMeters.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                methodMeters.rows().record(rows.get());
+            });
+        }
+        methodMeters.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (methodMeters.rows() != null) {
+            methodMeters.rows().record(rows(result));
+        }
+        return result;
+    }
+
+    private MethodMeters metersFor(Method method) {
+        String name = method.getName();
+        DistributionSummary rows = null;
+        if (returnsRows(method.getReturnType())) {
+            rows = DistributionSummary.builder("qoder.repository.rows")
+                    .description("Rows returned by repository calls")
+                    .baseUnit("rows")
+                    .tag("repository", repository)
+                    .tag("method", name)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+        return new MethodMeters(name, timer(name, NO_EXCEPTION), rows);
+    }
+
+    private Timer timer(String method, String exception) {
+        return Timer.builder("qoder.repository.invocations")
+                .description("Latency of repository calls")
+                .tag("repository", repository)
+                .tag("method", method)
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static boolean returnsRows(Class<?> type) {
+        // Counts, flags and update results are not rows
+        return !(type.isPrimitive() || Number.class.isAssignableFrom(type) || Boolean.class.equals(type)
+                || Void.class.equals(type));
+    }
+
+    private static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return 1;
+    }
+
+    /**
+     * Meters of one method; {@code rows} is null for methods returning counts or flags
+     */
+    private record MethodMeters(String method, Timer success, DistributionSummary rows) {
+    }
+}
@@ -0,0 +1,171 @@
+package com.qoderv3.qoder_v3.persistence;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.SqlTypes;
+import org.hibernate.usertype.UserType;
+import org.postgresql.core.BaseConnection;
+import org.postgresql.core.Oid;
+import org.postgresql.util.PGobject;
+
+import java.io.Serializable;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Hibernate user type mapping a pgvector {@code vector} column to a {@code float[]}.
+ * On PostgreSQL connections the {@link PgVector} class is registered with the driver
+ * and binary transfer is enabled for the vector OID, so values travel in pgvector's
+ * binary send/receive format instead of being formatted and parsed as text.
+ */
+public class VectorType implements UserType<float[]> {
+
+    private static final Set<BaseConnection> REGISTERED_CONNECTIONS =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    @Override
+    public int getSqlType() {
+        return SqlTypes.OTHER;
+    }
+
+    @Override
+    public Class<float[]> returnedClass() {
+        return float[].class;
+    }
+
+    @Override
+    public boolean equals(float[] x, float[] y) {
+        return Arrays.equals(x, y);
+    }
+
+    @Override
+    public int hashCode(float[] x) {
+        return Arrays.hashCode(x);
+    }
+
+    @Override
+    public float[] nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session, Object owner)
+            throws SQLException {
+        registerIfNecessary(rs.getStatement().getConnection());
+        return toFloatArray(rs.getObject(position));
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, float[] value, int index, SharedSessionContractImplementor session)
+            throws SQLException {
+        bind(st, index, value);
+    }
+
+    @Override
+    public float[] deepCopy(float[] value) {
+        return value == null ? null : value.clone();
+    }
+
+    @Override
+    public boolean isMutable() {
+        return true;
+    }
+
+    @Override
+    public Serializable disassemble(float[] value) {
+        return deepCopy(value);
+    }
+
+    @Override
+    public float[] assemble(Serializable cached, Object owner) {
+        return deepCopy((float[]) cached);
+    }
+
+    /**
+     * Converts a value read from JDBC into a float array
+     * @param value raw JDBC value (PgVector, PGobject, String or SQL array)
+     * @return vector components or null
+     * @throws SQLException if a SQL array cannot be read
+     */
+    public static float[] toFloatArray(Object value) throws SQLException {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof PgVector vector) {
+            return vector.toArray();
+        }
+        if (value instanceof PGobject object) {
+            return object.getValue() == null ? null : PgVector.parse(object.getValue());
+        }
+        if (value instanceof float[] floats) {
+            return floats;
+        }
+        if (value instanceof Array array) {
+            Object[] elements = (Object[]) array.getArray();
+            float[] floats = new float[elements.length];
+            for (int i = 0; i < elements.length; i++) {
+                floats[i] = ((Number) elements[i]).floatValue();
+            }
+            return floats;
+        }
+        return PgVector.parse(value.toString());
+    }
+
+    /**
+     * Binds a vector parameter, using the binary pgvector encoding on PostgreSQL
+     * @param st the prepared statement
+     * @param index the parameter index
+     * @param value the vector components or null
+     * @throws SQLException if the parameter cannot be bound
+     */
+    public static void bind(PreparedStatement st, int index, float[] value) throws SQLException {
+        Connection connection = st.getConnection();
+        if (!registerIfNecessary(connection)) {
+            // Non-PostgreSQL databases (e.g. the H2 test profile) store the vector as a REAL array
+            if (value == null) {
+                st.setNull(index, Types.ARRAY);
+            } else {
+                st.setObject(index, box(value), Types.ARRAY);
+            }
+            return;
+        }
+        if (value == null) {
+            st.setNull(index, Types.OTHER);
+        } else {
+            st.setObject(index, new PgVector(value));
+        }
+    }
+
+    /**
+     * Registers {@link PgVector} and enables binary transfer for the vector type on
+     * the physical PostgreSQL connection. Registration happens once per connection.
+     * @param connection a (possibly pooled) JDBC connection
+     * @return true if the connection is a PostgreSQL connection
+     * @throws SQLException if the vector type cannot be looked up
+     */
+    public static boolean registerIfNecessary(Connection connection) throws SQLException {
+        if (connection == null || !connection.isWrapperFor(BaseConnection.class)) {
+            return false;
+        }
+        BaseConnection pgConnection = connection.unwrap(BaseConnection.class);
+        if (REGISTERED_CONNECTIONS.add(pgConnection)) {
+            pgConnection.addDataType(PgVector.TYPE_NAME, PgVector.class);
+            int oid = pgConnection.getTypeInfo().getPGType(PgVector.TYPE_NAME);
+            if (oid != Oid.UNSPECIFIED) {
+                pgConnection.getQueryExecutor().addBinaryReceiveOid(oid);
+                pgConnection.getQueryExecutor().addBinarySendOid(oid);
+            }
+        }
+        return true;
+    }
+
+    private static Float[] box(float[] value) {
+        Float[] boxed = new Float[value.length];
+        for (int i = 0; i < value.length; i++) {
+            boxed[i] = value[i];
+        }
+        return boxed;
+    }
+}
@@ -2,24 +2,39 @@ package com.qoderv3.qoder_v3.repository;
 
 import com.qoderv3.qoder_v3.entity.Embedding;
 import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+import com.qoderv3.qoder_v3.repository.projection.EmbeddingSummary;
+import com.qoderv3.qoder_v3.repository.projection.PendingEmbedding;
+import com.qoderv3.qoder_v3.repository.projection.TextSearchHit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Embedding entity operations.
  * Provides CRUD operations and custom queries for AI embedding management.
  */
 @Repository
-public interface EmbeddingRepository extends JpaRepository<Embedding, UUID> {
+public interface EmbeddingRepository extends JpaRepository<Embedding, UUID>, EmbeddingRepositoryCustom {
+
+    /**
+     * Select list and FROM clause of {@link EmbeddingSummary} JPQL queries
+     */
+    String SUMMARY_JPQL = "SELECT e.id AS id, e.contentId AS contentId, e.contentType AS contentType, " +
+            "e.chunkIndex AS chunkIndex, e.chunkTotal AS chunkTotal, e.embeddingModel AS embeddingModel, " +
+            "CASE WHEN e.embeddingVector IS NOT NULL THEN true ELSE false END AS hasVector, " +
+            "e.createdAt AS createdAt FROM Embedding e ";
     
     /**
      * Find embeddings by content ID
@@ -28,6 +43,14 @@ public interface EmbeddingRepository extends JpaRepository<Embedding, UUID> {
      */
     List<Embedding> findByContentId(UUID contentId);
     
+    /**
+     * Find embedding summaries by content ID, without vectors or content text
+     * @param contentId the content ID to search for
+     * @return List of embedding summaries ordered by content type and chunk index
+     */
+    @Query(SUMMARY_JPQL + "WHERE e.contentId = :contentId ORDER BY e.contentType, e.chunkIndex")
+    List<EmbeddingSummary> findSummariesByContentId(@Param("contentId") UUID contentId);
+    
     /**
      * Find embeddings by content ID and type
      * @param contentId the content ID
@@ -44,6 +67,21 @@ public interface EmbeddingRepository extends JpaRepository<Embedding, UUID> {
      */
     Page<Embedding> findByContentType(EmbeddingContentType contentType, Pageable pageable);
     
+    /**
+     * Find embedding summaries by content type, without vectors or content text
+     * @param contentType the content type name
+     * @param pageable pagination information
+     * @return Page of embedding summaries with the specified type
+     */
+    @Query(value = "SELECT e.id AS id, e.content_id AS contentId, CAST(e.content_type AS text) AS contentType, " +
+                   "e.chunk_index AS chunkIndex, e.chunk_total AS chunkTotal, e.embedding_model AS embeddingModel, " +
+                   "e.embedding_vector IS NOT NULL AS hasVector, e.created_at AS createdAt FROM embeddings e " +
+                   "WHERE e.content_type = CAST(:contentType AS embedding_content_type)",
+           countQuery = "SELECT COUNT(*) FROM embeddings e " +
+                   "WHERE e.content_type = CAST(:contentType AS embedding_content_type)",
+           nativeQuery = true)
+    Page<EmbeddingSummary> findSummariesByContentType(@Param("contentType") String contentType, Pageable pageable);
+    
     /**
      * Find embeddings by embedding model
      * @param embeddingModel the embedding model name
@@ -52,6 +90,16 @@ public interface EmbeddingRepository extends JpaRepository<Embedding, UUID> {
      */
     Page<Embedding> findByEmbeddingModel(String embeddingModel, Pageable pageable);
     
+    /**
+     * Find embedding summaries by embedding model, without vectors or content text
+     * @param embeddingModel the embedding model name
+     * @param pageable pagination information
+     * @return Page of embedding summaries created with the specified model
+     */
+    @Query(SUMMARY_JPQL + "WHERE e.embeddingModel = :embeddingModel")
+    Page<EmbeddingSummary> findSummariesByEmbeddingModel(@Param("embeddingModel") String embeddingModel,
+                                                         Pageable pageable);
+    
     /**
      * Find embeddings created after a specific date
      * @param date the date to search after
@@ -76,25 +124,6 @@ public interface EmbeddingRepository extends JpaRepository<Embedding, UUID> {
     @Query("SELECT e FROM Embedding e WHERE e.contentId = :contentId AND e.contentType = :contentType AND e.chunkIndex = 0")
     List<Embedding> findFirstChunkByContentIdAndType(@Param("contentId") UUID contentId, @Param("contentType") EmbeddingContentType contentType);
     
-    /**
-     * Find similar embeddings using vector similarity
-     * Note: This is a placeholder query. In practice, you would use the PostgreSQL function
-     * created in the migration script or implement custom vector similarity logic.
-     * 
-     * @param queryVector the query vector as string
-     * @param contentType optional content type filter
-     * @param threshold similarity threshold
-     * @param limit maximum results
-     * @return List of similar embeddings
-     */
-    @Query(value = "SELECT * FROM find_similar_embeddings(CAST(:queryVector AS vector), " +
-                   "CAST(:contentType AS embedding_content_type), :threshold, :limit)", 
-           nativeQuery = true)
-    List<Object[]> findSimilarEmbeddings(@Param("queryVector") String queryVector,
-                                        @Param("contentType") String contentType,
-                                        @Param("threshold") Double threshold,
-                                        @Param("limit") Integer limit);
-    
     /**
      * Search embeddings by content text (full-text search)
      * @param searchTerm the term to search for
@@ -105,13 +134,38 @@ public interface EmbeddingRepository extends JpaRepository<Embedding, UUID> {
            "to_tsvector('english', e.content_text) @@ plainto_tsquery('english', :searchTerm)", nativeQuery = true)
     Page<Embedding> searchByContentText(@Param("searchTerm") String searchTerm, Pageable pageable);
     
+    /**
+     * Search embeddings by content text, best matches first, with highlighted snippets.
+     * Matching uses the expression index on to_tsvector('english', content_text), so
+     * the expression must stay exactly as written. Snippets are only generated for
+     * the rows that make the limit.
+     * @param searchTerm the term to search for
+     * @param contentType optional content type filter
+     * @param limit maximum results
+     * @return matches ordered by ts_rank descending
+     */
+    @Query(value = "SELECT r.id AS id, r.content_id AS contentId, CAST(r.content_type AS text) AS contentType, " +
+                   "r.rank AS rank, ts_headline('english', r.content_text, r.query, " +
+                   "'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=30, MinWords=10') AS snippet " +
+                   "FROM (SELECT e.id, e.content_id, e.content_type, e.content_text, q.query, " +
+                   "CAST(ts_rank(to_tsvector('english', e.content_text), q.query) AS double precision) AS rank " +
+                   "FROM embeddings e, plainto_tsquery('english', :searchTerm) AS q(query) " +
+                   "WHERE to_tsvector('english', e.content_text) @@ q.query AND (CAST(:contentType AS embedding_content_type) IS NULL " +
+                   "OR e.content_type = CAST(:contentType AS embedding_content_type)) " +
+                   "ORDER BY rank DESC, e.id LIMIT :limit) r " +
+                   "ORDER BY r.rank DESC, r.id",
+           nativeQuery = true)
+    List<TextSearchHit> searchRankedByContentText(@Param("searchTerm") String searchTerm,
+                                                  @Param("contentType") String contentType,
+                                                  @Param("limit") Integer limit);
+    
     /**
      * Find embeddings with specific metadata key
      * @param metadataKey the metadata key to search for
      * @param pageable pagination information
      * @return Page of embeddings containing the metadata key
      */
-    @Query(value = "SELECT * FROM embeddings e WHERE e.metadata ? :metadataKey", nativeQuery = true)
+    @Query(value = "SELECT * FROM embeddings e WHERE jsonb_exists(e.metadata, :metadataKey)", nativeQuery = true)
     Page<Embedding> findByMetadataKey(@Param("metadataKey") String metadataKey, Pageable pageable);
     
     /**
@@ -175,6 +229,18 @@ public interface EmbeddingRepository extends JpaRepository<Embedding, UUID> {
     @Query("DELETE FROM Embedding e WHERE e.createdAt < :olderThan")
     int deleteOldEmbeddings(@Param("olderThan") OffsetDateTime olderThan);
     
+    /**
+     * Delete embeddings of one content type older than specified date.
+     * Touches a single partition of the embeddings table.
+     * @param contentType the content type
+     * @param olderThan the date threshold
+     * @return number of deleted embeddings
+     */
+    @Modifying
+    @Query("DELETE FROM Embedding e WHERE e.contentType = :contentType AND e.createdAt < :olderThan")
+    int deleteOldEmbeddingsByContentType(@Param("contentType") EmbeddingContentType contentType,
+                                         @Param("olderThan") OffsetDateTime olderThan);
+    
     /**
      * Update embedding vector by ID
      * @param embeddingId the embedding ID
@@ -183,9 +249,9 @@ public interface EmbeddingRepository extends JpaRepository<Embedding, UUID> {
      */
     @Modifying
     @Query("UPDATE Embedding e SET e.embeddingVector = :embeddingVector, e.embeddingModel = :embeddingModel, " +
-           "e.updatedAt = CURRENT_TIMESTAMP WHERE e.id = :embeddingId")
+           "e.updatedAt = OFFSET DATETIME WHERE e.id = :embeddingId")
     void updateEmbeddingVector(@Param("embeddingId") UUID embeddingId, 
-                              @Param("embeddingVector") String embeddingVector,
+                              @Param("embeddingVector") float[] embeddingVector,
                               @Param("embeddingModel") String embeddingModel);
     
     /**
@@ -195,6 +261,18 @@ public interface EmbeddingRepository extends JpaRepository<Embedding, UUID> {
      */
     Page<Embedding> findByEmbeddingVectorIsNull(Pageable pageable);
     
+    /**
+     * Find the next embeddings without vectors using keyset pagination on id.
+     * Only the id and text are selected and no count query is issued.
+     * @param afterId the last id of the previous page (use the nil UUID for the first page)
+     * @param limit maximum number of rows to return
+     * @return List of pending embeddings ordered by id
+     */
+    @Query(value = "SELECT e.id AS id, e.content_text AS contentText FROM embeddings e " +
+                   "WHERE e.embedding_vector IS NULL AND e.id > :afterId ORDER BY e.id LIMIT :limit",
+           nativeQuery = true)
+    List<PendingEmbedding> findPendingEmbeddingsAfter(@Param("afterId") UUID afterId, @Param("limit") int limit);
+    
     /**
      * Find embeddings that need re-processing (older than specified date and specific model)
      * @param olderThan the date threshold
@@ -214,4 +292,16 @@ public interface EmbeddingRepository extends JpaRepository<Embedding, UUID> {
      * @return true if embeddings exist for the content
      */
     boolean existsByContentIdAndContentType(UUID contentId, EmbeddingContentType contentType);
-}
\ No newline at end of file
+    
+    /**
+     * Stream all embeddings for export through a server-side cursor. Must be consumed
+     * and closed inside a transaction.
+     * @return Stream of all embeddings
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Embedding e")
+    Stream<Embedding> streamAllForExport();
+}
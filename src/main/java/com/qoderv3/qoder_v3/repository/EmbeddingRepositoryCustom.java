@@ -0,0 +1,112 @@
+package com.qoderv3.qoder_v3.repository;
+
+import com.qoderv3.qoder_v3.dto.SimilarEmbedding;
+import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+import com.qoderv3.qoder_v3.vector.VectorQuantization;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JDBC-backed batch operations for embeddings that would otherwise cost one
+ * statement per row through the entity manager.
+ */
+public interface EmbeddingRepositoryCustom {
+
+    /**
+     * Writes vectors for rows that do not have one yet, as a single JDBC batch
+     * @param updates the vectors to write
+     * @param embeddingModel the embedding model used
+     * @return number of rows updated
+     */
+    int batchFillMissingVectors(List<VectorUpdate> updates, String embeddingModel);
+
+    /**
+     * Inserts the chunks of a content item with one JDBC batch
+     * @param contentId the content id
+     * @param contentType the content type
+     * @param chunks the chunks
+     * @param chunkTotal the number of chunks of the content item
+     * @param embeddingModel the embedding model used
+     * @return number of rows inserted
+     */
+    int insertChunks(UUID contentId, EmbeddingContentType contentType, List<ChunkInsert> chunks, int chunkTotal,
+                     String embeddingModel);
+
+    /**
+     * Finds vectors already computed for the given content hashes with the given model
+     * @param contentHashes SHA-256 hashes of the UTF-8 content text, hex encoded
+     * @param embeddingModel the embedding model
+     * @return one vector per hash that has one, keyed by the hex hash
+     */
+    Map<String, float[]> findVectorsByContentHashes(Collection<String> contentHashes, String embeddingModel);
+
+    /**
+     * Finds embeddings similar to a query vector through the find_similar_embeddings
+     * function. The query vector is bound as a pgvector value, in binary when the
+     * driver has binary transfer enabled for the type.
+     * @param queryVector the query vector components
+     * @param contentType optional content type filter
+     * @param threshold similarity threshold, or null for the function default of 0.7
+     * @param limit maximum results, or null for the function default of 10
+     * @return rows of id, content_id, content_type, content_text, similarity and metadata
+     */
+    List<Object[]> findSimilarEmbeddings(float[] queryVector, String contentType, Double threshold, Integer limit);
+
+    /**
+     * Finds the embeddings most similar to a query vector. Candidates come from the
+     * index of the given quantization and are re-ranked by full-precision cosine similarity.
+     * @param queryVector the query vector components
+     * @param contentType optional content type filter
+     * @param quantization representation used to find candidates
+     * @param threshold minimum cosine similarity
+     * @param limit maximum results
+     * @param candidates candidates re-ranked with the full-precision vectors; hnsw.ef_search
+     *                   is raised to at least this for the rest of the transaction
+     * @return similar embeddings ordered by similarity
+     */
+    List<SimilarEmbedding> findSimilarReranked(float[] queryVector, EmbeddingContentType contentType,
+                                               VectorQuantization quantization, double threshold, int limit,
+                                               int candidates);
+
+    /**
+     * Sets {@code hnsw.ef_search}, the candidate list size of HNSW index scans, for
+     * the rest of the current transaction. An index scan returns at most this many
+     * rows, so it should be at least the LIMIT of the queries that follow.
+     * @param efSearch candidate list size
+     * @throws IllegalStateException if no transaction is active
+     */
+    void setHnswEfSearch(int efSearch);
+
+    /**
+     * Finds the content IDs of the project embeddings nearest to a query vector,
+     * scanning the HNSW index with the given candidate list size
+     * @param queryVector the query vector components
+     * @param limit maximum results
+     * @param efSearch HNSW candidate list size; raised to {@code limit} if smaller
+     * @return project IDs ordered by cosine distance ascending
+     */
+    @Transactional(readOnly = true)
+    List<UUID> findNearestProjectContentIds(float[] queryVector, int limit, int efSearch);
+
+    /**
+     * A vector to write for an embedding row
+     * @param id the embedding id
+     * @param vector the vector components
+     */
+    record VectorUpdate(UUID id, float[] vector) {
+    }
+
+    /**
+     * A chunk row to insert
+     * @param id the embedding id
+     * @param index the zero-based chunk index
+     * @param text the chunk text
+     * @param vector the vector components
+     */
+    record ChunkInsert(UUID id, int index, String text, float[] vector) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.qoderv3.qoder_v3.repository;
+
+import com.qoderv3.qoder_v3.dto.SimilarEmbedding;
+import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+import com.qoderv3.qoder_v3.persistence.VectorType;
+import com.qoderv3.qoder_v3.vector.VectorQuantization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Implementation of {@link EmbeddingRepositoryCustom} using {@link JdbcTemplate}
+ * batches. Statements join the caller's transaction.
+ */
+public class EmbeddingRepositoryImpl implements EmbeddingRepositoryCustom {
+
+    private static final String FILL_MISSING_VECTOR_SQL =
+            "UPDATE embeddings SET embedding_vector = ?, embedding_model = ? " +
+            "WHERE id = ? AND embedding_vector IS NULL";
+
+    private static final String INSERT_CHUNK_SQL =
+            "INSERT INTO embeddings (id, content_id, content_type, content_text, embedding_vector, " +
+            "embedding_model, chunk_index, chunk_total) " +
+            "VALUES (?, ?, CAST(? AS embedding_content_type), ?, ?, ?, ?, ?)";
+
+    private static final String VECTORS_BY_CONTENT_HASH_SQL =
+            "SELECT DISTINCT ON (content_hash) content_hash, embedding_vector FROM embeddings " +
+            "WHERE embedding_model = ? AND embedding_vector IS NOT NULL AND content_hash IN (%s)";
+
+    // Defaults of find_similar_embeddings, used when the caller passes null
+    private static final double DEFAULT_SIMILARITY_THRESHOLD = 0.7;
+    private static final int DEFAULT_SIMILARITY_LIMIT = 10;
+
+    private static final String SIMILAR_SQL =
+            "SELECT id, content_id, CAST(content_type AS text) AS content_type, content_text, similarity, " +
+            "CAST(metadata AS text) AS metadata " +
+            "FROM find_similar_embeddings(?, CAST(? AS embedding_content_type), ?, ?)";
+
+    private static final String SIMILAR_RERANKED_SQL =
+            "SELECT id, content_id, CAST(content_type AS text) AS content_type, similarity " +
+            "FROM find_similar_embeddings_quantized(?, ?, CAST(? AS embedding_content_type), ?, ?, ?)";
+
+    private static final String NEAREST_PROJECT_CONTENT_IDS_SQL =
+            "SELECT e.content_id FROM embeddings e " +
+            "WHERE e.content_type IN ('PROJECT_DESCRIPTION', 'PROJECT_DOCUMENTATION') " +
+            "AND e.embedding_vector IS NOT NULL " +
+            "ORDER BY e.embedding_vector <=> ? LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmbeddingRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int batchFillMissingVectors(List<VectorUpdate> updates, String embeddingModel) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(FILL_MISSING_VECTOR_SQL, updates, updates.size(), (ps, update) -> {
+            VectorType.bind(ps, 1, update.vector());
+            ps.setString(2, embeddingModel);
+            ps.setObject(3, update.id());
+        });
+        return JdbcBatchCounts.sum(counts);
+    }
+
+    @Override
+    public int insertChunks(UUID contentId, EmbeddingContentType contentType, List<ChunkInsert> chunks,
+                            int chunkTotal, String embeddingModel) {
+        if (chunks.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_CHUNK_SQL, chunks, chunks.size(), (ps, chunk) -> {
+            ps.setObject(1, chunk.id());
+            ps.setObject(2, contentId);
+            ps.setString(3, contentType.name());
+            ps.setString(4, chunk.text());
+            VectorType.bind(ps, 5, chunk.vector());
+            ps.setString(6, embeddingModel);
+            ps.setInt(7, chunk.index());
+            ps.setInt(8, chunkTotal);
+        });
+        return JdbcBatchCounts.sum(counts);
+    }
+
+    @Override
+    public Map<String, float[]> findVectorsByContentHashes(Collection<String> contentHashes, String embeddingModel) {
+        if (contentHashes.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        HexFormat hex = HexFormat.of();
+        List<Object> args = new ArrayList<>(contentHashes.size() + 1);
+        args.add(embeddingModel);
+        for (String hash : contentHashes) {
+            args.add(hex.parseHex(hash));
+        }
+        String sql = String.format(VECTORS_BY_CONTENT_HASH_SQL,
+                String.join(", ", Collections.nCopies(contentHashes.size(), "?")));
+        Map<String, float[]> vectors = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            VectorType.registerIfNecessary(rs.getStatement().getConnection());
+            vectors.put(hex.formatHex(rs.getBytes("content_hash")),
+                    VectorType.toFloatArray(rs.getObject("embedding_vector")));
+        }, args.toArray());
+        return vectors;
+    }
+
+    @Override
+    public List<Object[]> findSimilarEmbeddings(float[] queryVector, String contentType, Double threshold,
+                                                Integer limit) {
+        return jdbcTemplate.query(SIMILAR_SQL, ps -> {
+            VectorType.bind(ps, 1, queryVector);
+            ps.setString(2, contentType);
+            ps.setDouble(3, threshold != null ? threshold : DEFAULT_SIMILARITY_THRESHOLD);
+            ps.setInt(4, limit != null ? limit : DEFAULT_SIMILARITY_LIMIT);
+        }, (rs, rowNum) -> new Object[]{rs.getObject("id", UUID.class), rs.getObject("content_id", UUID.class),
+                rs.getString("content_type"), rs.getString("content_text"), rs.getDouble("similarity"),
+                rs.getString("metadata")});
+    }
+
+    @Override
+    public List<SimilarEmbedding> findSimilarReranked(float[] queryVector, EmbeddingContentType contentType,
+                                                      VectorQuantization quantization, double threshold, int limit,
+                                                      int candidates) {
+        return jdbcTemplate.query(SIMILAR_RERANKED_SQL, ps -> {
+            VectorType.bind(ps, 1, queryVector);
+            ps.setString(2, quantization.name());
+            ps.setString(3, contentType != null ? contentType.name() : null);
+            ps.setDouble(4, threshold);
+            ps.setInt(5, limit);
+            ps.setInt(6, candidates);
+        }, (rs, rowNum) -> new SimilarEmbedding(rs.getObject("id", UUID.class),
+                rs.getObject("content_id", UUID.class),
+                EmbeddingContentType.valueOf(rs.getString("content_type")),
+                rs.getDouble("similarity")));
+    }
+
+    @Override
+    public void setHnswEfSearch(int efSearch) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("hnsw.ef_search can only be set inside a transaction");
+        }
+        jdbcTemplate.queryForObject("SELECT set_config('hnsw.ef_search', ?, true)", String.class,
+                Integer.toString(efSearch));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UUID> findNearestProjectContentIds(float[] queryVector, int limit, int efSearch) {
+        setHnswEfSearch(Math.max(efSearch, limit));
+        return jdbcTemplate.query(NEAREST_PROJECT_CONTENT_IDS_SQL, ps -> {
+            VectorType.bind(ps, 1, queryVector);
+            ps.setInt(2, limit);
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+}
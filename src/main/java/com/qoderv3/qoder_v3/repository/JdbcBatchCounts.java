@@ -0,0 +1,26 @@
+package com.qoderv3.qoder_v3.repository;
+
+/**
+ * Totals the per-statement update counts returned by {@code JdbcTemplate.batchUpdate}.
+ */
+final class JdbcBatchCounts {
+
+    private JdbcBatchCounts() {
+    }
+
+    /**
+     * Sums the update counts of every statement in every batch
+     * @param counts update counts per batch and statement
+     * @return total number of affected rows
+     */
+    static int sum(int[][] counts) {
+        int total = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // The driver may report SUCCESS_NO_INFO (-2) for batched statements
+                total += count >= 0 ? count : 1;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,43 @@
+package com.qoderv3.qoder_v3.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sets a timestamp column of many rows in one {@code UPDATE ... FROM (VALUES ...)}
+ * statement. Rows already holding the same or a later timestamp are skipped, so
+ * stale values never move a timestamp backwards and produce no dead tuples.
+ */
+final class LatestTimestampUpdate {
+
+    // PostgreSQL accepts at most 65535 bind parameters per statement
+    static final int MAX_ROWS = 65535 / 2;
+
+    private LatestTimestampUpdate() {
+    }
+
+    static int apply(JdbcTemplate jdbcTemplate, String table, String column, Map<UUID, OffsetDateTime> timestamps) {
+        if (timestamps.isEmpty()) {
+            return 0;
+        }
+        if (timestamps.size() > MAX_ROWS) {
+            throw new IllegalArgumentException("At most " + MAX_ROWS + " rows can be updated per statement");
+        }
+        StringBuilder sql = new StringBuilder("UPDATE ").append(table).append(" t SET ").append(column)
+                .append(" = v.at FROM (VALUES ");
+        List<Object> args = new ArrayList<>(timestamps.size() * 2);
+        for (Map.Entry<UUID, OffsetDateTime> entry : timestamps.entrySet()) {
+            sql.append(args.isEmpty() ? "" : ", ").append("(CAST(? AS uuid), CAST(? AS timestamptz))");
+            args.add(entry.getKey());
+            args.add(entry.getValue());
+        }
+        sql.append(") AS v(id, at) WHERE t.id = v.id AND (t.").append(column).append(" IS NULL OR t.")
+                .append(column).append(" < v.at)");
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
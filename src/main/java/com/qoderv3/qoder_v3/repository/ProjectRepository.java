@@ -4,32 +4,51 @@ import com.qoderv3.qoder_v3.entity.Project;
 import com.qoderv3.qoder_v3.entity.ProjectStatus;
 import com.qoderv3.qoder_v3.entity.ProjectVisibility;
 import com.qoderv3.qoder_v3.entity.User;
+import com.qoderv3.qoder_v3.repository.projection.ProjectSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Project entity operations.
  * Provides CRUD operations and custom queries for project management.
+ * The {@code WithOwner} variants load the owner in the same statement for views
+ * that render {@link Project#getFullName()}; owners of projects from native
+ * queries are batch-loaded (see {@link User}).
  */
 @Repository
-public interface ProjectRepository extends JpaRepository<Project, UUID> {
-    
+public interface ProjectRepository extends JpaRepository<Project, UUID>, ProjectRepositoryCustom {
+
     /**
-     * Find project by slug
-     * @param slug the project slug
-     * @return Optional containing the project if found
+     * Select list and FROM clause of {@link ProjectSummary} JPQL queries
      */
-    Optional<Project> findBySlug(String slug);
+    String SUMMARY_JPQL = "SELECT p.id AS id, p.name AS name, p.slug AS slug, p.description AS description, " +
+            "u.username AS ownerUsername, p.visibility AS visibility, p.status AS status, " +
+            "p.starsCount AS starsCount, p.forksCount AS forksCount, p.lastActivityAt AS lastActivityAt, " +
+            "p.createdAt AS createdAt, p.trendingScore AS trendingScore FROM Project p JOIN p.owner u ";
+
+    /**
+     * Select list and FROM clause of {@link ProjectSummary} native queries
+     */
+    String SUMMARY_SQL = "SELECT p.id AS id, p.name AS name, p.slug AS slug, p.description AS description, " +
+            "u.username AS ownerUsername, p.visibility AS visibility, CAST(p.status AS varchar) AS status, " +
+            "p.stars_count AS starsCount, p.forks_count AS forksCount, p.last_activity_at AS lastActivityAt, " +
+            "p.created_at AS createdAt, p.trending_score AS trendingScore FROM projects p JOIN users u ON u.id = p.owner_id ";
     
     /**
      * Find project by owner and slug
@@ -46,6 +65,7 @@ public interface ProjectRepository extends JpaRepository<Project, UUID> {
      * @return Optional containing the project if found
      */
     @Query("SELECT p FROM Project p JOIN p.owner u WHERE u.username = :username AND p.slug = :slug")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Project> findByOwnerUsernameAndSlug(@Param("username") String username, @Param("slug") String slug);
     
     /**
@@ -63,6 +83,15 @@ public interface ProjectRepository extends JpaRepository<Project, UUID> {
      */
     Page<Project> findByOwner(User owner, Pageable pageable);
     
+    /**
+     * Find project summaries by owner
+     * @param owner the project owner
+     * @param pageable pagination information
+     * @return Page of project summaries owned by the user
+     */
+    @Query(SUMMARY_JPQL + "WHERE p.owner = :owner")
+    Page<ProjectSummary> findSummariesByOwner(@Param("owner") User owner, Pageable pageable);
+    
     /**
      * Find projects by owner and status
      * @param owner the project owner
@@ -96,6 +125,27 @@ public interface ProjectRepository extends JpaRepository<Project, UUID> {
      */
     Page<Project> findByVisibilityAndStatus(ProjectVisibility visibility, ProjectStatus status, Pageable pageable);
     
+    /**
+     * Find projects by IDs with their owners
+     * @param ids the project IDs
+     * @return projects with owners initialized, in no particular order
+     */
+    @EntityGraph(attributePaths = "owner")
+    List<Project> findWithOwnerByIdIn(Collection<UUID> ids);
+    
+    /**
+     * Find public active project summaries with a given programming language
+     * @param language the programming language
+     * @param pageable pagination information
+     * @return Page of project summaries using the language
+     */
+    @Query(value = SUMMARY_SQL + "WHERE p.visibility = 'PUBLIC' AND p.status = 'ACTIVE' " +
+                   "AND :language = ANY(p.programming_languages)",
+           countQuery = "SELECT COUNT(*) FROM projects p WHERE p.visibility = 'PUBLIC' AND p.status = 'ACTIVE' " +
+                   "AND :language = ANY(p.programming_languages)",
+           nativeQuery = true)
+    Page<ProjectSummary> findSummariesByProgrammingLanguage(@Param("language") String language, Pageable pageable);
+    
     /**
      * Find template projects
      * @param pageable pagination information
@@ -147,6 +197,37 @@ public interface ProjectRepository extends JpaRepository<Project, UUID> {
            "COALESCE(array_to_string(p.tags, ' '), '')) @@ plainto_tsquery('english', :searchTerm)", nativeQuery = true)
     Page<Project> searchProjects(@Param("searchTerm") String searchTerm, Pageable pageable);
     
+    /**
+     * Full-text search returning project summaries. Uses the same expression as
+     * searchProjects and the idx_projects_search GIN index.
+     * @param searchTerm the term to search for
+     * @param pageable pagination information
+     * @return Page of matching project summaries
+     */
+    @Query(value = SUMMARY_SQL + "WHERE " +
+                   "to_tsvector('english', COALESCE(p.name, '') || ' ' || COALESCE(p.description, '') || ' ' || " +
+                   "COALESCE(array_to_string(p.tags, ' '), '')) @@ plainto_tsquery('english', :searchTerm)",
+           countQuery = "SELECT COUNT(*) FROM projects p WHERE " +
+                   "to_tsvector('english', COALESCE(p.name, '') || ' ' || COALESCE(p.description, '') || ' ' || " +
+                   "COALESCE(array_to_string(p.tags, ' '), '')) @@ plainto_tsquery('english', :searchTerm)",
+           nativeQuery = true)
+    Page<ProjectSummary> searchProjectSummaries(@Param("searchTerm") String searchTerm, Pageable pageable);
+    
+    /**
+     * Find IDs of public active projects matching a full-text search, best matches first.
+     * Uses the same expression as the idx_projects_search GIN index.
+     * @param searchTerm the term to search for
+     * @param limit maximum results
+     * @return project IDs ordered by ts_rank descending
+     */
+    @Query(value = "SELECT p.id FROM projects p, plainto_tsquery('english', :searchTerm) AS q(query) " +
+           "WHERE p.visibility = 'PUBLIC' AND p.status = 'ACTIVE' AND " +
+           "to_tsvector('english', COALESCE(p.name, '') || ' ' || COALESCE(p.description, '') || ' ' || " +
+           "COALESCE(array_to_string(p.tags, ' '), '')) @@ q.query " +
+           "ORDER BY ts_rank(to_tsvector('english', COALESCE(p.name, '') || ' ' || COALESCE(p.description, '') || ' ' || " +
+           "COALESCE(array_to_string(p.tags, ' '), '')), q.query) DESC, p.id LIMIT :limit", nativeQuery = true)
+    List<UUID> findProjectIdsByFullText(@Param("searchTerm") String searchTerm, @Param("limit") int limit);
+    
     /**
      * Find projects with most stars
      * @param pageable pagination information
@@ -156,6 +237,15 @@ public interface ProjectRepository extends JpaRepository<Project, UUID> {
            "ORDER BY p.starsCount DESC, p.createdAt DESC")
     Page<Project> findMostStarredProjects(Pageable pageable);
     
+    /**
+     * Find summaries of the projects with most stars
+     * @param pageable pagination information
+     * @return Page of project summaries ordered by stars count descending
+     */
+    @Query(SUMMARY_JPQL + "WHERE p.visibility = 'PUBLIC' AND p.status = 'ACTIVE' " +
+           "ORDER BY p.starsCount DESC, p.createdAt DESC")
+    Page<ProjectSummary> findMostStarredProjectSummaries(Pageable pageable);
+    
     /**
      * Find recently active projects
      * @param since the date to search from
@@ -167,17 +257,97 @@ public interface ProjectRepository extends JpaRepository<Project, UUID> {
     Page<Project> findRecentlyActiveProjects(@Param("since") OffsetDateTime since, Pageable pageable);
     
     /**
-     * Find trending projects (most stars in a time period)
+     * Find summaries of recently active projects
      * @param since the date to search from
      * @param pageable pagination information
+     * @return Page of project summaries with recent activity
+     */
+    @Query(SUMMARY_JPQL + "WHERE p.visibility = 'PUBLIC' AND p.status = 'ACTIVE' " +
+           "AND p.lastActivityAt >= :since ORDER BY p.lastActivityAt DESC")
+    Page<ProjectSummary> findRecentlyActiveProjectSummaries(@Param("since") OffsetDateTime since, Pageable pageable);
+    
+    /**
+     * Find trending projects (highest time-decayed star, fork and activity score)
+     * @param pageable pagination information
      * @return Page of trending projects
      */
     @Query("SELECT p FROM Project p WHERE p.visibility = 'PUBLIC' AND p.status = 'ACTIVE' " +
-           "AND p.createdAt >= :since ORDER BY p.starsCount DESC, p.forksCount DESC")
-    Page<Project> findTrendingProjects(@Param("since") OffsetDateTime since, Pageable pageable);
+           "ORDER BY p.trendingScore DESC, p.id DESC")
+    Page<Project> findTrendingProjects(Pageable pageable);
+    
+    /**
+     * Find summaries of trending projects
+     * @param pageable pagination information
+     * @return Page of trending project summaries
+     */
+    @Query(SUMMARY_JPQL + "WHERE p.visibility = 'PUBLIC' AND p.status = 'ACTIVE' " +
+           "ORDER BY p.trendingScore DESC, p.id DESC")
+    Page<ProjectSummary> findTrendingProjectSummaries(Pageable pageable);
+    
+    /**
+     * Find the next page of most starred projects (keyset pagination)
+     * @param stars stars count of the last project on the previous page
+     * @param createdAt creation timestamp of the last project on the previous page
+     * @param id ID of the last project on the previous page
+     * @param limit maximum number of projects to return
+     * @return project summaries ordered by stars count, creation date and ID descending
+     */
+    @Query(value = SUMMARY_SQL + "WHERE p.visibility = 'PUBLIC' AND p.status = 'ACTIVE' " +
+           "AND (p.stars_count, p.created_at, p.id) < (:stars, :createdAt, :id) " +
+           "ORDER BY p.stars_count DESC, p.created_at DESC, p.id DESC LIMIT :limit", nativeQuery = true)
+    List<ProjectSummary> findMostStarredProjectsAfter(@Param("stars") int stars,
+                                                      @Param("createdAt") OffsetDateTime createdAt,
+                                                      @Param("id") UUID id, @Param("limit") int limit);
     
     /**
-     * Update project's last activity timestamp
+     * Find the next page of recently active projects (keyset pagination)
+     * @param since the date to search from
+     * @param lastActivityAt last activity timestamp of the last project on the previous page
+     * @param id ID of the last project on the previous page
+     * @param limit maximum number of projects to return
+     * @return project summaries ordered by last activity and ID descending
+     */
+    @Query(value = SUMMARY_SQL + "WHERE p.visibility = 'PUBLIC' AND p.status = 'ACTIVE' " +
+           "AND p.last_activity_at >= :since AND (p.last_activity_at, p.id) < (:lastActivityAt, :id) " +
+           "ORDER BY p.last_activity_at DESC, p.id DESC LIMIT :limit", nativeQuery = true)
+    List<ProjectSummary> findRecentlyActiveProjectsAfter(@Param("since") OffsetDateTime since,
+                                                         @Param("lastActivityAt") OffsetDateTime lastActivityAt,
+                                                         @Param("id") UUID id, @Param("limit") int limit);
+    
+    /**
+     * Find the next page of trending projects (keyset pagination)
+     * @param score trending score of the last project on the previous page
+     * @param id ID of the last project on the previous page
+     * @param limit maximum number of projects to return
+     * @return project summaries ordered by trending score and ID descending
+     */
+    @Query(value = SUMMARY_SQL + "WHERE p.visibility = 'PUBLIC' AND p.status = 'ACTIVE' " +
+           "AND (p.trending_score, p.id) < (:score, :id) " +
+           "ORDER BY p.trending_score DESC, p.id DESC LIMIT :limit", nativeQuery = true)
+    List<ProjectSummary> findTrendingProjectsAfter(@Param("score") double score, @Param("id") UUID id,
+                                                   @Param("limit") int limit);
+    
+    /**
+     * Find the next page of projects by visibility and status (keyset pagination)
+     * @param visibility the project visibility
+     * @param status the project status
+     * @param createdAt creation timestamp of the last project on the previous page
+     * @param id ID of the last project on the previous page
+     * @param limit maximum number of projects to return
+     * @return project summaries ordered by creation date and ID descending
+     */
+    @Query(value = SUMMARY_SQL + "WHERE p.visibility = :visibility " +
+           "AND p.status = CAST(:status AS project_status) AND (p.created_at, p.id) < (:createdAt, :id) " +
+           "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit", nativeQuery = true)
+    List<ProjectSummary> findByVisibilityAndStatusAfter(@Param("visibility") String visibility,
+                                                        @Param("status") String status,
+                                                        @Param("createdAt") OffsetDateTime createdAt,
+                                                        @Param("id") UUID id, @Param("limit") int limit);
+    
+    /**
+     * Update project's last activity timestamp immediately. Hot paths should record
+     * activity through {@link com.qoderv3.qoder_v3.service.ActivityTimestampService},
+     * which coalesces it into one batched write per interval.
      * @param projectId the project ID
      * @param lastActivityAt the timestamp to set
      */
@@ -245,4 +415,17 @@ public interface ProjectRepository extends JpaRepository<Project, UUID> {
     @Query("SELECT p FROM Project p WHERE p.status = 'ACTIVE' AND " +
            "(p.lastActivityAt IS NULL OR p.lastActivityAt < :olderThan)")
     Page<Project> findProjectsNeedingActivityUpdate(@Param("olderThan") OffsetDateTime olderThan, Pageable pageable);
-}
\ No newline at end of file
+    
+    /**
+     * Stream all projects for export through a server-side cursor. Must be consumed
+     * and closed inside a transaction; rows bypass the second-level cache.
+     * @return Stream of all projects
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT p FROM Project p")
+    Stream<Project> streamAllForExport();
+}
@@ -0,0 +1,89 @@
+package com.qoderv3.qoder_v3.repository;
+
+import com.qoderv3.qoder_v3.entity.Project;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Project operations implemented outside of query derivation: natural-id lookups
+ * served by the second-level cache and JDBC-backed batch operations that would
+ * otherwise cost one transaction per row.
+ */
+public interface ProjectRepositoryCustom {
+
+    /**
+     * Find project by slug, resolved through the natural-id cache
+     * @param slug the project slug
+     * @return Optional containing the project if found
+     */
+    Optional<Project> findBySlug(String slug);
+
+    /**
+     * Applies accumulated counter deltas to many projects as a single JDBC batch.
+     * Stars keep the clamp-at-zero semantics of repeated single-step updates, and
+     * each delta's weight is added to the trending score at its activity time.
+     * The updated projects are evicted from the second-level cache.
+     * @param deltas the deltas to apply
+     * @param weights event weights of the trending score
+     * @return number of rows updated
+     */
+    int applyCounterDeltas(List<CounterDelta> deltas, TrendingWeights weights);
+
+    /**
+     * Sets the last activity timestamp of many projects in one statement. Projects
+     * whose stored timestamp is already the same or later are left untouched. The
+     * updated projects are evicted from the second-level cache.
+     * @param lastActivityAt latest activity timestamp per project ID
+     * @return number of rows updated
+     */
+    int applyLastActivityAt(Map<UUID, OffsetDateTime> lastActivityAt);
+
+    /**
+     * Weights of counter events in the trending score
+     * @param star weight of one star
+     * @param fork weight of one fork
+     * @param activity weight of any recorded activity
+     */
+    record TrendingWeights(double star, double fork, double activity) {
+    }
+
+    /**
+     * Net change of a project's counters since the last flush.
+     * <p>{@code starsMinPrefix} is the lowest running total (at most 0) reached by the
+     * sequence of star increments and decrements. Applying the sequence one step at a
+     * time with {@code GREATEST(count - 1, 0)} from a persisted value {@code s} yields
+     * {@code max(s + starsNet, starsNet - starsMinPrefix)}.</p>
+     *
+     * @param projectId the project id
+     * @param starsNet net change of the stars count
+     * @param starsMinPrefix minimum running total of the stars changes
+     * @param forksDelta change of the forks count
+     * @param lastActivityAt latest activity timestamp, or null to leave it unchanged
+     */
+    record CounterDelta(UUID projectId, int starsNet, int starsMinPrefix, int forksDelta,
+                        OffsetDateTime lastActivityAt) {
+
+        /**
+         * Applies the stars change to a persisted value
+         * @param persistedStars the persisted stars count
+         * @return the resulting stars count
+         */
+        public int applyStars(int persistedStars) {
+            return Math.max(persistedStars + starsNet, starsNet - starsMinPrefix);
+        }
+
+        /**
+         * Weighs the delta for the trending score; unstars do not lower it
+         * @param weights the event weights
+         * @return the weight, 0 if the delta should not raise the score
+         */
+        public double trendingWeight(TrendingWeights weights) {
+            double weight = weights.star() * Math.max(starsNet, 0) + weights.fork() * Math.max(forksDelta, 0);
+            return lastActivityAt != null ? weight + weights.activity() : weight;
+        }
+    }
+}
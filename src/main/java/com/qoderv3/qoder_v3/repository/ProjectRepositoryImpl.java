@@ -0,0 +1,81 @@
+package com.qoderv3.qoder_v3.repository;
+
+import com.qoderv3.qoder_v3.entity.Project;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Implementation of {@link ProjectRepositoryCustom}. Batch operations use
+ * {@link JdbcTemplate} and join the caller's transaction; because they bypass
+ * Hibernate, the rows they touch are evicted from the second-level cache.
+ */
+public class ProjectRepositoryImpl implements ProjectRepositoryCustom {
+
+    private static final String APPLY_COUNTER_DELTAS_SQL =
+            "UPDATE projects SET " +
+            "stars_count = GREATEST(COALESCE(stars_count, 0) + ?, ?), " +
+            "forks_count = GREATEST(COALESCE(forks_count, 0) + ?, 0), " +
+            "last_activity_at = COALESCE(?, last_activity_at), " +
+            "trending_score = CASE WHEN CAST(? AS DOUBLE PRECISION) > 0 " +
+            "THEN trending_log_add(trending_score, project_trending_weight(?, COALESCE(?, NOW()))) " +
+            "ELSE trending_score END " +
+            "WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProjectRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Project> findBySlug(String slug) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Project.class).loadOptional(slug);
+    }
+
+    @Override
+    public int applyCounterDeltas(List<CounterDelta> deltas, TrendingWeights weights) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(APPLY_COUNTER_DELTAS_SQL, deltas, deltas.size(), (ps, delta) -> {
+            ps.setInt(1, delta.starsNet());
+            ps.setInt(2, delta.starsNet() - delta.starsMinPrefix());
+            ps.setInt(3, delta.forksDelta());
+            if (delta.lastActivityAt() != null) {
+                ps.setObject(4, delta.lastActivityAt());
+                ps.setObject(7, delta.lastActivityAt());
+            } else {
+                ps.setNull(4, Types.TIMESTAMP_WITH_TIMEZONE);
+                ps.setNull(7, Types.TIMESTAMP_WITH_TIMEZONE);
+            }
+            double weight = delta.trendingWeight(weights);
+            ps.setDouble(5, weight);
+            ps.setDouble(6, weight);
+            ps.setObject(8, delta.projectId());
+        });
+        SecondLevelCacheEviction.evictAfterCompletion(entityManager, Project.class,
+                deltas.stream().map(CounterDelta::projectId).toList());
+        return JdbcBatchCounts.sum(counts);
+    }
+
+    @Override
+    public int applyLastActivityAt(Map<UUID, OffsetDateTime> lastActivityAt) {
+        int updated = LatestTimestampUpdate.apply(jdbcTemplate, "projects", "last_activity_at", lastActivityAt);
+        SecondLevelCacheEviction.evictAfterCompletion(entityManager, Project.class, lastActivityAt.keySet());
+        return updated;
+    }
+}
@@ -0,0 +1,35 @@
+package com.qoderv3.qoder_v3.repository;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evicts rows written with plain JDBC or by database triggers from the Hibernate
+ * second-level cache. Entries are evicted immediately and again once the
+ * surrounding transaction completes, so a concurrent reader cannot re-cache the
+ * pre-commit state.
+ */
+public final class SecondLevelCacheEviction {
+
+    private SecondLevelCacheEviction() {
+    }
+
+    public static void evictAfterCompletion(EntityManager entityManager, Class<?> entityClass, Collection<?> ids) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        List<?> evicted = List.copyOf(ids);
+        evicted.forEach(id -> cache.evict(entityClass, id));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evicted.forEach(id -> cache.evict(entityClass, id));
+                }
+            });
+        }
+    }
+}
@@ -2,31 +2,51 @@ package com.qoderv3.qoder_v3.repository;
 
 import com.qoderv3.qoder_v3.entity.User;
 import com.qoderv3.qoder_v3.entity.UserStatus;
+import com.qoderv3.qoder_v3.repository.projection.UserProjectCount;
+import com.qoderv3.qoder_v3.repository.projection.UserSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for User entity operations.
  * Provides CRUD operations and custom queries for user management.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, UserRepositoryCustom {
+
+    /**
+     * Select list and FROM clause of {@link UserSummary} JPQL queries
+     */
+    String SUMMARY_JPQL = "SELECT u.id AS id, u.username AS username, u.fullName AS fullName, " +
+            "u.avatarUrl AS avatarUrl, u.status AS status, u.createdAt AS createdAt FROM User u ";
+
+    /**
+     * Select list and FROM clause of {@link UserSummary} native queries
+     */
+    String SUMMARY_SQL = "SELECT u.id AS id, u.username AS username, u.full_name AS fullName, " +
+            "u.avatar_url AS avatarUrl, CAST(u.status AS varchar) AS status, u.created_at AS createdAt FROM users u ";
     
     /**
      * Find user by username (case-insensitive)
      * @param username the username to search for
      * @return Optional containing the user if found
      */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsernameIgnoreCase(String username);
     
     /**
@@ -41,6 +61,7 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      * @param githubUsername the GitHub username to search for
      * @return Optional containing the user if found
      */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByGithubUsername(String githubUsername);
     
     /**
@@ -81,6 +102,15 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      */
     Page<User> findByStatus(UserStatus status, Pageable pageable);
     
+    /**
+     * Find user summaries by status
+     * @param status the user status to filter by
+     * @param pageable pagination information
+     * @return Page of user summaries with the specified status
+     */
+    @Query(SUMMARY_JPQL + "WHERE u.status = :status")
+    Page<UserSummary> findSummariesByStatus(@Param("status") UserStatus status, Pageable pageable);
+    
     /**
      * Find users by email verification status
      * @param emailVerified whether email is verified
@@ -109,7 +139,50 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Page<User> searchUsers(@Param("searchTerm") String searchTerm, Pageable pageable);
     
     /**
-     * Update user's last login timestamp
+     * Find user summaries by partial username, email or full name match (case-insensitive)
+     * @param searchTerm the term to search for
+     * @param pageable pagination information
+     * @return Page of matching user summaries
+     */
+    @Query(SUMMARY_JPQL + "WHERE " +
+           "LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+           "LOWER(u.fullName) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
+    Page<UserSummary> searchUserSummaries(@Param("searchTerm") String searchTerm, Pageable pageable);
+    
+    /**
+     * Find users whose username, email or full name contains a pattern, most similar first.
+     * Served by the pg_trgm GIN indexes; needs a term of at least 3 characters to use them.
+     * @param pattern ILIKE pattern, e.g. '%term%' with wildcards in the term escaped
+     * @param searchTerm the raw term used for similarity ranking
+     * @param limit maximum results
+     * @return matching user summaries ordered by trigram similarity descending
+     */
+    @Query(value = SUMMARY_SQL + "WHERE " +
+                   "u.username ILIKE :pattern OR u.email ILIKE :pattern OR u.full_name ILIKE :pattern " +
+                   "ORDER BY GREATEST(similarity(u.username, :searchTerm), similarity(u.email, :searchTerm), " +
+                   "similarity(COALESCE(u.full_name, ''), :searchTerm)) DESC, u.username LIMIT :limit",
+           nativeQuery = true)
+    List<UserSummary> searchUsersBySimilarity(@Param("pattern") String pattern,
+                                              @Param("searchTerm") String searchTerm, @Param("limit") int limit);
+    
+    /**
+     * Find users whose username or email starts with a prefix (case-insensitive).
+     * Used for terms too short to produce trigrams.
+     * @param prefixPattern lower-case LIKE pattern, e.g. 'ab%' with wildcards in the term escaped
+     * @param limit maximum results
+     * @return matching user summaries ordered by username
+     */
+    @Query(value = SUMMARY_SQL + "WHERE " +
+                   "lower(u.username) LIKE :prefixPattern OR lower(u.email) LIKE :prefixPattern " +
+                   "ORDER BY u.username LIMIT :limit",
+           nativeQuery = true)
+    List<UserSummary> searchUsersByPrefix(@Param("prefixPattern") String prefixPattern, @Param("limit") int limit);
+    
+    /**
+     * Update user's last login timestamp immediately. Hot paths should record logins
+     * through {@link com.qoderv3.qoder_v3.service.ActivityTimestampService}, which
+     * coalesces them into one batched write per interval.
      * @param userId the user ID
      * @param lastLoginAt the timestamp to set
      */
@@ -150,10 +223,41 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     
     /**
      * Find top users by project count
-     * @param limit maximum number of users to return
+     * @param pageable pagination information
      * @return List of users ordered by project count
      */
-    @Query("SELECT u FROM User u LEFT JOIN u.projects p " +
-           "GROUP BY u ORDER BY COUNT(p) DESC")
+    @Query("SELECT u FROM User u ORDER BY u.projectsCount DESC, u.id")
     List<User> findTopUsersByProjectCount(Pageable pageable);
-}
\ No newline at end of file
+    
+    /**
+     * Find the project counts of the users owning the most projects
+     * @param pageable pagination information
+     * @return users with at least one project, ordered by project count descending and ID
+     */
+    @Query("SELECT u.id AS id, u.username AS username, u.fullName AS fullName, u.avatarUrl AS avatarUrl, " +
+           "u.projectsCount AS projectsCount FROM User u WHERE u.projectsCount > 0 " +
+           "ORDER BY u.projectsCount DESC, u.id")
+    List<UserProjectCount> findTopUserProjectCounts(Pageable pageable);
+    
+    /**
+     * Find the project counts of the given users
+     * @param ids the user IDs
+     * @return project counts of the users that exist, in no particular order
+     */
+    @Query("SELECT u.id AS id, u.username AS username, u.fullName AS fullName, u.avatarUrl AS avatarUrl, " +
+           "u.projectsCount AS projectsCount FROM User u WHERE u.id IN :ids")
+    List<UserProjectCount> findUserProjectCountsByIdIn(@Param("ids") Collection<UUID> ids);
+    
+    /**
+     * Stream all users for export through a server-side cursor. Must be consumed
+     * and closed inside a transaction; rows bypass the second-level cache.
+     * @return Stream of all users
+     */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT u FROM User u")
+    Stream<User> streamAllForExport();
+}
@@ -0,0 +1,30 @@
+package com.qoderv3.qoder_v3.repository;
+
+import com.qoderv3.qoder_v3.entity.User;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * User operations implemented outside of query derivation.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Find user by exact username, resolved through the natural-id cache
+     * @param username the username (case-sensitive)
+     * @return Optional containing the user if found
+     */
+    Optional<User> findByUsername(String username);
+
+    /**
+     * Sets the last login timestamp of many users in one statement. Users whose
+     * stored timestamp is already the same or later are left untouched. The
+     * updated users are evicted from the second-level cache.
+     * @param lastLoginAt latest login timestamp per user ID
+     * @return number of rows updated
+     */
+    int applyLastLoginAt(Map<UUID, OffsetDateTime> lastLoginAt);
+}
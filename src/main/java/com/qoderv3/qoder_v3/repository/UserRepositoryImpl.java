@@ -0,0 +1,42 @@
+package com.qoderv3.qoder_v3.repository;
+
+import com.qoderv3.qoder_v3.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Implementation of {@link UserRepositoryCustom}. Batch operations use
+ * {@link JdbcTemplate} and join the caller's transaction.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public UserRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username);
+    }
+
+    @Override
+    public int applyLastLoginAt(Map<UUID, OffsetDateTime> lastLoginAt) {
+        int updated = LatestTimestampUpdate.apply(jdbcTemplate, "users", "last_login_at", lastLoginAt);
+        SecondLevelCacheEviction.evictAfterCompletion(entityManager, User.class, lastLoginAt.keySet());
+        return updated;
+    }
+}
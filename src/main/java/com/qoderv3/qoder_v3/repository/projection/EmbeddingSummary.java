@@ -0,0 +1,32 @@
+package com.qoderv3.qoder_v3.repository.projection;
+
+import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of embedding metadata for listings, without the vector and the
+ * content text.
+ */
+public interface EmbeddingSummary {
+
+    UUID getId();
+
+    UUID getContentId();
+
+    EmbeddingContentType getContentType();
+
+    Integer getChunkIndex();
+
+    Integer getChunkTotal();
+
+    String getEmbeddingModel();
+
+    /**
+     * Whether a vector has been generated for this chunk
+     */
+    Boolean getHasVector();
+
+    OffsetDateTime getCreatedAt();
+}
@@ -0,0 +1,13 @@
+package com.qoderv3.qoder_v3.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Projection of an embedding row that still needs a vector.
+ */
+public interface PendingEmbedding {
+
+    UUID getId();
+
+    String getContentText();
+}
@@ -0,0 +1,48 @@
+package com.qoderv3.qoder_v3.repository.projection;
+
+import com.qoderv3.qoder_v3.entity.ProjectStatus;
+import com.qoderv3.qoder_v3.entity.ProjectVisibility;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of the project columns shown in list views. Leaves out the long
+ * text columns, the TEXT[] arrays and the owner entity.
+ */
+public interface ProjectSummary {
+
+    UUID getId();
+
+    String getName();
+
+    String getSlug();
+
+    String getDescription();
+
+    String getOwnerUsername();
+
+    ProjectVisibility getVisibility();
+
+    ProjectStatus getStatus();
+
+    Integer getStarsCount();
+
+    Integer getForksCount();
+
+    OffsetDateTime getLastActivityAt();
+
+    OffsetDateTime getCreatedAt();
+
+    /**
+     * Gets the time-decayed trending score; only comparable between projects
+     */
+    Double getTrendingScore();
+
+    /**
+     * Gets the full project identifier in the format "owner/slug"
+     */
+    default String getFullName() {
+        return getOwnerUsername() + "/" + getSlug();
+    }
+}
@@ -0,0 +1,27 @@
+package com.qoderv3.qoder_v3.repository.projection;
+
+import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+
+import java.util.UUID;
+
+/**
+ * Projection of a ranked full-text search match over embedding content.
+ */
+public interface TextSearchHit {
+
+    UUID getId();
+
+    UUID getContentId();
+
+    EmbeddingContentType getContentType();
+
+    /**
+     * Gets the ts_rank score of the match (higher is better)
+     */
+    Double getRank();
+
+    /**
+     * Gets the matching fragments of the content text with terms wrapped in {@code <mark>} tags
+     */
+    String getSnippet();
+}
@@ -0,0 +1,19 @@
+package com.qoderv3.qoder_v3.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Projection of a user and the number of projects they own.
+ */
+public interface UserProjectCount {
+
+    UUID getId();
+
+    String getUsername();
+
+    String getFullName();
+
+    String getAvatarUrl();
+
+    Integer getProjectsCount();
+}
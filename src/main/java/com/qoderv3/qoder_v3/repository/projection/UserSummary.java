@@ -0,0 +1,33 @@
+package com.qoderv3.qoder_v3.repository.projection;
+
+import com.qoderv3.qoder_v3.entity.UserStatus;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of the user columns shown in list views. Leaves out the bio,
+ * credentials and token columns.
+ */
+public interface UserSummary {
+
+    UUID getId();
+
+    String getUsername();
+
+    String getFullName();
+
+    String getAvatarUrl();
+
+    UserStatus getStatus();
+
+    OffsetDateTime getCreatedAt();
+
+    /**
+     * Gets the display name (full name if set, otherwise the username)
+     */
+    default String getDisplayName() {
+        String fullName = getFullName();
+        return fullName != null && !fullName.isBlank() ? fullName : getUsername();
+    }
+}
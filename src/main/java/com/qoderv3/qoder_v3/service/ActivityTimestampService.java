@@ -0,0 +1,218 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.ActivityTimestampProperties;
+import com.qoderv3.qoder_v3.entity.Project;
+import com.qoderv3.qoder_v3.entity.User;
+import com.qoderv3.qoder_v3.repository.ProjectRepository;
+import com.qoderv3.qoder_v3.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Write-behind project activity and user login timestamps. Touches only keep the
+ * latest timestamp per ID in memory; a periodic flush writes each touched row once
+ * with a batched {@code UPDATE ... FROM (VALUES ...)}, instead of one UPDATE,
+ * trigger run and dead tuple per touch. Reads merge the persisted timestamp with
+ * the pending one. Pending timestamps are flushed on graceful shutdown.
+ *
+ * <p>Logins are recorded from Spring Security authentication success events.
+ * HTTP Basic authenticates every request, so without the buffer each API call
+ * would update the user row. Star and fork activity is written behind with the
+ * counters by {@link ProjectCounterService}; other project activity is recorded
+ * here with {@link #recordProjectActivity(UUID)}.
+ */
+@Slf4j
+@Service
+public class ActivityTimestampService {
+
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final ActivityTimestampProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<UUID, OffsetDateTime> pendingActivity = new ConcurrentHashMap<>();
+    private final Map<UUID, OffsetDateTime> pendingLogins = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    private final Counter flushedProjects;
+    private final Counter flushedUsers;
+    private final Counter failedFlushes;
+
+    public ActivityTimestampService(ProjectRepository projectRepository,
+                                    UserRepository userRepository,
+                                    ActivityTimestampProperties properties,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.projectRepository = projectRepository;
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushedProjects = Counter.builder("qoder.activity.timestamps.flushed")
+                .description("Rows updated by timestamp flushes")
+                .tag("table", "projects")
+                .register(meterRegistry);
+        this.flushedUsers = Counter.builder("qoder.activity.timestamps.flushed")
+                .description("Rows updated by timestamp flushes")
+                .tag("table", "users")
+                .register(meterRegistry);
+        this.failedFlushes = Counter.builder("qoder.activity.timestamps.flush.failures")
+                .description("Timestamp flushes that failed and were re-queued")
+                .register(meterRegistry);
+        Gauge.builder("qoder.activity.timestamps.pending", pendingActivity, Map::size)
+                .description("Rows with unflushed timestamps")
+                .tag("table", "projects")
+                .register(meterRegistry);
+        Gauge.builder("qoder.activity.timestamps.pending", pendingLogins, Map::size)
+                .description("Rows with unflushed timestamps")
+                .tag("table", "users")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records activity on a project now
+     * @param projectId the project ID
+     */
+    public void recordProjectActivity(UUID projectId) {
+        recordProjectActivity(projectId, OffsetDateTime.now());
+    }
+
+    /**
+     * Records activity on a project; earlier timestamps than the pending one are ignored
+     * @param projectId the project ID
+     * @param at the activity timestamp
+     */
+    public void recordProjectActivity(UUID projectId, OffsetDateTime at) {
+        pendingActivity.merge(projectId, at, ActivityTimestampService::latest);
+    }
+
+    /**
+     * Records a login of a user now
+     * @param userId the user ID
+     */
+    public void recordUserLogin(UUID userId) {
+        recordUserLogin(userId, OffsetDateTime.now());
+    }
+
+    /**
+     * Records a login of a user; earlier timestamps than the pending one are ignored
+     * @param userId the user ID
+     * @param at the login timestamp
+     */
+    public void recordUserLogin(UUID userId, OffsetDateTime at) {
+        pendingLogins.merge(userId, at, ActivityTimestampService::latest);
+    }
+
+    /**
+     * Records a login when a user of the application authenticates; principals
+     * without a user row, such as the operator account, are ignored
+     * @param event the authentication success event
+     */
+    @EventListener
+    public void onAuthenticationSuccess(AuthenticationSuccessEvent event) {
+        // Served from the natural-id cache after the first lookup
+        userRepository.findByUsername(event.getAuthentication().getName())
+                .ifPresent(user -> recordUserLogin(user.getId()));
+    }
+
+    /**
+     * Gets the last activity timestamp including unflushed activity
+     * @param project the project as loaded from the database
+     * @return latest known activity timestamp
+     */
+    public OffsetDateTime getLastActivityAt(Project project) {
+        return latest(project.getLastActivityAt(), pendingActivity.get(project.getId()));
+    }
+
+    /**
+     * Gets the last login timestamp including unflushed logins
+     * @param user the user as loaded from the database
+     * @return latest known login timestamp
+     */
+    public OffsetDateTime getLastLoginAt(User user) {
+        return latest(user.getLastLoginAt(), pendingLogins.get(user.getId()));
+    }
+
+    /**
+     * Writes pending timestamps to the projects and users tables
+     * @return number of rows updated
+     */
+    @Scheduled(fixedDelayString = "${qoder.activity-timestamps.flush-interval:PT30S}")
+    public int flush() {
+        synchronized (flushLock) {
+            int projects = flush(pendingActivity, projectRepository::applyLastActivityAt);
+            int users = flush(pendingLogins, userRepository::applyLastLoginAt);
+            flushedProjects.increment(projects);
+            flushedUsers.increment(users);
+            return projects + users;
+        }
+    }
+
+    /**
+     * Writes pending timestamps before the application context closes
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        int updated = flush();
+        int remaining = pendingActivity.size() + pendingLogins.size();
+        if (remaining > 0) {
+            log.error("{} rows still have unflushed activity timestamps at shutdown", remaining);
+        } else if (updated > 0) {
+            log.info("Flushed activity timestamps for {} rows on shutdown", updated);
+        }
+    }
+
+    private int flush(Map<UUID, OffsetDateTime> pending, ToIntFunction<Map<UUID, OffsetDateTime>> writer) {
+        List<Map<UUID, OffsetDateTime>> batches = new ArrayList<>();
+        int batchSize = Math.max(1, properties.getMaxBatchSize());
+        Map<UUID, OffsetDateTime> batch = new LinkedHashMap<>();
+        for (Map.Entry<UUID, OffsetDateTime> entry : pending.entrySet()) {
+            // A newer touch racing with the drain stays pending for the next flush
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.put(entry.getKey(), entry.getValue());
+                if (batch.size() == batchSize) {
+                    batches.add(batch);
+                    batch = new LinkedHashMap<>();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        int updated = 0;
+        for (Map<UUID, OffsetDateTime> rows : batches) {
+            try {
+                Integer count = transactionTemplate.execute(status -> writer.applyAsInt(rows));
+                updated += count != null ? count : 0;
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush {} timestamps, re-queueing: {}", rows.size(), e.getMessage());
+                failedFlushes.increment();
+                rows.forEach((id, at) -> pending.merge(id, at, ActivityTimestampService::latest));
+            }
+        }
+        return updated;
+    }
+
+    private static OffsetDateTime latest(OffsetDateTime a, OffsetDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+}
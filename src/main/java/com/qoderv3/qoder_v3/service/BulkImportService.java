@@ -0,0 +1,502 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.BulkImportProperties;
+import com.qoderv3.qoder_v3.dto.ImportReport;
+import com.qoderv3.qoder_v3.dto.ImportReport.RejectedRow;
+import com.qoderv3.qoder_v3.entity.Project;
+import com.qoderv3.qoder_v3.entity.User;
+import com.qoderv3.qoder_v3.service.DataExportService.Dataset;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk loads users, projects and embeddings from CSV in the layout written by
+ * {@link DataExportService}. The input is streamed with COPY into a temporary
+ * staging table, validated there with set-based queries and upserted into the
+ * target table with a single INSERT ... ON CONFLICT, all in one transaction.
+ * Rows that break a constraint or reference a missing row are rejected and
+ * reported by input line instead of failing the import; malformed values such
+ * as an unparseable UUID fail the COPY and the whole import.
+ *
+ * <p>Only columns present in the header are updated on existing rows, so a file
+ * with a subset of columns patches those columns.
+ */
+@Slf4j
+@Service
+public class BulkImportService {
+
+    private static final String USER_STATUSES = "CAST(enum_range(NULL::user_status) AS text[])";
+    private static final String PROJECT_STATUSES = "CAST(enum_range(NULL::project_status) AS text[])";
+    private static final String CONTENT_TYPES = "CAST(enum_range(NULL::embedding_content_type) AS text[])";
+
+    private static final ImportTable USERS = new ImportTable("users", List.of(
+            column("id", "uuid", "COALESCE(id, uuid_generate_v4())"),
+            column("username", "text"),
+            column("email", "text"),
+            column("first_name", "text"),
+            column("last_name", "text"),
+            column("full_name", "text"),
+            column("avatar_url", "text"),
+            column("bio", "text"),
+            column("github_username", "text"),
+            column("status", "text", "CAST(COALESCE(status, 'ACTIVE') AS user_status)"),
+            column("email_verified", "boolean", "COALESCE(email_verified, FALSE)"),
+            column("last_login_at", "timestamptz"),
+            // Maintained by a trigger; accepted so exported files load unchanged
+            staged("projects_count", "integer"),
+            column("created_at", "timestamptz", "COALESCE(created_at, NOW())"),
+            column("updated_at", "timestamptz", "COALESCE(updated_at, NOW())")),
+            List.of("username", "email"),
+            """
+            WHEN username !~* '^[a-zA-Z0-9_-]{3,50}$' THEN 'invalid username'
+            WHEN email !~* '^[A-Za-z0-9._%%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$' THEN 'invalid email'
+            WHEN length(email) > 255 OR length(first_name) > 100 OR length(last_name) > 100
+                OR length(full_name) > 255 OR length(github_username) > 50 THEN 'value too long'
+            WHEN status IS NOT NULL AND NOT status = ANY(%s) THEN 'unknown status'
+            WHEN EXISTS (SELECT 1 FROM users u WHERE u.username = s.username AND u.id IS DISTINCT FROM s.id)
+                THEN 'username belongs to another user'
+            WHEN EXISTS (SELECT 1 FROM users u WHERE u.email = s.email AND u.id IS DISTINCT FROM s.id)
+                THEN 'email belongs to another user'
+            """.formatted(USER_STATUSES),
+            List.of("username", "email"),
+            List.of());
+
+    private static final ImportTable PROJECTS = new ImportTable("projects", List.of(
+            column("id", "uuid", "COALESCE(id, uuid_generate_v4())"),
+            column("name", "text"),
+            column("slug", "text"),
+            column("description", "text"),
+            column("detailed_description", "text"),
+            column("owner_id", "uuid"),
+            column("repository_url", "text"),
+            column("homepage_url", "text"),
+            column("documentation_url", "text"),
+            column("license", "text"),
+            column("programming_languages", "text", textArray("programming_languages")),
+            column("tags", "text", textArray("tags")),
+            column("status", "text", "CAST(COALESCE(status, 'ACTIVE') AS project_status)"),
+            column("visibility", "text", "COALESCE(visibility, 'PUBLIC')"),
+            column("is_template", "boolean", "COALESCE(is_template, FALSE)"),
+            column("is_fork", "boolean", "COALESCE(is_fork, FALSE)"),
+            column("fork_parent_id", "uuid"),
+            column("stars_count", "integer", "COALESCE(stars_count, 0)"),
+            column("forks_count", "integer", "COALESCE(forks_count, 0)"),
+            column("watchers_count", "integer", "COALESCE(watchers_count, 0)"),
+            column("issues_count", "integer", "COALESCE(issues_count, 0)"),
+            column("last_activity_at", "timestamptz", "COALESCE(last_activity_at, NOW())"),
+            column("created_at", "timestamptz", "COALESCE(created_at, NOW())"),
+            column("updated_at", "timestamptz", "COALESCE(updated_at, NOW())")),
+            List.of("name", "slug", "owner_id"),
+            """
+            WHEN length(trim(name)) = 0 THEN 'name is blank'
+            WHEN slug !~* '^[a-z0-9-]{3,255}$' THEN 'invalid slug'
+            WHEN length(name) > 255 OR length(license) > 50 THEN 'value too long'
+            WHEN status IS NOT NULL AND NOT status = ANY(%s) THEN 'unknown status'
+            WHEN visibility IS NOT NULL AND visibility NOT IN ('PUBLIC', 'PRIVATE', 'INTERNAL')
+                THEN 'unknown visibility'
+            WHEN stars_count < 0 OR forks_count < 0 OR watchers_count < 0 OR issues_count < 0
+                THEN 'negative counter'
+            WHEN NOT EXISTS (SELECT 1 FROM users u WHERE u.id = s.owner_id) THEN 'owner does not exist'
+            WHEN EXISTS (SELECT 1 FROM projects p WHERE p.slug = s.slug AND p.id IS DISTINCT FROM s.id)
+                THEN 'slug belongs to another project'
+            """.formatted(PROJECT_STATUSES),
+            List.of("slug"),
+            // Repeated until stable, as rejecting a parent orphans its forks in the file
+            List.of("""
+                    UPDATE import_projects s SET reject_reason = 'fork parent does not exist'
+                    WHERE s.reject_reason IS NULL AND s.fork_parent_id IS NOT NULL
+                      AND NOT EXISTS (SELECT 1 FROM projects p WHERE p.id = s.fork_parent_id)
+                      AND NOT EXISTS (SELECT 1 FROM import_projects q
+                                      WHERE q.id = s.fork_parent_id AND q.reject_reason IS NULL)
+                    """));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectProvider<EmbeddingVectorIndexService> vectorIndex;
+    private final BulkImportProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ImportTable embeddings;
+
+    public BulkImportService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             EntityManagerFactory entityManagerFactory,
+                             ObjectProvider<EmbeddingVectorIndexService> vectorIndex,
+                             BulkImportProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.vectorIndex = vectorIndex;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.embeddings = new ImportTable("embeddings", List.of(
+                column("id", "uuid", "COALESCE(id, uuid_generate_v4())"),
+                column("content_id", "uuid"),
+                column("content_type", "text", "CAST(content_type AS embedding_content_type)"),
+                column("chunk_index", "integer", "COALESCE(chunk_index, 0)"),
+                column("chunk_total", "integer", "COALESCE(chunk_total, 1)"),
+                column("embedding_model", "text", "COALESCE(embedding_model, 'text-embedding-ada-002')"),
+                column("content_text", "text"),
+                column("metadata", "jsonb"),
+                column("embedding_vector", "vector"),
+                column("created_at", "timestamptz", "COALESCE(created_at, NOW())"),
+                column("updated_at", "timestamptz", "COALESCE(updated_at, NOW())")),
+                List.of("content_id", "content_type", "content_text"),
+                """
+                WHEN NOT content_type = ANY(%s) THEN 'unknown content_type'
+                WHEN length(trim(content_text)) = 0 THEN 'content_text is blank'
+                WHEN COALESCE(chunk_index, 0) < 0 OR COALESCE(chunk_total, 1) < 1
+                    OR COALESCE(chunk_index, 0) >= COALESCE(chunk_total, 1) THEN 'invalid chunk position'
+                WHEN length(embedding_model) > 100 THEN 'value too long'
+                WHEN vector_dims(embedding_vector) <> %d THEN 'vector must have %d dimensions'
+                WHEN EXISTS (SELECT 1 FROM embeddings e WHERE e.id = s.id
+                    AND e.content_type <> CAST(s.content_type AS embedding_content_type))
+                    THEN 'id already used by another content_type'
+                """.formatted(CONTENT_TYPES, properties.getEmbeddingDimensions(),
+                        properties.getEmbeddingDimensions()),
+                List.of(),
+                List.of(),
+                // content_type is the partition key, so it is part of the primary key
+                List.of("id", "content_type"));
+    }
+
+    /**
+     * Imports one dataset from CSV with a header row naming the columns
+     * @param dataset the dataset to import into
+     * @param csv UTF-8 CSV input; not closed
+     * @return counts, the first rejected rows and throughput of the run
+     * @throws IllegalArgumentException if the header is empty, names an unknown column
+     *                                  or lacks a required column
+     */
+    public ImportReport importCsv(Dataset dataset, InputStream csv) {
+        ImportTable table = table(dataset);
+        String name = dataset.name().toLowerCase(Locale.ROOT);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long started = System.nanoTime();
+        BufferedInputStream in = new BufferedInputStream(csv, 64 * 1024);
+        List<String> header = table.headerColumns(readHeader(in));
+
+        ImportReport report = transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT set_config('work_mem', ?, true)", String.class,
+                    properties.getWorkMem());
+            jdbcTemplate.execute(table.createStagingSql());
+            long copied = copy(table, header, in, name);
+            // Temporary tables are never auto-analyzed; the checks below join against it
+            jdbcTemplate.execute("ANALYZE " + table.stagingTable());
+
+            jdbcTemplate.update(table.rejectSql());
+            if (!table.uniqueKeys().isEmpty() || header.contains("id")) {
+                jdbcTemplate.update(table.deduplicateSql());
+            }
+            for (String check : table.repeatedChecks()) {
+                while (jdbcTemplate.update(check) > 0) {
+                    log.debug("Re-running {} import check after new rejections", name);
+                }
+            }
+            long imported = jdbcTemplate.update(table.upsertSql(header));
+            Long rejected = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM " + table.stagingTable() + " WHERE reject_reason IS NOT NULL", Long.class);
+            List<RejectedRow> rejections = jdbcTemplate.query(
+                    "SELECT row_no, reject_reason FROM " + table.stagingTable()
+                            + " WHERE reject_reason IS NOT NULL ORDER BY row_no LIMIT ?",
+                    (rs, rowNum) -> new RejectedRow(rs.getLong(1) + 1, rs.getString(2)),
+                    properties.getMaxReportedRejections());
+            if (dataset == Dataset.EMBEDDINGS) {
+                EmbeddingVectorIndexService index = vectorIndex.getIfAvailable();
+                if (index != null) {
+                    index.reloadAfterCommit();
+                }
+            }
+            return new ImportReport(name, copied, imported, rejected != null ? rejected : 0, rejections,
+                    Duration.ofNanos(System.nanoTime() - started));
+        });
+        evictCachedEntities(dataset);
+        sample.stop(meterRegistry.timer("qoder.import", "dataset", name));
+        meterRegistry.counter("qoder.import.rows", "dataset", name, "outcome", "imported")
+                .increment(report.imported());
+        meterRegistry.counter("qoder.import.rows", "dataset", name, "outcome", "rejected")
+                .increment(report.rejected());
+        log.info("Imported {} {} rows, rejected {}, in {} ms ({} rows/s)", report.imported(), name,
+                report.rejected(), report.elapsed().toMillis(), String.format("%.1f", report.rowsPerSecond()));
+        return report;
+    }
+
+    private long copy(ImportTable table, List<String> header, InputStream in, String name) {
+        String sql = "COPY " + table.stagingTable() + " (" + String.join(", ", header)
+                + ") FROM STDIN WITH (FORMAT csv)";
+        InputStream progress = new ProgressInputStream(in, properties.getProgressLogBytes(), bytes ->
+                log.info("Import of {} in progress: {} MiB copied", name, bytes / (1024 * 1024)));
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, progress);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read " + name + " import input", e);
+            }
+        });
+        return copied != null ? copied : 0;
+    }
+
+    private void evictCachedEntities(Dataset dataset) {
+        // Rows were written with plain SQL, so cached entities, natural ids and queries may be stale;
+        // importing projects also changes users.projects_count through a trigger
+        List<Class<?>> entityClasses = switch (dataset) {
+            case USERS -> List.of(User.class);
+            case PROJECTS -> List.of(Project.class, User.class);
+            case EMBEDDINGS -> List.of();
+        };
+        if (!entityClasses.isEmpty()) {
+            Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            for (Class<?> entityClass : entityClasses) {
+                cache.evictEntityData(entityClass);
+                cache.evictNaturalIdData(entityClass);
+            }
+            cache.evictQueryRegions();
+        }
+    }
+
+    private ImportTable table(Dataset dataset) {
+        return switch (dataset) {
+            case USERS -> USERS;
+            case PROJECTS -> PROJECTS;
+            case EMBEDDINGS -> embeddings;
+        };
+    }
+
+    /**
+     * Reads the header line without consuming any data rows
+     * @param in the input, positioned at the start
+     * @return the header line without its line terminator or byte order mark
+     */
+    static String readHeader(InputStream in) {
+        try {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1 && b != '\n') {
+                line.write(b);
+            }
+            String header = line.toString(StandardCharsets.UTF_8);
+            if (header.startsWith("\uFEFF")) {
+                header = header.substring(1);
+            }
+            return header.endsWith("\r") ? header.substring(0, header.length() - 1) : header;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import header", e);
+        }
+    }
+
+    private static StagedColumn column(String name, String stagingType) {
+        return new StagedColumn(name, stagingType, name, true);
+    }
+
+    private static StagedColumn column(String name, String stagingType, String value) {
+        return new StagedColumn(name, stagingType, value, true);
+    }
+
+    private static StagedColumn staged(String name, String stagingType) {
+        return new StagedColumn(name, stagingType, null, false);
+    }
+
+    private static String textArray(String column) {
+        // Exports write arrays as JSON; PostgreSQL array literals are accepted as well
+        return "CASE WHEN left(" + column + ", 1) = '[' THEN ARRAY(SELECT jsonb_array_elements_text(CAST("
+                + column + " AS jsonb))) ELSE CAST(" + column + " AS text[]) END";
+    }
+
+    /**
+     * A staging column, its type while staged and the expression written to the
+     * target table when the column is in the header; columns that are not
+     * written have no value
+     */
+    record StagedColumn(String name, String stagingType, String value, boolean written) {
+    }
+
+    /**
+     * How one target table is staged, validated and upserted
+     *
+     * @param target the target table
+     * @param columns every column accepted in the input
+     * @param requiredColumns columns that must be in the header and non-empty in every row
+     * @param rejections {@code WHEN condition THEN 'reason'} clauses over the staging row {@code s}
+     * @param uniqueKeys columns besides id that must be unique within the input; later rows win
+     * @param repeatedChecks rejection updates re-run until they reject nothing more
+     * @param conflictColumns primary key columns of the target used as the upsert conflict target
+     */
+    record ImportTable(String target, List<StagedColumn> columns, List<String> requiredColumns,
+                       String rejections, List<String> uniqueKeys, List<String> repeatedChecks,
+                       List<String> conflictColumns) {
+
+        ImportTable(String target, List<StagedColumn> columns, List<String> requiredColumns,
+                    String rejections, List<String> uniqueKeys, List<String> repeatedChecks) {
+            this(target, columns, requiredColumns, rejections, uniqueKeys, repeatedChecks, List.of("id"));
+        }
+
+        String stagingTable() {
+            return "import_" + target;
+        }
+
+        /**
+         * Validates a header and returns its columns in file order
+         * @param header the header line
+         * @return the normalized column names
+         * @throws IllegalArgumentException if a column is unknown, repeated or missing
+         */
+        List<String> headerColumns(String header) {
+            if (header == null || header.isBlank()) {
+                throw new IllegalArgumentException("Import input for " + target + " has no header row");
+            }
+            Map<String, StagedColumn> known = columns.stream()
+                    .collect(Collectors.toMap(StagedColumn::name, Function.identity()));
+            Set<String> names = new LinkedHashSet<>();
+            for (String raw : header.split(",", -1)) {
+                String name = raw.trim().replace("\"", "").toLowerCase(Locale.ROOT);
+                if (!known.containsKey(name)) {
+                    throw new IllegalArgumentException("Unknown column '" + name + "' for " + target + " import");
+                }
+                if (!names.add(name)) {
+                    throw new IllegalArgumentException("Column '" + name + "' repeated in " + target + " import");
+                }
+            }
+            for (String required : requiredColumns) {
+                if (!names.contains(required)) {
+                    throw new IllegalArgumentException("Missing required column '" + required + "' for "
+                            + target + " import");
+                }
+            }
+            return List.copyOf(names);
+        }
+
+        String createStagingSql() {
+            StringBuilder sql = new StringBuilder("CREATE TEMPORARY TABLE ").append(stagingTable())
+                    .append(" (row_no bigserial");
+            for (StagedColumn column : columns) {
+                sql.append(", ").append(column.name()).append(' ').append(column.stagingType());
+            }
+            return sql.append(", reject_reason text) ON COMMIT DROP").toString();
+        }
+
+        String rejectSql() {
+            StringBuilder required = new StringBuilder();
+            for (String column : requiredColumns) {
+                required.append("WHEN ").append(column).append(" IS NULL THEN '").append(column)
+                        .append(" is required'\n");
+            }
+            return "UPDATE " + stagingTable() + " t SET reject_reason = r.reason FROM (SELECT s.row_no, CASE\n"
+                    + required + rejections + "END AS reason FROM " + stagingTable() + " s) r\n"
+                    + "WHERE t.row_no = r.row_no AND r.reason IS NOT NULL";
+        }
+
+        String deduplicateSql() {
+            List<String> keys = new ArrayList<>();
+            keys.add("id");
+            keys.addAll(uniqueKeys);
+            StringBuilder cases = new StringBuilder();
+            for (String key : keys) {
+                cases.append("WHEN ").append(key).append(" IS NOT NULL AND row_number() OVER (PARTITION BY ")
+                        .append(key).append(" ORDER BY row_no DESC) > 1 THEN 'superseded by a later row with the same ")
+                        .append(key).append("'\n");
+            }
+            return "UPDATE " + stagingTable() + " t SET reject_reason = d.reason FROM (SELECT row_no, CASE\n"
+                    + cases + "END AS reason FROM " + stagingTable() + " WHERE reject_reason IS NULL) d\n"
+                    + "WHERE t.row_no = d.row_no AND d.reason IS NOT NULL";
+        }
+
+        String upsertSql(List<String> header) {
+            List<String> targetColumns = new ArrayList<>();
+            List<String> values = new ArrayList<>();
+            List<String> updates = new ArrayList<>();
+            for (StagedColumn column : columns) {
+                // Absent columns are left to the table defaults on insert and untouched on update
+                if (!column.written() || !header.contains(column.name())) {
+                    continue;
+                }
+                targetColumns.add(column.name());
+                values.add(column.value());
+                if (!conflictColumns.contains(column.name())
+                        && !List.of("id", "created_at", "updated_at").contains(column.name())) {
+                    updates.add(column.name() + " = EXCLUDED." + column.name());
+                }
+            }
+            String onConflict = "ON CONFLICT (" + String.join(", ", conflictColumns) + ")";
+            String conflict = updates.isEmpty()
+                    ? onConflict + " DO NOTHING"
+                    : onConflict + " DO UPDATE SET " + String.join(", ", updates);
+            return "INSERT INTO " + target + " (" + String.join(", ", targetColumns) + ")\n"
+                    + "SELECT " + String.join(", ", values) + " FROM " + stagingTable()
+                    + " WHERE reject_reason IS NULL ORDER BY row_no\n" + conflict;
+        }
+    }
+
+    /**
+     * Counts bytes read and reports every {@code interval} bytes
+     */
+    static final class ProgressInputStream extends FilterInputStream {
+
+        private final long interval;
+        private final LongConsumer listener;
+        private long bytes;
+        private long nextReport;
+
+        ProgressInputStream(InputStream in, long interval, LongConsumer listener) {
+            super(in);
+            this.interval = Math.max(1, interval);
+            this.listener = listener;
+            this.nextReport = this.interval;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                advance(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                advance(n);
+            }
+            return n;
+        }
+
+        private void advance(long n) {
+            bytes += n;
+            if (bytes >= nextReport) {
+                nextReport = bytes + interval;
+                listener.accept(bytes);
+            }
+        }
+    }
+}
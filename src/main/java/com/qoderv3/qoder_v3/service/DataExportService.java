@@ -0,0 +1,312 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.qoderv3.qoder_v3.entity.Embedding;
+import com.qoderv3.qoder_v3.entity.Project;
+import com.qoderv3.qoder_v3.entity.User;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepository;
+import com.qoderv3.qoder_v3.repository.ProjectRepository;
+import com.qoderv3.qoder_v3.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.TemporalAccessor;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Full dumps of projects, users and embeddings as NDJSON or CSV. Rows are read
+ * through a server-side cursor in one read-only transaction, written straight to
+ * the output stream and detached from the persistence context as they go, so
+ * heap use stays flat and a single connection is held regardless of table size.
+ * Credentials and tokens are never exported.
+ */
+@Slf4j
+@Service
+public class DataExportService {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Exportable datasets
+     */
+    public enum Dataset {
+        PROJECTS, USERS, EMBEDDINGS
+    }
+
+    /**
+     * Output formats with their media types and file extensions
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    private static final List<Column<Project>> PROJECT_COLUMNS = List.of(
+            new Column<>("id", Project::getId),
+            new Column<>("name", Project::getName),
+            new Column<>("slug", Project::getSlug),
+            new Column<>("description", Project::getDescription),
+            new Column<>("detailed_description", Project::getDetailedDescription),
+            // Reading the ID does not initialize a lazy proxy
+            new Column<>("owner_id", p -> p.getOwner() != null ? p.getOwner().getId() : null),
+            new Column<>("repository_url", Project::getRepositoryUrl),
+            new Column<>("homepage_url", Project::getHomepageUrl),
+            new Column<>("documentation_url", Project::getDocumentationUrl),
+            new Column<>("license", Project::getLicense),
+            new Column<>("programming_languages", Project::getProgrammingLanguages),
+            new Column<>("tags", Project::getTags),
+            new Column<>("status", Project::getStatus),
+            new Column<>("visibility", Project::getVisibility),
+            new Column<>("is_template", Project::getIsTemplate),
+            new Column<>("is_fork", Project::getIsFork),
+            new Column<>("fork_parent_id", p -> p.getForkParent() != null ? p.getForkParent().getId() : null),
+            new Column<>("stars_count", Project::getStarsCount),
+            new Column<>("forks_count", Project::getForksCount),
+            new Column<>("watchers_count", Project::getWatchersCount),
+            new Column<>("issues_count", Project::getIssuesCount),
+            new Column<>("last_activity_at", Project::getLastActivityAt),
+            new Column<>("created_at", Project::getCreatedAt),
+            new Column<>("updated_at", Project::getUpdatedAt));
+
+    private static final List<Column<User>> USER_COLUMNS = List.of(
+            new Column<>("id", User::getId),
+            new Column<>("username", User::getUsername),
+            new Column<>("email", User::getEmail),
+            new Column<>("first_name", User::getFirstName),
+            new Column<>("last_name", User::getLastName),
+            new Column<>("full_name", User::getFullName),
+            new Column<>("avatar_url", User::getAvatarUrl),
+            new Column<>("bio", User::getBio),
+            new Column<>("github_username", User::getGithubUsername),
+            new Column<>("status", User::getStatus),
+            new Column<>("email_verified", User::getEmailVerified),
+            new Column<>("last_login_at", User::getLastLoginAt),
+            new Column<>("projects_count", User::getProjectsCount),
+            new Column<>("created_at", User::getCreatedAt),
+            new Column<>("updated_at", User::getUpdatedAt));
+
+    private static final List<Column<Embedding>> EMBEDDING_COLUMNS = List.of(
+            new Column<>("id", Embedding::getId),
+            new Column<>("content_id", Embedding::getContentId),
+            new Column<>("content_type", Embedding::getContentType),
+            new Column<>("chunk_index", Embedding::getChunkIndex),
+            new Column<>("chunk_total", Embedding::getChunkTotal),
+            new Column<>("embedding_model", Embedding::getEmbeddingModel),
+            new Column<>("content_text", Embedding::getContentText),
+            new Column<>("metadata", Embedding::getMetadata),
+            new Column<>("embedding_vector", Embedding::getEmbeddingVector),
+            new Column<>("created_at", Embedding::getCreatedAt),
+            new Column<>("updated_at", Embedding::getUpdatedAt));
+
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final EmbeddingRepository embeddingRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter jsonWriter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+
+    public DataExportService(ProjectRepository projectRepository,
+                             UserRepository userRepository,
+                             EmbeddingRepository embeddingRepository,
+                             EntityManager entityManager,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.projectRepository = projectRepository;
+        this.userRepository = userRepository;
+        this.embeddingRepository = embeddingRepository;
+        this.entityManager = entityManager;
+        // Flushing after every value would push each row to the socket on its own
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Writes every row of a dataset to the output stream. The stream is flushed
+     * but not closed.
+     * @param dataset the dataset to export
+     * @param format the output format
+     * @param out the destination
+     * @return number of rows written
+     */
+    public long export(Dataset dataset, Format format, OutputStream out) {
+        long rows = switch (dataset) {
+            case PROJECTS -> export(projectRepository::streamAllForExport, PROJECT_COLUMNS, format, out);
+            case USERS -> export(userRepository::streamAllForExport, USER_COLUMNS, format, out);
+            case EMBEDDINGS -> export(embeddingRepository::streamAllForExport, EMBEDDING_COLUMNS, format, out);
+        };
+        meterRegistry.counter("qoder.export.rows", "dataset", dataset.name().toLowerCase(Locale.ROOT)).increment(rows);
+        log.info("Exported {} {} rows as {}", rows, dataset, format);
+        return rows;
+    }
+
+    private <T> long export(Supplier<Stream<T>> rows, List<Column<T>> columns, Format format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        Long written = readOnlyTransaction.execute(status -> {
+            try (RowWriter<T> rowWriter = format == Format.CSV
+                    ? new CsvRowWriter<>(writer, columns, jsonWriter)
+                    : new NdjsonRowWriter<>(writer, columns, jsonWriter);
+                 Stream<T> stream = rows.get()) {
+                long count = 0;
+                for (T row : (Iterable<T>) stream::iterator) {
+                    rowWriter.write(row);
+                    entityManager.detach(row);
+                    count++;
+                }
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Export failed", e);
+            }
+        });
+        return written != null ? written : 0;
+    }
+
+    /**
+     * A named export column and how to read it from a row
+     */
+    record Column<T>(String name, Function<T, Object> value) {
+    }
+
+    /**
+     * Writes rows in one output format; closing flushes without closing the target
+     */
+    interface RowWriter<T> extends AutoCloseable {
+
+        void write(T row) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * One JSON object per line
+     */
+    static final class NdjsonRowWriter<T> implements RowWriter<T> {
+
+        private final List<Column<T>> columns;
+        private final ObjectWriter jsonWriter;
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer, List<Column<T>> columns, ObjectWriter jsonWriter) throws IOException {
+            this.columns = columns;
+            this.jsonWriter = jsonWriter;
+            this.generator = jsonWriter.createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (Column<T> column : columns) {
+                values.put(column.name(), column.value().apply(row));
+            }
+            jsonWriter.writeValue(generator, values);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * RFC 4180 CSV with a header row. Arrays, maps and vectors are written as JSON.
+     */
+    static final class CsvRowWriter<T> implements RowWriter<T> {
+
+        private final Writer writer;
+        private final List<Column<T>> columns;
+        private final ObjectWriter jsonWriter;
+
+        CsvRowWriter(Writer writer, List<Column<T>> columns, ObjectWriter jsonWriter) throws IOException {
+            this.writer = writer;
+            this.columns = columns;
+            this.jsonWriter = jsonWriter;
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(columns.get(i).name());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns.get(i).value().apply(row);
+                if (value != null) {
+                    writer.write(escape(format(value)));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        private String format(Object value) throws IOException {
+            if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+                    || value instanceof Enum<?> || value instanceof TemporalAccessor || value instanceof UUID) {
+                return value.toString();
+            }
+            return jsonWriter.writeValueAsString(value);
+        }
+
+        static String escape(String value) {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+        }
+    }
+}
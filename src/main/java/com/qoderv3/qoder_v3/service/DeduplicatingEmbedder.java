@@ -0,0 +1,154 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.qoderv3.qoder_v3.config.EmbeddingDeduplicationProperties;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Embeds texts, calling the model only for text that has not been embedded with
+ * the same model before. Vectors are found by the SHA-256 of the UTF-8 text, first
+ * in a bounded in-memory cache and then in the embeddings table; identical texts
+ * within one call are sent to the model once.
+ */
+@Service
+public class DeduplicatingEmbedder {
+
+    private final EmbeddingModel embeddingModel;
+    private final EmbeddingRepository embeddingRepository;
+    private final EmbeddingDeduplicationProperties properties;
+    private final Cache<String, float[]> cache;
+
+    private final Counter cacheHits;
+    private final Counter databaseHits;
+    private final Counter modelTexts;
+
+    public DeduplicatingEmbedder(EmbeddingModel embeddingModel,
+                                 EmbeddingRepository embeddingRepository,
+                                 EmbeddingDeduplicationProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.embeddingModel = embeddingModel;
+        this.embeddingRepository = embeddingRepository;
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheMaxSize())
+                .expireAfterAccess(properties.getCacheTtl())
+                .build();
+        this.cacheHits = texts(meterRegistry, "cache");
+        this.databaseHits = texts(meterRegistry, "database");
+        this.modelTexts = texts(meterRegistry, "model");
+    }
+
+    /**
+     * Gets a vector for each text, reusing stored vectors of identical text
+     * @param texts the texts
+     * @param model the embedding model name the vectors must come from
+     * @return one vector per text, in order
+     * @throws IllegalStateException if the model returns a wrong number of vectors
+     */
+    public List<float[]> embed(List<String> texts, String model) {
+        if (!properties.isEnabled()) {
+            modelTexts.increment(texts.size());
+            return embeddingModel.embed(texts);
+        }
+        List<String> hashes = new ArrayList<>(texts.size());
+        Map<String, float[]> found = new LinkedHashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String text : texts) {
+            String hash = hash(text);
+            hashes.add(hash);
+            float[] cached = cache.getIfPresent(key(model, hash));
+            if (cached != null) {
+                found.put(hash, cached);
+                cacheHits.increment();
+            } else {
+                missing.add(hash);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<String, float[]> stored = embeddingRepository.findVectorsByContentHashes(missing, model);
+            stored.forEach((hash, vector) -> {
+                found.put(hash, vector);
+                cache.put(key(model, hash), vector);
+            });
+            databaseHits.increment(countOf(hashes, stored.keySet()));
+            missing.removeAll(stored.keySet());
+        }
+
+        if (!missing.isEmpty()) {
+            List<String> toEmbed = new ArrayList<>(missing.size());
+            List<String> toEmbedHashes = new ArrayList<>(missing.size());
+            for (int i = 0; i < texts.size(); i++) {
+                if (missing.remove(hashes.get(i))) {
+                    toEmbed.add(texts.get(i));
+                    toEmbedHashes.add(hashes.get(i));
+                }
+            }
+            List<float[]> vectors = embeddingModel.embed(toEmbed);
+            if (vectors == null || vectors.size() != toEmbed.size()) {
+                throw new IllegalStateException("Embedding model returned " +
+                        (vectors == null ? 0 : vectors.size()) + " vectors for " + toEmbed.size() + " texts");
+            }
+            modelTexts.increment(toEmbed.size());
+            for (int i = 0; i < toEmbed.size(); i++) {
+                float[] vector = vectors.get(i);
+                if (vector != null) {
+                    found.put(toEmbedHashes.get(i), vector);
+                    cache.put(key(model, toEmbedHashes.get(i)), vector);
+                }
+            }
+        }
+
+        List<float[]> result = new ArrayList<>(texts.size());
+        for (String hash : hashes) {
+            float[] vector = found.get(hash);
+            result.add(vector != null ? vector.clone() : null);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the content hash stored in embeddings.content_hash
+     * @param text the content text
+     * @return hex-encoded SHA-256 of the UTF-8 text
+     */
+    static String hash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String key(String model, String hash) {
+        return model + ':' + hash;
+    }
+
+    private static long countOf(List<String> hashes, Set<String> matched) {
+        return hashes.stream().filter(matched::contains).count();
+    }
+
+    private static Counter texts(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("qoder.embeddings.dedup.texts")
+                .description("Texts embedded, by where the vector came from")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
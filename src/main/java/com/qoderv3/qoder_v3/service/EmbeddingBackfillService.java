@@ -0,0 +1,238 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.EmbeddingBackfillProperties;
+import com.qoderv3.qoder_v3.dto.BackfillReport;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepository;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepositoryCustom.VectorUpdate;
+import com.qoderv3.qoder_v3.repository.projection.PendingEmbedding;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills in missing embedding vectors. Pending rows are streamed in id order with
+ * keyset pagination, grouped into micro-batches sized by an approximate token
+ * budget, embedded with at most one model call per batch and written back with
+ * one JDBC batch per micro-batch. Text already embedded with the same model reuses
+ * its stored vector. At most {@code concurrency} batches are in flight.
+ */
+@Slf4j
+@Service
+public class EmbeddingBackfillService {
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final EmbeddingRepository embeddingRepository;
+    private final DeduplicatingEmbedder embedder;
+    private final EmbeddingBackfillProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicInteger inFlightBatches = new AtomicInteger();
+
+    private final Counter embeddedCounter;
+    private final Counter failedCounter;
+    private final Timer modelTimer;
+    private final Timer writeTimer;
+    private final DistributionSummary batchTokens;
+
+    public EmbeddingBackfillService(EmbeddingRepository embeddingRepository,
+                                    DeduplicatingEmbedder embedder,
+                                    EmbeddingBackfillProperties properties,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.embeddingRepository = embeddingRepository;
+        this.embedder = embedder;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.embeddedCounter = Counter.builder("qoder.embeddings.backfill.rows")
+                .description("Rows processed by the embedding backfill")
+                .tag("outcome", "embedded")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("qoder.embeddings.backfill.rows")
+                .description("Rows processed by the embedding backfill")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        this.modelTimer = Timer.builder("qoder.embeddings.backfill.model.calls")
+                .description("Latency of embedding model calls made by the backfill")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.writeTimer = Timer.builder("qoder.embeddings.backfill.writes")
+                .description("Latency of batched vector writes made by the backfill")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.batchTokens = DistributionSummary.builder("qoder.embeddings.backfill.batch.tokens")
+                .description("Estimated tokens per embedding model call")
+                .register(meterRegistry);
+        Gauge.builder("qoder.embeddings.backfill.in_flight", inFlightBatches, AtomicInteger::get)
+                .description("Backfill micro-batches currently being embedded or written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a backfill in the background once the application is ready, if enabled
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (properties.isRunOnStartup()) {
+            Thread thread = new Thread(this::backfill, "embedding-backfill");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Embeds every row whose vector is null
+     * @return summary of the run
+     * @throws IllegalStateException if a backfill is already running
+     */
+    public BackfillReport backfill() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("An embedding backfill is already running");
+        }
+        long started = System.nanoTime();
+        AtomicLong embedded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong batches = new AtomicLong();
+        int concurrency = Math.max(1, properties.getConcurrency());
+        Semaphore permits = new Semaphore(concurrency);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "embedding-backfill-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            UUID afterId = FIRST_ID;
+            List<PendingEmbedding> page;
+            while (!(page = embeddingRepository.findPendingEmbeddingsAfter(afterId, properties.getPageSize())).isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+                for (List<PendingEmbedding> batch : toMicroBatches(page)) {
+                    permits.acquire();
+                    inFlightBatches.incrementAndGet();
+                    executor.execute(() -> {
+                        try {
+                            batches.incrementAndGet();
+                            embedAndWrite(batch, embedded, failed);
+                        } finally {
+                            inFlightBatches.decrementAndGet();
+                            permits.release();
+                        }
+                    });
+                }
+                log.info("Embedding backfill progress: {} embedded, {} failed, {} rows/s", embedded.get(), failed.get(),
+                        String.format("%.1f", report(embedded, failed, batches, started).rowsPerSecond()));
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            log.warn("Embedding backfill interrupted");
+        } finally {
+            executor.shutdown();
+            running.set(false);
+        }
+        BackfillReport report = report(embedded, failed, batches, started);
+        log.info("Embedding backfill finished: {} embedded, {} failed, {} batches in {} ms ({} rows/s)",
+                report.embedded(), report.failed(), report.batches(), report.elapsed().toMillis(),
+                String.format("%.1f", report.rowsPerSecond()));
+        return report;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Splits a page into batches that respect both the token budget and the item limit.
+     * A single text larger than the budget is sent on its own.
+     * @param page rows to split
+     * @return micro-batches in id order
+     */
+    List<List<PendingEmbedding>> toMicroBatches(List<PendingEmbedding> page) {
+        List<List<PendingEmbedding>> batches = new ArrayList<>();
+        List<PendingEmbedding> current = new ArrayList<>();
+        long currentTokens = 0;
+        for (PendingEmbedding pending : page) {
+            long tokens = estimateTokens(pending.getContentText());
+            if (!current.isEmpty() && (currentTokens + tokens > properties.getMaxTokensPerBatch()
+                    || current.size() >= properties.getMaxItemsPerBatch())) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentTokens = 0;
+            }
+            current.add(pending);
+            currentTokens += tokens;
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    private void embedAndWrite(List<PendingEmbedding> batch, AtomicLong embedded, AtomicLong failed) {
+        try {
+            List<String> texts = new ArrayList<>(batch.size());
+            long tokens = 0;
+            for (PendingEmbedding pending : batch) {
+                texts.add(pending.getContentText());
+                tokens += estimateTokens(pending.getContentText());
+            }
+            batchTokens.record(tokens);
+            List<float[]> vectors = modelTimer.record(() -> embedder.embed(texts, properties.getModelName()));
+            if (vectors == null || vectors.size() != batch.size()) {
+                throw new IllegalStateException("Embedding model returned " +
+                        (vectors == null ? 0 : vectors.size()) + " vectors for " + batch.size() + " texts");
+            }
+            List<VectorUpdate> updates = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                float[] vector = vectors.get(i);
+                if (vector == null || vector.length != properties.getDimensions()) {
+                    log.warn("Skipping embedding {}: expected {} dimensions", batch.get(i).getId(),
+                            properties.getDimensions());
+                    failed.incrementAndGet();
+                    failedCounter.increment();
+                    continue;
+                }
+                updates.add(new VectorUpdate(batch.get(i).getId(), vector));
+            }
+            Integer written = writeTimer.record(() -> transactionTemplate.execute(status ->
+                    embeddingRepository.batchFillMissingVectors(updates, properties.getModelName())));
+            int count = written != null ? written : 0;
+            embedded.addAndGet(count);
+            embeddedCounter.increment(count);
+        } catch (RuntimeException e) {
+            log.warn("Embedding backfill batch of {} rows failed: {}", batch.size(), e.getMessage());
+            failed.addAndGet(batch.size());
+            failedCounter.increment(batch.size());
+        }
+    }
+
+    private long estimateTokens(String text) {
+        return text == null ? 0 : (long) Math.ceil(text.length() / properties.getCharsPerToken());
+    }
+
+    private static BackfillReport report(AtomicLong embedded, AtomicLong failed, AtomicLong batches, long started) {
+        return new BackfillReport(embedded.get(), failed.get(), batches.get(),
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+}
@@ -0,0 +1,163 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.EmbeddingBackfillProperties;
+import com.qoderv3.qoder_v3.config.EmbeddingChunkingProperties;
+import com.qoderv3.qoder_v3.dto.ChunkingReport;
+import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepository;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepositoryCustom.ChunkInsert;
+import com.qoderv3.qoder_v3.text.TextChunker;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Splits long content into token-bounded chunks and stores one embedding row per
+ * chunk. The text is read as a stream and chunks are embedded in model batches as
+ * they are produced; {@code maxChunks} bounds the vectors held for one item. No
+ * connection is held during the model calls: once every chunk is embedded, the
+ * previous chunks are deleted and the new ones inserted with one JDBC batch in a
+ * short transaction, so readers see either the old or the new chunks, and a
+ * failure keeps the old ones. Chunks whose text is unchanged reuse their stored
+ * vectors. Content longer than the chunk limit fails unless truncation is enabled.
+ */
+@Slf4j
+@Service
+public class EmbeddingChunkingService {
+
+    private final EmbeddingRepository embeddingRepository;
+    private final DeduplicatingEmbedder embedder;
+    private final EmbeddingChunkingProperties properties;
+    private final EmbeddingBackfillProperties modelProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final TextChunker chunker;
+
+    private final Timer modelTimer;
+    private final Timer writeTimer;
+    private final DistributionSummary chunkCount;
+
+    public EmbeddingChunkingService(EmbeddingRepository embeddingRepository,
+                                    DeduplicatingEmbedder embedder,
+                                    EmbeddingChunkingProperties properties,
+                                    EmbeddingBackfillProperties modelProperties,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.embeddingRepository = embeddingRepository;
+        this.embedder = embedder;
+        this.properties = properties;
+        this.modelProperties = modelProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunker = new TextChunker(properties.getMaxTokens(), properties.getOverlapTokens(),
+                properties.getCharsPerToken());
+        this.modelTimer = Timer.builder("qoder.embeddings.chunking.model.calls")
+                .description("Latency of embedding model calls made for chunked content")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.writeTimer = Timer.builder("qoder.embeddings.chunking.writes")
+                .description("Latency of replacing the chunks of one content item")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.chunkCount = DistributionSummary.builder("qoder.embeddings.chunking.chunks")
+                .description("Chunks written per content item")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Chunks, embeds and stores a text, replacing any earlier chunks of the content item
+     * @param contentId the content id
+     * @param contentType the content type
+     * @param text the text
+     * @return summary of the run
+     */
+    public ChunkingReport embed(UUID contentId, EmbeddingContentType contentType, String text) {
+        return embed(contentId, contentType, new StringReader(text));
+    }
+
+    /**
+     * Chunks, embeds and stores text read from a reader, replacing any earlier chunks
+     * of the content item. The reader is not closed.
+     * @param contentId the content id
+     * @param contentType the content type
+     * @param text the text
+     * @return summary of the run
+     * @throws IllegalArgumentException if the text exceeds the chunk limit and truncation is off;
+     *                                  the earlier chunks are kept
+     * @throws IllegalStateException if the model returns a wrong number or size of vectors
+     */
+    public ChunkingReport embed(UUID contentId, EmbeddingContentType contentType, Reader text) {
+        Iterator<String> iterator = chunker.chunks(text);
+        List<ChunkInsert> chunks = new ArrayList<>();
+        List<String> batch = new ArrayList<>();
+        long batchTokens = 0;
+        long tokens = 0;
+        long batches = 0;
+        while (iterator.hasNext() && chunks.size() + batch.size() < properties.getMaxChunks()) {
+            String chunk = iterator.next();
+            long chunkTokens = chunker.estimateTokens(chunk);
+            if (!batch.isEmpty() && (batchTokens + chunkTokens > modelProperties.getMaxTokensPerBatch()
+                    || batch.size() >= modelProperties.getMaxItemsPerBatch())) {
+                chunks.addAll(embedBatch(batch, chunks.size()));
+                batches++;
+                batch.clear();
+                batchTokens = 0;
+            }
+            batch.add(chunk);
+            batchTokens += chunkTokens;
+            tokens += chunkTokens;
+        }
+        boolean truncated = iterator.hasNext();
+        if (truncated && !properties.isTruncate()) {
+            throw new IllegalArgumentException("Content " + contentId + " (" + contentType + ") exceeds "
+                    + properties.getMaxChunks() + " chunks");
+        }
+        if (!batch.isEmpty()) {
+            chunks.addAll(embedBatch(batch, chunks.size()));
+            batches++;
+        }
+        if (truncated) {
+            log.warn("Content {} ({}) exceeds {} chunks; the remaining text was not embedded", contentId,
+                    contentType, properties.getMaxChunks());
+        }
+        Integer written = writeTimer.record(() -> transactionTemplate.execute(status -> {
+            embeddingRepository.deleteByContentIdAndContentType(contentId, contentType);
+            return embeddingRepository.insertChunks(contentId, contentType, chunks, chunks.size(),
+                    modelProperties.getModelName());
+        }));
+        ChunkingReport report = new ChunkingReport(written != null ? written : 0, tokens, batches, truncated);
+        chunkCount.record(report.chunks());
+        return report;
+    }
+
+    /**
+     * Embeds one batch of chunks
+     * @return the chunks with their vectors, indexed from {@code firstIndex}
+     */
+    private List<ChunkInsert> embedBatch(List<String> texts, int firstIndex) {
+        List<float[]> vectors = modelTimer.record(() -> embedder.embed(texts, modelProperties.getModelName()));
+        if (vectors == null || vectors.size() != texts.size()) {
+            throw new IllegalStateException("Embedding model returned " +
+                    (vectors == null ? 0 : vectors.size()) + " vectors for " + texts.size() + " texts");
+        }
+        List<ChunkInsert> chunks = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            float[] vector = vectors.get(i);
+            if (vector == null || vector.length != modelProperties.getDimensions()) {
+                throw new IllegalStateException("Expected " + modelProperties.getDimensions() +
+                        " dimensions for chunk " + (firstIndex + i));
+            }
+            chunks.add(new ChunkInsert(UUID.randomUUID(), firstIndex + i, texts.get(i), vector));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,33 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.entity.Embedding;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that mirrors embedding inserts, updates and deletes made
+ * through the entity manager into the in-process vector index, if it is enabled.
+ */
+@Component
+public class EmbeddingIndexListener {
+
+    private final ObjectProvider<EmbeddingVectorIndexService> indexService;
+
+    public EmbeddingIndexListener(ObjectProvider<EmbeddingVectorIndexService> indexService) {
+        this.indexService = indexService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Embedding embedding) {
+        indexService.ifAvailable(index -> index.onSaved(embedding));
+    }
+
+    @PostRemove
+    public void onRemoved(Embedding embedding) {
+        indexService.ifAvailable(index -> index.onDeleted(embedding.getId()));
+    }
+}
@@ -0,0 +1,73 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.EmbeddingRetentionProperties;
+import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+/**
+ * Deletes embeddings older than the maximum age configured for their content
+ * type. Each type is deleted in its own transaction with a content_type
+ * predicate, so every delete stays inside one partition of the embeddings table
+ * and a failure for one type does not roll back the others.
+ */
+@Slf4j
+@Service
+public class EmbeddingRetentionService {
+
+    private final EmbeddingRepository embeddingRepository;
+    private final EmbeddingRetentionProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public EmbeddingRetentionService(EmbeddingRepository embeddingRepository,
+                                     EmbeddingRetentionProperties properties,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry) {
+        this.embeddingRepository = embeddingRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Deletes the expired embeddings of every content type with a configured maximum age
+     * @return number of deleted embeddings
+     */
+    @Scheduled(fixedDelayString = "${qoder.embeddings.retention.interval:PT1H}")
+    public int purgeExpired() {
+        OffsetDateTime now = OffsetDateTime.now();
+        int deleted = 0;
+        for (Map.Entry<EmbeddingContentType, Duration> entry : properties.getMaxAge().entrySet()) {
+            EmbeddingContentType type = entry.getKey();
+            OffsetDateTime olderThan = now.minus(entry.getValue());
+            try {
+                Integer rows = transactionTemplate.execute(status ->
+                        embeddingRepository.deleteOldEmbeddingsByContentType(type, olderThan));
+                int count = rows != null ? rows : 0;
+                deleted += count;
+                Counter.builder("qoder.embeddings.retention.deleted")
+                        .description("Embeddings deleted by the retention job")
+                        .tag("content_type", type.name())
+                        .register(meterRegistry)
+                        .increment(count);
+            } catch (RuntimeException e) {
+                log.warn("Failed to delete {} embeddings older than {}: {}", type, olderThan, e.getMessage());
+            }
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} expired embeddings", deleted);
+        }
+        return deleted;
+    }
+}
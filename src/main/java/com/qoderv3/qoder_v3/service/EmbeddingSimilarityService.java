@@ -0,0 +1,93 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.VectorQuantizationProperties;
+import com.qoderv3.qoder_v3.config.VectorSearchProperties;
+import com.qoderv3.qoder_v3.dto.SimilarEmbedding;
+import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepository;
+import com.qoderv3.qoder_v3.vector.VectorQuantization;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Vector similarity search over stored embeddings. Served by the in-process index
+ * when it is enabled and loaded; otherwise by the database, which finds candidates
+ * with the representation configured for the content type and re-ranks them with
+ * the full-precision vectors.
+ */
+@Service
+public class EmbeddingSimilarityService {
+
+    private final EmbeddingRepository embeddingRepository;
+    private final ObjectProvider<EmbeddingVectorIndexService> vectorIndex;
+    private final VectorQuantizationProperties properties;
+    private final VectorSearchProperties searchProperties;
+    private final Map<VectorQuantization, Timer> searchTimers = new EnumMap<>(VectorQuantization.class);
+
+    public EmbeddingSimilarityService(EmbeddingRepository embeddingRepository,
+                                      ObjectProvider<EmbeddingVectorIndexService> vectorIndex,
+                                      VectorQuantizationProperties properties,
+                                      VectorSearchProperties searchProperties,
+                                      MeterRegistry meterRegistry) {
+        this.embeddingRepository = embeddingRepository;
+        this.vectorIndex = vectorIndex;
+        this.properties = properties;
+        this.searchProperties = searchProperties;
+        for (VectorQuantization quantization : VectorQuantization.values()) {
+            searchTimers.put(quantization, Timer.builder("qoder.embeddings.similarity.search")
+                    .description("Latency of database similarity searches by candidate representation")
+                    .tag("quantization", quantization.name())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Finds the embeddings most similar to a query vector
+     * @param queryVector the query vector
+     * @param contentType optional content type filter
+     * @param threshold minimum cosine similarity
+     * @param limit maximum results
+     * @return similar embeddings ordered by similarity
+     */
+    @Transactional(readOnly = true)
+    public List<SimilarEmbedding> findSimilar(float[] queryVector, EmbeddingContentType contentType,
+                                              double threshold, int limit) {
+        return findSimilar(queryVector, contentType, threshold, limit, searchProperties.getEfSearch());
+    }
+
+    /**
+     * Finds the embeddings most similar to a query vector with a given HNSW candidate
+     * list size, trading latency for recall on this query only
+     * @param queryVector the query vector
+     * @param contentType optional content type filter
+     * @param threshold minimum cosine similarity
+     * @param limit maximum results
+     * @param efSearch HNSW candidate list size; raised to the rows the index scan must return
+     * @return similar embeddings ordered by similarity
+     */
+    @Transactional(readOnly = true)
+    public List<SimilarEmbedding> findSimilar(float[] queryVector, EmbeddingContentType contentType,
+                                              double threshold, int limit, int efSearch) {
+        EmbeddingVectorIndexService index = vectorIndex.getIfAvailable();
+        if (index != null) {
+            Optional<List<SimilarEmbedding>> hits = index.search(queryVector, contentType, threshold, limit);
+            if (hits.isPresent()) {
+                return hits.get();
+            }
+        }
+        VectorQuantization quantization = properties.modeFor(contentType);
+        int candidates = quantization == VectorQuantization.NONE ? limit : properties.candidatesFor(limit);
+        embeddingRepository.setHnswEfSearch(Math.max(efSearch, candidates));
+        return searchTimers.get(quantization).record(() -> embeddingRepository.findSimilarReranked(queryVector,
+                contentType, quantization, threshold, limit, candidates));
+    }
+}
@@ -0,0 +1,501 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.VectorIndexProperties;
+import com.qoderv3.qoder_v3.dto.SimilarEmbedding;
+import com.qoderv3.qoder_v3.entity.Embedding;
+import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+import com.qoderv3.qoder_v3.persistence.VectorType;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepositoryCustom.ChunkInsert;
+import com.qoderv3.qoder_v3.vector.HnswIndex;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Optional in-JVM HNSW index over the embeddings table, partitioned by
+ * {@link EmbeddingContentType}. The index is loaded from the database once the
+ * application is ready and then kept current by {@link EmbeddingIndexListener}
+ * and the repository interceptor registered in
+ * {@link com.qoderv3.qoder_v3.config.EmbeddingIndexRepositoryPostProcessor}.
+ * Until loading completes {@link #search} returns an empty Optional so callers
+ * fall back to {@code find_similar_embeddings}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "qoder.vector.index", name = "enabled", havingValue = "true")
+public class EmbeddingVectorIndexService {
+
+    private static final String LOAD_SQL = "SELECT id, content_id, content_type, embedding_vector, created_at " +
+            "FROM embeddings WHERE embedding_vector IS NOT NULL";
+
+    private final VectorIndexProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<EmbeddingContentType, HnswIndex> partitions = new EnumMap<>(EmbeddingContentType.class);
+    private final Map<UUID, EmbeddingContentType> partitionById = new ConcurrentHashMap<>();
+    private final Set<EmbeddingContentType> compacting = ConcurrentHashMap.newKeySet();
+    private final ExecutorService maintenanceExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "embedding-index-maintenance");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService recallExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(16), runnable -> {
+                Thread thread = new Thread(runnable, "embedding-index-recall");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+    private final AtomicBoolean ready = new AtomicBoolean(false);
+    private final AtomicBoolean loading = new AtomicBoolean(false);
+    private final Set<UUID> deletedWhileLoading = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> writtenWhileLoading = ConcurrentHashMap.newKeySet();
+    private final Object loadLock = new Object();
+    private final Queue<PendingRemoval> removalsWhileLoading = new ConcurrentLinkedQueue<>();
+    private volatile int efSearch;
+
+    private final Map<EmbeddingContentType, Timer> searchTimers = new EnumMap<>(EmbeddingContentType.class);
+    private final Map<EmbeddingContentType, DistributionSummary> recallSummaries = new EnumMap<>(EmbeddingContentType.class);
+    private final Timer allPartitionsSearchTimer;
+
+    public EmbeddingVectorIndexService(VectorIndexProperties properties,
+                                       DataSource dataSource,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.efSearch = properties.getEfSearch();
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getLoadFetchSize());
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        long seed = 42L;
+        for (EmbeddingContentType type : EmbeddingContentType.values()) {
+            HnswIndex index = new HnswIndex(properties.getDimensions(), properties.getM(),
+                    properties.getEfConstruction(), seed++);
+            partitions.put(type, index);
+            String tag = type.name();
+            Gauge.builder("qoder.embeddings.index.size", index, HnswIndex::size)
+                    .description("Live vectors in the in-process HNSW index")
+                    .tag("content_type", tag)
+                    .register(meterRegistry);
+            Gauge.builder("qoder.embeddings.index.deleted", index, HnswIndex::deletedCount)
+                    .description("Tombstoned vectors awaiting compaction")
+                    .tag("content_type", tag)
+                    .register(meterRegistry);
+            searchTimers.put(type, searchTimer(meterRegistry, tag));
+            recallSummaries.put(type, DistributionSummary.builder("qoder.embeddings.index.recall")
+                    .description("Sampled recall@k of HNSW searches against exact search")
+                    .tag("content_type", tag)
+                    .publishPercentiles(0.5, 0.05)
+                    .register(meterRegistry));
+        }
+        this.allPartitionsSearchTimer = searchTimer(meterRegistry, "ALL");
+        Gauge.builder("qoder.embeddings.index.ef_search", this, service -> service.efSearch)
+                .description("Current HNSW efSearch setting")
+                .register(meterRegistry);
+        Gauge.builder("qoder.embeddings.index.ready", ready, flag -> flag.get() ? 1 : 0)
+                .description("Whether the in-process index has finished loading")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the index from the embeddings table in the background once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        maintenanceExecutor.submit(this::load);
+    }
+
+    /**
+     * Finds the most similar embeddings using the in-process index
+     * @param queryVector the query vector
+     * @param contentType optional content type filter (null searches every partition)
+     * @param threshold minimum cosine similarity
+     * @param limit maximum results
+     * @return similar embeddings ordered by similarity, or empty if the index is not ready
+     */
+    public Optional<List<SimilarEmbedding>> search(float[] queryVector, EmbeddingContentType contentType,
+                                                   double threshold, int limit) {
+        if (!ready.get()) {
+            return Optional.empty();
+        }
+        if (contentType != null) {
+            return Optional.of(searchTimers.get(contentType)
+                    .record(() -> searchPartition(contentType, queryVector, threshold, limit)));
+        }
+        return Optional.of(allPartitionsSearchTimer.record(() -> {
+            List<SimilarEmbedding> merged = new ArrayList<>();
+            for (EmbeddingContentType type : EmbeddingContentType.values()) {
+                merged.addAll(searchPartition(type, queryVector, threshold, limit));
+            }
+            merged.sort(Comparator.comparingDouble(SimilarEmbedding::similarity).reversed());
+            return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+        }));
+    }
+
+    /**
+     * Adjusts the search candidate list size at runtime
+     * @param efSearch new efSearch value
+     */
+    public void setEfSearch(int efSearch) {
+        if (efSearch < 1) {
+            throw new IllegalArgumentException("efSearch must be positive");
+        }
+        this.efSearch = efSearch;
+    }
+
+    public int getEfSearch() {
+        return efSearch;
+    }
+
+    public boolean isReady() {
+        return ready.get();
+    }
+
+    /**
+     * Indexes or re-indexes an embedding after the surrounding transaction commits
+     * @param embedding the persisted embedding
+     */
+    public void onSaved(Embedding embedding) {
+        UUID id = embedding.getId();
+        float[] vector = embedding.getEmbeddingVector();
+        if (vector == null) {
+            afterCommit(() -> removeById(id));
+            return;
+        }
+        EmbeddingContentType type = embedding.getContentType();
+        UUID contentId = embedding.getContentId();
+        long createdAt = embedding.getCreatedAt() != null
+                ? embedding.getCreatedAt().toInstant().toEpochMilli() : System.currentTimeMillis();
+        float[] copy = vector.clone();
+        afterCommit(() -> upsertCommitted(id, contentId, type, createdAt, copy));
+    }
+
+    /**
+     * Removes an embedding after the surrounding transaction commits
+     * @param id the embedding id
+     */
+    public void onDeleted(UUID id) {
+        afterCommit(() -> removeById(id));
+    }
+
+    /**
+     * Replaces the vector of an already indexed embedding after commit
+     * @param id the embedding id
+     * @param vector the new vector (null removes it from the index)
+     */
+    public void onVectorUpdated(UUID id, float[] vector) {
+        if (vector == null) {
+            onDeleted(id);
+            return;
+        }
+        float[] copy = vector.clone();
+        afterCommit(() -> {
+            EmbeddingContentType type = partitionById.get(id);
+            HnswIndex.Entry entry = type != null ? partitions.get(type).get(id) : null;
+            if (entry == null) {
+                reloadRow(id);
+                return;
+            }
+            upsertCommitted(id, entry.contentId(), type, entry.createdAtMillis(), copy);
+        });
+    }
+
+    /**
+     * Removes every embedding of a content item after commit
+     * @param contentId the content id
+     * @param contentType optional content type (null removes from every partition)
+     */
+    public void onContentDeleted(UUID contentId, EmbeddingContentType contentType) {
+        afterCommit(() -> {
+            for (EmbeddingContentType type : contentType != null
+                    ? List.of(contentType) : List.of(EmbeddingContentType.values())) {
+                removeMatching(type, entry -> entry.contentId().equals(contentId));
+            }
+        });
+    }
+
+    /**
+     * Adds newly inserted chunks of a content item after commit; the previous chunks
+     * are removed by the delete that precedes them in the same transaction
+     * @param contentId the content id
+     * @param contentType the content type
+     * @param chunks the inserted chunks
+     */
+    public void onChunksInserted(UUID contentId, EmbeddingContentType contentType, List<ChunkInsert> chunks) {
+        long createdAt = System.currentTimeMillis();
+        List<ChunkInsert> copy = List.copyOf(chunks);
+        afterCommit(() -> {
+            for (ChunkInsert chunk : copy) {
+                upsertCommitted(chunk.id(), contentId, contentType, createdAt, chunk.vector().clone());
+            }
+        });
+    }
+
+    /**
+     * Removes every embedding created before the given time after commit
+     * @param olderThan the date threshold
+     */
+    public void onDeletedOlderThan(OffsetDateTime olderThan) {
+        long threshold = olderThan.toInstant().toEpochMilli();
+        afterCommit(() -> {
+            for (EmbeddingContentType type : EmbeddingContentType.values()) {
+                removeMatching(type, entry -> entry.createdAtMillis() < threshold);
+            }
+        });
+    }
+
+    /**
+     * Removes every embedding of one content type created before the given time after commit
+     * @param contentType the content type
+     * @param olderThan the date threshold
+     */
+    public void onDeletedOlderThan(EmbeddingContentType contentType, OffsetDateTime olderThan) {
+        long threshold = olderThan.toInstant().toEpochMilli();
+        afterCommit(() -> removeMatching(contentType, entry -> entry.createdAtMillis() < threshold));
+    }
+
+    /**
+     * Drops and reloads the whole index, e.g. after a bulk delete that cannot be replayed
+     */
+    public void reloadAfterCommit() {
+        afterCommit(() -> maintenanceExecutor.submit(this::load));
+    }
+
+    private List<SimilarEmbedding> searchPartition(EmbeddingContentType type, float[] queryVector,
+                                                   double threshold, int limit) {
+        HnswIndex index = partitions.get(type);
+        List<HnswIndex.Result> results = index.search(queryVector, limit, efSearch);
+        sampleRecall(type, index, queryVector, limit, results);
+        List<SimilarEmbedding> similar = new ArrayList<>(results.size());
+        for (HnswIndex.Result result : results) {
+            if (result.similarity() >= threshold) {
+                similar.add(new SimilarEmbedding(result.entry().id(), result.entry().contentId(), type,
+                        result.similarity()));
+            }
+        }
+        return similar;
+    }
+
+    /**
+     * Measures recall of a sampled search against an exact scan on the recall
+     * executor, off the request thread. Samples are dropped while the executor is busy.
+     */
+    private void sampleRecall(EmbeddingContentType type, HnswIndex index, float[] queryVector, int limit,
+                              List<HnswIndex.Result> approximate) {
+        double rate = properties.getRecallSampleRate();
+        if (rate <= 0 || ThreadLocalRandom.current().nextDouble() >= rate) {
+            return;
+        }
+        float[] query = queryVector.clone();
+        Set<UUID> returned = new HashSet<>();
+        for (HnswIndex.Result result : approximate) {
+            returned.add(result.entry().id());
+        }
+        recallExecutor.execute(() -> {
+            List<HnswIndex.Result> exact = index.exactSearch(query, limit);
+            if (exact.isEmpty()) {
+                return;
+            }
+            long hits = exact.stream().filter(result -> returned.contains(result.entry().id())).count();
+            recallSummaries.get(type).record((double) hits / exact.size());
+        });
+    }
+
+    /**
+     * Rebuilds every partition from the table. Deletes committed while the rows are
+     * read are recorded and applied again once loading finishes, because the load
+     * query may have read those rows before the delete and re-added them. Rows
+     * written while loading are recorded too and skipped by the load query, whose
+     * snapshot of them is older. The partitions are built fresh, so no compaction
+     * follows the load.
+     */
+    private void load() {
+        ready.set(false);
+        deletedWhileLoading.clear();
+        writtenWhileLoading.clear();
+        removalsWhileLoading.clear();
+        loading.set(true);
+        long started = System.nanoTime();
+        partitions.values().forEach(HnswIndex::clear);
+        partitionById.clear();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(LOAD_SQL, rs -> {
+                VectorType.registerIfNecessary(rs.getStatement().getConnection());
+                UUID id = rs.getObject("id", UUID.class);
+                EmbeddingContentType type = EmbeddingContentType.valueOf(rs.getString("content_type"));
+                float[] vector = VectorType.toFloatArray(rs.getObject("embedding_vector"));
+                OffsetDateTime createdAt = rs.getObject("created_at", OffsetDateTime.class);
+                synchronized (loadLock) {
+                    if (!writtenWhileLoading.contains(id)) {
+                        upsert(id, rs.getObject("content_id", UUID.class), type,
+                                createdAt != null ? createdAt.toInstant().toEpochMilli() : 0L, vector);
+                    }
+                }
+            }));
+            loading.set(false);
+            writtenWhileLoading.clear();
+            deletedWhileLoading.forEach(this::removeById);
+            deletedWhileLoading.clear();
+            for (PendingRemoval removal; (removal = removalsWhileLoading.poll()) != null; ) {
+                removeMatching(removal.contentType(), removal.predicate());
+            }
+            ready.set(true);
+            partitions.keySet().forEach(this::scheduleCompactionIfNeeded);
+            log.info("Loaded {} embeddings into the in-process HNSW index in {} ms", partitionById.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (RuntimeException e) {
+            log.error("Failed to load the in-process HNSW index; similarity queries will use the database", e);
+        } finally {
+            loading.set(false);
+        }
+    }
+
+    private void reloadRow(UUID id) {
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(LOAD_SQL + " AND id = ?", rs -> {
+            VectorType.registerIfNecessary(rs.getStatement().getConnection());
+            OffsetDateTime createdAt = rs.getObject("created_at", OffsetDateTime.class);
+            upsertCommitted(id, rs.getObject("content_id", UUID.class),
+                    EmbeddingContentType.valueOf(rs.getString("content_type")),
+                    createdAt != null ? createdAt.toInstant().toEpochMilli() : 0L,
+                    VectorType.toFloatArray(rs.getObject("embedding_vector")));
+        }, id));
+    }
+
+    /**
+     * Indexes a committed write; a write after a delete seen during loading supersedes that delete,
+     * and a write during loading supersedes the row the load query reads later
+     */
+    private void upsertCommitted(UUID id, UUID contentId, EmbeddingContentType type, long createdAtMillis,
+                                 float[] vector) {
+        synchronized (loadLock) {
+            if (loading.get()) {
+                writtenWhileLoading.add(id);
+            }
+            deletedWhileLoading.remove(id);
+            upsert(id, contentId, type, createdAtMillis, vector);
+        }
+    }
+
+    private void upsert(UUID id, UUID contentId, EmbeddingContentType type, long createdAtMillis, float[] vector) {
+        if (vector.length != properties.getDimensions()) {
+            log.warn("Skipping embedding {} with {} dimensions", id, vector.length);
+            return;
+        }
+        EmbeddingContentType previous = partitionById.put(id, type);
+        if (previous != null && previous != type) {
+            partitions.get(previous).remove(id);
+            scheduleCompactionIfNeeded(previous);
+        }
+        partitions.get(type).add(id, contentId, createdAtMillis, vector);
+        scheduleCompactionIfNeeded(type);
+    }
+
+    private void removeById(UUID id) {
+        if (loading.get()) {
+            deletedWhileLoading.add(id);
+        }
+        EmbeddingContentType type = partitionById.remove(id);
+        if (type != null && partitions.get(type).remove(id)) {
+            scheduleCompactionIfNeeded(type);
+        }
+    }
+
+    private void removeMatching(EmbeddingContentType type, Predicate<HnswIndex.Entry> predicate) {
+        if (loading.get()) {
+            removalsWhileLoading.add(new PendingRemoval(type, predicate));
+        }
+        HnswIndex index = partitions.get(type);
+        int removed = index.removeIf(entry -> {
+            if (predicate.test(entry)) {
+                partitionById.remove(entry.id());
+                return true;
+            }
+            return false;
+        });
+        if (removed > 0) {
+            scheduleCompactionIfNeeded(type);
+        }
+    }
+
+    private void scheduleCompactionIfNeeded(EmbeddingContentType type) {
+        if (!ready.get()) {
+            return;
+        }
+        HnswIndex index = partitions.get(type);
+        int deleted = index.deletedCount();
+        if (deleted == 0 || deleted < (index.size() + deleted) * properties.getCompactionThreshold()) {
+            return;
+        }
+        if (compacting.add(type)) {
+            maintenanceExecutor.submit(() -> {
+                try {
+                    index.compact();
+                } finally {
+                    compacting.remove(type);
+                }
+            });
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Predicate delete committed while the index was loading
+     */
+    private record PendingRemoval(EmbeddingContentType contentType, Predicate<HnswIndex.Entry> predicate) {
+    }
+
+    private static Timer searchTimer(MeterRegistry meterRegistry, String contentType) {
+        return Timer.builder("qoder.embeddings.index.search")
+                .description("Latency of in-process HNSW similarity searches")
+                .tag("content_type", contentType)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,231 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.HybridSearchProperties;
+import com.qoderv3.qoder_v3.config.VectorSearchProperties;
+import com.qoderv3.qoder_v3.config.WorkerExecutors;
+import com.qoderv3.qoder_v3.dto.ProjectSearchResult;
+import com.qoderv3.qoder_v3.dto.SimilarEmbedding;
+import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+import com.qoderv3.qoder_v3.entity.Project;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepository;
+import com.qoderv3.qoder_v3.repository.ProjectRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hybrid project search. The full-text and vector candidate queries run in
+ * parallel, their rankings are fused with weighted reciprocal-rank fusion
+ * (score = sum of weight / (k + rank)) and the winning projects are loaded with
+ * their owners in batched fetches. Both candidate queries share one deadline; if
+ * one source fails or times out it is cancelled and results are fused from the
+ * other one.
+ */
+@Slf4j
+@Service
+public class HybridProjectSearchService {
+
+    private static final List<EmbeddingContentType> PROJECT_CONTENT_TYPES =
+            List.of(EmbeddingContentType.PROJECT_DESCRIPTION, EmbeddingContentType.PROJECT_DOCUMENTATION);
+
+    private final ProjectRepository projectRepository;
+    private final EmbeddingRepository embeddingRepository;
+    private final EmbeddingModel embeddingModel;
+    private final ObjectProvider<EmbeddingVectorIndexService> vectorIndex;
+    private final HybridSearchProperties properties;
+    private final VectorSearchProperties vectorSearchProperties;
+    private final ExecutorService executor;
+
+    private final Timer searchTimer;
+    private final Counter lexicalFailures;
+    private final Counter semanticFailures;
+
+    public HybridProjectSearchService(ProjectRepository projectRepository,
+                                      EmbeddingRepository embeddingRepository,
+                                      EmbeddingModel embeddingModel,
+                                      ObjectProvider<EmbeddingVectorIndexService> vectorIndex,
+                                      HybridSearchProperties properties,
+                                      VectorSearchProperties vectorSearchProperties,
+                                      WorkerExecutors workerExecutors,
+                                      MeterRegistry meterRegistry) {
+        this.projectRepository = projectRepository;
+        this.embeddingRepository = embeddingRepository;
+        this.embeddingModel = embeddingModel;
+        this.vectorIndex = vectorIndex;
+        this.properties = properties;
+        this.vectorSearchProperties = vectorSearchProperties;
+        this.executor = workerExecutors.newExecutor("hybrid-search", Math.max(2, properties.getThreads()));
+        this.searchTimer = Timer.builder("qoder.search.hybrid")
+                .description("Latency of hybrid project searches")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.lexicalFailures = Counter.builder("qoder.search.hybrid.candidate.failures")
+                .description("Candidate queries that failed or timed out")
+                .tag("source", "lexical")
+                .register(meterRegistry);
+        this.semanticFailures = Counter.builder("qoder.search.hybrid.candidate.failures")
+                .description("Candidate queries that failed or timed out")
+                .tag("source", "semantic")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Searches public active projects by text relevance and semantic similarity
+     * @param query the search text
+     * @param limit maximum results
+     * @return projects ordered by fused score descending
+     */
+    public List<ProjectSearchResult> search(String query, int limit) {
+        if (query == null || query.isBlank() || limit < 1) {
+            return List.of();
+        }
+        return searchTimer.record(() -> {
+            // Both sources share one deadline, so a slow lexical query does not extend the semantic wait
+            long deadline = System.nanoTime() + properties.getCandidateTimeout().toNanos();
+            Future<List<UUID>> lexical = executor.submit(
+                    () -> projectRepository.findProjectIdsByFullText(query, properties.getLexicalCandidates()));
+            Future<List<UUID>> semantic = executor.submit(() -> semanticCandidates(query));
+
+            List<UUID> lexicalIds = await(lexical, deadline, "lexical", lexicalFailures);
+            List<UUID> semanticIds = await(semantic, deadline, "semantic", semanticFailures);
+            return hydrate(fuse(lexicalIds, semanticIds), limit);
+        });
+    }
+
+    /**
+     * Fuses two rankings with weighted reciprocal-rank fusion
+     * @param lexicalIds full-text candidates, best first
+     * @param semanticIds vector candidates, best first
+     * @return fused candidates ordered by score descending
+     */
+    List<Candidate> fuse(List<UUID> lexicalIds, List<UUID> semanticIds) {
+        Map<UUID, Candidate> candidates = new HashMap<>();
+        for (int i = 0; i < lexicalIds.size(); i++) {
+            candidates.computeIfAbsent(lexicalIds.get(i), Candidate::new).lexicalRank = i + 1;
+        }
+        for (int i = 0; i < semanticIds.size(); i++) {
+            candidates.computeIfAbsent(semanticIds.get(i), Candidate::new).semanticRank = i + 1;
+        }
+        int k = properties.getRrfK();
+        for (Candidate candidate : candidates.values()) {
+            if (candidate.lexicalRank != null) {
+                candidate.score += properties.getLexicalWeight() / (k + candidate.lexicalRank);
+            }
+            if (candidate.semanticRank != null) {
+                candidate.score += properties.getSemanticWeight() / (k + candidate.semanticRank);
+            }
+        }
+        List<Candidate> fused = new ArrayList<>(candidates.values());
+        fused.sort(Comparator.comparingDouble((Candidate c) -> c.score).reversed().thenComparing(c -> c.id));
+        return fused;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private List<UUID> semanticCandidates(String query) {
+        float[] queryVector = embeddingModel.embed(query);
+        int pool = properties.getSemanticCandidates();
+        EmbeddingVectorIndexService index = vectorIndex.getIfAvailable();
+        if (index != null) {
+            List<SimilarEmbedding> hits = new ArrayList<>();
+            for (EmbeddingContentType type : PROJECT_CONTENT_TYPES) {
+                Optional<List<SimilarEmbedding>> partition = index.search(queryVector, type, -1.0, pool);
+                if (partition.isEmpty()) {
+                    hits = null;
+                    break;
+                }
+                hits.addAll(partition.get());
+            }
+            if (hits != null) {
+                hits.sort(Comparator.comparingDouble(SimilarEmbedding::similarity).reversed());
+                return distinct(hits.stream().map(SimilarEmbedding::contentId).toList());
+            }
+        }
+        return distinct(embeddingRepository.findNearestProjectContentIds(queryVector, pool,
+                vectorSearchProperties.getEfSearch()));
+    }
+
+    private List<UUID> await(Future<List<UUID>> future, long deadline, String source, Counter failures) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            failures.increment();
+            return List.of();
+        } catch (Exception e) {
+            log.warn("Hybrid search {} candidates unavailable, fusing without them: {}", source, e.toString());
+            future.cancel(true);
+            failures.increment();
+            return List.of();
+        }
+    }
+
+    private List<ProjectSearchResult> hydrate(List<Candidate> fused, int limit) {
+        if (fused.isEmpty()) {
+            return List.of();
+        }
+        // Vector candidates are not pre-filtered, so fetch windows with some slack for private or
+        // inactive projects and keep going down the fused list until the limit is filled
+        List<ProjectSearchResult> results = new ArrayList<>(limit);
+        int from = 0;
+        while (from < fused.size() && results.size() < limit) {
+            List<Candidate> window = fused.subList(from, Math.min(fused.size(), from + (limit - results.size()) * 2));
+            from += window.size();
+            Map<UUID, Project> projects = new HashMap<>();
+            for (Project project : projectRepository.findWithOwnerByIdIn(window.stream().map(c -> c.id).toList())) {
+                projects.put(project.getId(), project);
+            }
+            for (Candidate candidate : window) {
+                Project project = projects.get(candidate.id);
+                if (project == null || !project.isActive() || !project.isPublic()) {
+                    continue;
+                }
+                results.add(new ProjectSearchResult(project, candidate.score, candidate.lexicalRank,
+                        candidate.semanticRank));
+                if (results.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    private static List<UUID> distinct(List<UUID> ids) {
+        return new ArrayList<>(new LinkedHashSet<>(ids));
+    }
+
+    /**
+     * A project ID with its ranks in each candidate list and its fused score
+     */
+    static final class Candidate {
+        final UUID id;
+        Integer lexicalRank;
+        Integer semanticRank;
+        double score;
+
+        Candidate(UUID id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.ProjectCounterProperties;
+import com.qoderv3.qoder_v3.config.ProjectTrendingProperties;
+import com.qoderv3.qoder_v3.entity.Project;
+import com.qoderv3.qoder_v3.repository.ProjectRepository;
+import com.qoderv3.qoder_v3.repository.ProjectRepositoryCustom.CounterDelta;
+import com.qoderv3.qoder_v3.repository.ProjectRepositoryCustom.TrendingWeights;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind star and fork counters for projects. Clicks are recorded as
+ * in-memory per-project deltas and flushed periodically with one JDBC batch,
+ * instead of one row-locking UPDATE and transaction per click. Reads merge the
+ * persisted counts with the pending deltas. Each flush also adds the new stars,
+ * forks and activity to the projects' time-decayed trending scores. Pending
+ * deltas are flushed on graceful shutdown.
+ */
+@Slf4j
+@Service
+public class ProjectCounterService {
+
+    private final ProjectRepository projectRepository;
+    private final ProjectCounterProperties properties;
+    private final ProjectTrendingProperties trendingProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<UUID, PendingCounters> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+
+    private final Timer flushTimer;
+    private final Counter flushedRows;
+    private final Counter failedFlushes;
+
+    public ProjectCounterService(ProjectRepository projectRepository,
+                                 ProjectCounterProperties properties,
+                                 ProjectTrendingProperties trendingProperties,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.projectRepository = projectRepository;
+        this.properties = properties;
+        this.trendingProperties = trendingProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushTimer = Timer.builder("qoder.projects.counters.flush")
+                .description("Latency of write-behind counter flushes")
+                .register(meterRegistry);
+        this.flushedRows = Counter.builder("qoder.projects.counters.flushed")
+                .description("Project rows updated by counter flushes")
+                .register(meterRegistry);
+        this.failedFlushes = Counter.builder("qoder.projects.counters.flush.failures")
+                .description("Counter flushes that failed and were re-queued")
+                .register(meterRegistry);
+        Gauge.builder("qoder.projects.counters.pending", pending, Map::size)
+                .description("Projects with unflushed counter deltas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a star for the project
+     * @param projectId the project ID
+     */
+    public void incrementStars(UUID projectId) {
+        record(projectId, counters -> counters.star(1));
+    }
+
+    /**
+     * Records an unstar for the project (the persisted count never drops below 0)
+     * @param projectId the project ID
+     */
+    public void decrementStars(UUID projectId) {
+        record(projectId, counters -> counters.star(-1));
+    }
+
+    /**
+     * Records a fork of the project
+     * @param projectId the project ID
+     */
+    public void incrementForks(UUID projectId) {
+        record(projectId, counters -> counters.forks.incrementAndGet());
+    }
+
+    /**
+     * Gets the stars count including unflushed deltas
+     * @param project the project as loaded from the database
+     * @return current stars count
+     */
+    public int getStarsCount(Project project) {
+        int persisted = project.getStarsCount() == null ? 0 : project.getStarsCount();
+        PendingCounters counters = pending.get(project.getId());
+        return counters == null ? persisted : counters.peek(project.getId()).applyStars(persisted);
+    }
+
+    /**
+     * Gets the forks count including unflushed deltas
+     * @param project the project as loaded from the database
+     * @return current forks count
+     */
+    public int getForksCount(Project project) {
+        int persisted = project.getForksCount() == null ? 0 : project.getForksCount();
+        PendingCounters counters = pending.get(project.getId());
+        return counters == null ? persisted : Math.max(0, persisted + (int) counters.forks.get());
+    }
+
+    /**
+     * Gets the last activity timestamp including unflushed activity
+     * @param project the project as loaded from the database
+     * @return latest known activity timestamp
+     */
+    public OffsetDateTime getLastActivityAt(Project project) {
+        PendingCounters counters = pending.get(project.getId());
+        OffsetDateTime pendingActivity = counters == null ? null : counters.lastActivityAt.get();
+        return latest(project.getLastActivityAt(), pendingActivity);
+    }
+
+    /**
+     * Flushes pending deltas to the projects table
+     * @return number of project rows updated
+     */
+    @Scheduled(fixedDelayString = "${qoder.projects.counters.flush-interval:PT5S}")
+    public int flush() {
+        synchronized (flushLock) {
+            List<CounterDelta> deltas = new ArrayList<>();
+            for (Map.Entry<UUID, PendingCounters> entry : pending.entrySet()) {
+                CounterDelta delta = entry.getValue().drain(entry.getKey());
+                if (delta != null) {
+                    deltas.add(delta);
+                }
+                pending.computeIfPresent(entry.getKey(), (id, counters) -> counters.isEmpty() ? null : counters);
+            }
+            if (deltas.isEmpty()) {
+                return 0;
+            }
+            TrendingWeights weights = new TrendingWeights(trendingProperties.getStarWeight(),
+                    trendingProperties.getForkWeight(), trendingProperties.getActivityWeight());
+            int updated = 0;
+            int batchSize = Math.max(1, properties.getMaxBatchSize());
+            for (int from = 0; from < deltas.size(); from += batchSize) {
+                List<CounterDelta> batch = deltas.subList(from, Math.min(from + batchSize, deltas.size()));
+                try {
+                    Integer rows = flushTimer.record(() ->
+                            transactionTemplate.execute(status -> projectRepository.applyCounterDeltas(batch, weights)));
+                    updated += rows != null ? rows : 0;
+                } catch (RuntimeException e) {
+                    log.warn("Failed to flush {} project counter deltas, re-queueing: {}", batch.size(), e.getMessage());
+                    failedFlushes.increment();
+                    batch.forEach(this::restore);
+                }
+            }
+            flushedRows.increment(updated);
+            return updated;
+        }
+    }
+
+    /**
+     * Flushes pending deltas before the application context closes
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        int updated = flush();
+        if (!pending.isEmpty()) {
+            log.error("{} projects still have unflushed counter deltas at shutdown", pending.size());
+        } else if (updated > 0) {
+            log.info("Flushed counter deltas for {} projects on shutdown", updated);
+        }
+    }
+
+    private void record(UUID projectId, Consumer<PendingCounters> update) {
+        OffsetDateTime now = OffsetDateTime.now();
+        pending.compute(projectId, (id, counters) -> {
+            PendingCounters target = counters != null ? counters : new PendingCounters();
+            update.accept(target);
+            target.touch(now);
+            return target;
+        });
+    }
+
+    private void restore(CounterDelta delta) {
+        pending.compute(delta.projectId(), (id, counters) -> {
+            PendingCounters target = counters != null ? counters : new PendingCounters();
+            target.prepend(delta);
+            return target;
+        });
+    }
+
+    private static OffsetDateTime latest(OffsetDateTime a, OffsetDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
+    /**
+     * Unflushed deltas of one project. Stars are stored as a packed (net, minimum
+     * running total) pair so that clamp-at-zero semantics survive batching.
+     */
+    private static final class PendingCounters {
+        private final AtomicLong stars = new AtomicLong();
+        private final AtomicLong forks = new AtomicLong();
+        private final AtomicReference<OffsetDateTime> lastActivityAt = new AtomicReference<>();
+
+        private void star(int step) {
+            stars.updateAndGet(packed -> {
+                int net = net(packed) + step;
+                return pack(net, Math.min(minPrefix(packed), net));
+            });
+        }
+
+        private void touch(OffsetDateTime now) {
+            lastActivityAt.accumulateAndGet(now, ProjectCounterService::latest);
+        }
+
+        private CounterDelta peek(UUID projectId) {
+            long packed = stars.get();
+            return new CounterDelta(projectId, net(packed), minPrefix(packed), (int) forks.get(), lastActivityAt.get());
+        }
+
+        private CounterDelta drain(UUID projectId) {
+            long packed = stars.getAndSet(0L);
+            int forksDelta = (int) forks.getAndSet(0L);
+            OffsetDateTime activity = lastActivityAt.getAndSet(null);
+            if (packed == 0L && forksDelta == 0 && activity == null) {
+                return null;
+            }
+            return new CounterDelta(projectId, net(packed), minPrefix(packed), forksDelta, activity);
+        }
+
+        /**
+         * Re-applies a delta that happened before the currently pending changes
+         */
+        private void prepend(CounterDelta earlier) {
+            stars.updateAndGet(packed -> pack(earlier.starsNet() + net(packed),
+                    Math.min(earlier.starsMinPrefix(), earlier.starsNet() + minPrefix(packed))));
+            forks.addAndGet(earlier.forksDelta());
+            if (earlier.lastActivityAt() != null) {
+                touch(earlier.lastActivityAt());
+            }
+        }
+
+        private boolean isEmpty() {
+            return stars.get() == 0L && forks.get() == 0L && lastActivityAt.get() == null;
+        }
+
+        private static long pack(int net, int minPrefix) {
+            return ((long) net << 32) | (minPrefix & 0xFFFFFFFFL);
+        }
+
+        private static int net(long packed) {
+            return (int) (packed >> 32);
+        }
+
+        private static int minPrefix(long packed) {
+            return (int) packed;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.dto.CursorPage;
+import com.qoderv3.qoder_v3.dto.PageCursor;
+import com.qoderv3.qoder_v3.entity.ProjectStatus;
+import com.qoderv3.qoder_v3.entity.ProjectVisibility;
+import com.qoderv3.qoder_v3.repository.ProjectRepository;
+import com.qoderv3.qoder_v3.repository.projection.ProjectSummary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Cursor-paginated public project listings. Each page seeks past the last row of
+ * the previous page on the listing's sort keys plus the project ID, so every page
+ * is an index range scan of {@code size + 1} rows and no COUNT query is issued.
+ * Rows are {@link ProjectSummary} projections carrying only the list-view columns.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProjectListingService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    static final String MOST_STARRED = "most-starred";
+    static final String RECENTLY_ACTIVE = "recently-active";
+    static final String TRENDING = "trending";
+    static final String BY_VISIBILITY_AND_STATUS = "by-visibility-and-status";
+
+    // Seek position before the first row of every listing
+    private static final OffsetDateTime MAX_TIMESTAMP = OffsetDateTime.parse("9999-12-31T23:59:59Z");
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+
+    private final ProjectRepository projectRepository;
+
+    public ProjectListingService(ProjectRepository projectRepository) {
+        this.projectRepository = projectRepository;
+    }
+
+    /**
+     * Gets a page of the most starred public projects
+     * @param cursor token from the previous page, or null for the first page
+     * @param size page size (1 to {@value #MAX_PAGE_SIZE})
+     * @return the page and the cursor for the next one
+     */
+    public CursorPage<ProjectSummary> getMostStarredProjects(String cursor, int size) {
+        int limit = pageSize(size);
+        List<ProjectSummary> rows;
+        if (cursor == null) {
+            rows = projectRepository.findMostStarredProjectsAfter(Integer.MAX_VALUE, MAX_TIMESTAMP, MAX_ID, limit + 1);
+        } else {
+            PageCursor position = PageCursor.decode(cursor, MOST_STARRED, 3);
+            rows = projectRepository.findMostStarredProjectsAfter(intKey(position, 0), timestampKey(position, 1),
+                    idKey(position, 2), limit + 1);
+        }
+        return toPage(rows, limit, last -> new PageCursor(MOST_STARRED,
+                List.of(String.valueOf(last.getStarsCount()), last.getCreatedAt().toString(), last.getId().toString())));
+    }
+
+    /**
+     * Gets a page of recently active public projects
+     * @param since the date to search from
+     * @param cursor token from the previous page, or null for the first page
+     * @param size page size (1 to {@value #MAX_PAGE_SIZE})
+     * @return the page and the cursor for the next one
+     */
+    public CursorPage<ProjectSummary> getRecentlyActiveProjects(OffsetDateTime since, String cursor, int size) {
+        int limit = pageSize(size);
+        List<ProjectSummary> rows;
+        if (cursor == null) {
+            rows = projectRepository.findRecentlyActiveProjectsAfter(since, MAX_TIMESTAMP, MAX_ID, limit + 1);
+        } else {
+            PageCursor position = PageCursor.decode(cursor, RECENTLY_ACTIVE, 2);
+            rows = projectRepository.findRecentlyActiveProjectsAfter(since, timestampKey(position, 0),
+                    idKey(position, 1), limit + 1);
+        }
+        return toPage(rows, limit, last -> new PageCursor(RECENTLY_ACTIVE,
+                List.of(last.getLastActivityAt().toString(), last.getId().toString())));
+    }
+
+    /**
+     * Gets a page of trending public projects, ranked by the time-decayed score of
+     * their stars, forks and activity
+     * @param cursor token from the previous page, or null for the first page
+     * @param size page size (1 to {@value #MAX_PAGE_SIZE})
+     * @return the page and the cursor for the next one
+     */
+    public CursorPage<ProjectSummary> getTrendingProjects(String cursor, int size) {
+        int limit = pageSize(size);
+        List<ProjectSummary> rows;
+        if (cursor == null) {
+            rows = projectRepository.findTrendingProjectsAfter(Double.MAX_VALUE, MAX_ID, limit + 1);
+        } else {
+            PageCursor position = PageCursor.decode(cursor, TRENDING, 2);
+            rows = projectRepository.findTrendingProjectsAfter(doubleKey(position, 0), idKey(position, 1),
+                    limit + 1);
+        }
+        // Double.toString round-trips exactly, so the next page seeks past the same value
+        return toPage(rows, limit, last -> new PageCursor(TRENDING,
+                List.of(String.valueOf(last.getTrendingScore()), last.getId().toString())));
+    }
+
+    /**
+     * Gets a page of projects with the given visibility and status, newest first
+     * @param visibility the project visibility
+     * @param status the project status
+     * @param cursor token from the previous page, or null for the first page
+     * @param size page size (1 to {@value #MAX_PAGE_SIZE})
+     * @return the page and the cursor for the next one
+     */
+    public CursorPage<ProjectSummary> getProjectsByVisibilityAndStatus(ProjectVisibility visibility, ProjectStatus status,
+                                                                String cursor, int size) {
+        int limit = pageSize(size);
+        List<ProjectSummary> rows;
+        if (cursor == null) {
+            rows = projectRepository.findByVisibilityAndStatusAfter(visibility.name(), status.name(), MAX_TIMESTAMP,
+                    MAX_ID, limit + 1);
+        } else {
+            PageCursor position = PageCursor.decode(cursor, BY_VISIBILITY_AND_STATUS, 2);
+            rows = projectRepository.findByVisibilityAndStatusAfter(visibility.name(), status.name(),
+                    timestampKey(position, 0), idKey(position, 1), limit + 1);
+        }
+        return toPage(rows, limit, last -> new PageCursor(BY_VISIBILITY_AND_STATUS,
+                List.of(last.getCreatedAt().toString(), last.getId().toString())));
+    }
+
+    private static int pageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+
+    private static CursorPage<ProjectSummary> toPage(List<ProjectSummary> rows, int limit,
+                                                   Function<ProjectSummary, PageCursor> cursorOf) {
+        // One extra row is fetched to detect whether a next page exists
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<ProjectSummary> content = rows.subList(0, limit);
+        return new CursorPage<>(content, cursorOf.apply(content.get(limit - 1)).encode());
+    }
+
+    private static int intKey(PageCursor cursor, int index) {
+        try {
+            return Integer.parseInt(cursor.key(index));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+
+    private static double doubleKey(PageCursor cursor, int index) {
+        try {
+            double value = Double.parseDouble(cursor.key(index));
+            if (!Double.isFinite(value)) {
+                throw new IllegalArgumentException("Invalid page cursor");
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+
+    private static OffsetDateTime timestampKey(PageCursor cursor, int index) {
+        try {
+            return OffsetDateTime.parse(cursor.key(index));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+
+    private static UUID idKey(PageCursor cursor, int index) {
+        try {
+            return UUID.fromString(cursor.key(index));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.entity.Project;
+import com.qoderv3.qoder_v3.entity.User;
+import com.qoderv3.qoder_v3.repository.SecondLevelCacheEviction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * JPA entity listener that reports the owners of projects created, deleted or
+ * transferred through the entity manager to the project count leaderboard once
+ * the transaction commits. The count itself is maintained by a database trigger
+ * Hibernate does not see, so those owners are also evicted from the second-level
+ * cache. A transfer changes the counts of both the previous and the new owner;
+ * the previous one is remembered on the entity when it is loaded or written.
+ */
+@Component
+public class ProjectOwnerListener {
+
+    private final ObjectProvider<UserLeaderboardService> leaderboard;
+    private final ObjectProvider<EntityManager> entityManager;
+
+    public ProjectOwnerListener(ObjectProvider<UserLeaderboardService> leaderboard,
+                                ObjectProvider<EntityManager> entityManager) {
+        this.leaderboard = leaderboard;
+        this.entityManager = entityManager;
+    }
+
+    @PostLoad
+    public void onLoaded(Project project) {
+        project.setPersistedOwnerId(ownerId(project));
+    }
+
+    @PostPersist
+    @PostRemove
+    public void onCreatedOrDeleted(Project project) {
+        UUID ownerId = ownerId(project);
+        project.setPersistedOwnerId(ownerId);
+        changed(ownerId == null ? Set.of() : Set.of(ownerId));
+    }
+
+    @PostUpdate
+    public void onUpdated(Project project) {
+        UUID previousOwnerId = project.getPersistedOwnerId();
+        UUID ownerId = ownerId(project);
+        project.setPersistedOwnerId(ownerId);
+        if (Objects.equals(previousOwnerId, ownerId)) {
+            return;
+        }
+        Set<UUID> owners = new LinkedHashSet<>();
+        if (previousOwnerId != null) {
+            owners.add(previousOwnerId);
+        }
+        if (ownerId != null) {
+            owners.add(ownerId);
+        }
+        changed(owners);
+    }
+
+    private void changed(Set<UUID> ownerIds) {
+        if (ownerIds.isEmpty()) {
+            return;
+        }
+        entityManager.ifAvailable(em -> SecondLevelCacheEviction.evictAfterCompletion(em, User.class, ownerIds));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    leaderboard.ifAvailable(service -> ownerIds.forEach(service::markChanged));
+                }
+            });
+        } else {
+            leaderboard.ifAvailable(service -> ownerIds.forEach(service::markChanged));
+        }
+    }
+
+    private static UUID ownerId(Project project) {
+        // Reading the ID does not initialize a lazy owner proxy
+        return project.getOwner() != null ? project.getOwner().getId() : null;
+    }
+}
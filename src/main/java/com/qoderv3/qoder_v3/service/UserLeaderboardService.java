@@ -0,0 +1,180 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.UserLeaderboardProperties;
+import com.qoderv3.qoder_v3.repository.UserRepository;
+import com.qoderv3.qoder_v3.repository.projection.UserProjectCount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory leaderboard of users by project count. Reads are served from an
+ * immutable snapshot of the top users. Owners of projects created, deleted or
+ * updated through the entity manager are re-read by primary key and merged into
+ * the snapshot; the whole snapshot is reloaded with an index scan of the
+ * users.projects_count index when a merge can no longer prove it holds the top
+ * users, and periodically to pick up changes made outside the entity manager.
+ */
+@Slf4j
+@Service
+public class UserLeaderboardService {
+
+    private static final Comparator<UserProjectCount> RANKING =
+            Comparator.comparing(UserProjectCount::getProjectsCount, Comparator.reverseOrder())
+                    .thenComparing(UserProjectCount::getId);
+
+    private final UserRepository userRepository;
+    private final UserLeaderboardProperties properties;
+    private final Set<UUID> changedUsers = ConcurrentHashMap.newKeySet();
+    private final Object refreshLock = new Object();
+    private volatile Snapshot snapshot;
+
+    private final Counter fullRefreshes;
+    private final Counter incrementalRefreshes;
+
+    public UserLeaderboardService(UserRepository userRepository,
+                                  UserLeaderboardProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.fullRefreshes = Counter.builder("qoder.users.leaderboard.refreshes")
+                .description("Leaderboard refreshes")
+                .tag("type", "full")
+                .register(meterRegistry);
+        this.incrementalRefreshes = Counter.builder("qoder.users.leaderboard.refreshes")
+                .description("Leaderboard refreshes")
+                .tag("type", "incremental")
+                .register(meterRegistry);
+        Gauge.builder("qoder.users.leaderboard.pending", changedUsers, Set::size)
+                .description("Users with project changes not yet merged into the leaderboard")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Gets the users owning the most projects
+     * @param limit maximum results (capped at the configured leaderboard size)
+     * @return users ordered by project count descending, then by ID
+     */
+    public List<UserProjectCount> getTopUsers(int limit) {
+        if (limit < 1) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+        }
+        List<UserProjectCount> entries = current.entries();
+        return entries.subList(0, Math.min(Math.min(limit, properties.getSize()), entries.size()));
+    }
+
+    /**
+     * Records that a user's project count may have changed; merged on the next refresh
+     * @param userId the user ID
+     */
+    public void markChanged(UUID userId) {
+        if (userId != null) {
+            changedUsers.add(userId);
+        }
+    }
+
+    /**
+     * Merges changed users into the leaderboard, or reloads it when due or needed
+     */
+    @Scheduled(fixedDelayString = "${qoder.users.leaderboard.refresh-interval:PT10S}")
+    public void refresh() {
+        synchronized (refreshLock) {
+            Snapshot current = snapshot;
+            if (current == null
+                    || System.nanoTime() - current.loadedAtNanos() >= properties.getFullRefreshInterval().toNanos()) {
+                reload();
+                return;
+            }
+            if (changedUsers.isEmpty()) {
+                return;
+            }
+            List<UUID> changed = new ArrayList<>(changedUsers);
+            changedUsers.removeAll(changed);
+            Snapshot merged = current.merge(userRepository.findUserProjectCountsByIdIn(changed), capacity());
+            if (merged.entries().size() < properties.getSize() && !merged.complete()) {
+                // Users outside the snapshot may now rank within the top
+                reload();
+                return;
+            }
+            snapshot = merged;
+            incrementalRefreshes.increment();
+        }
+    }
+
+    private void reload() {
+        int capacity = capacity();
+        changedUsers.clear();
+        List<UserProjectCount> rows = userRepository.findTopUserProjectCounts(PageRequest.of(0, capacity));
+        snapshot = Snapshot.of(rows, rows.size() < capacity, System.nanoTime());
+        fullRefreshes.increment();
+        log.debug("Reloaded project count leaderboard with {} users", rows.size());
+    }
+
+    private int capacity() {
+        // Headroom so that users dropping out of the top can be absorbed without a reload
+        return Math.max(1, properties.getSize()) * 2;
+    }
+
+    /**
+     * The ranked top users plus the position of the last one. Every user outside
+     * the snapshot ranks after that position, so the snapshot is an exact prefix
+     * of the full ranking. A complete snapshot holds every user with a project.
+     */
+    record Snapshot(List<UserProjectCount> entries, boolean complete, long loadedAtNanos) {
+
+        static Snapshot of(List<UserProjectCount> rows, boolean complete, long loadedAtNanos) {
+            List<UserProjectCount> entries = new ArrayList<>(rows);
+            entries.sort(RANKING);
+            return new Snapshot(List.copyOf(entries), complete, loadedAtNanos);
+        }
+
+        Snapshot merge(List<UserProjectCount> changed, int capacity) {
+            Map<UUID, UserProjectCount> byId = new HashMap<>();
+            for (UserProjectCount entry : entries) {
+                byId.put(entry.getId(), entry);
+            }
+            UserProjectCount boundary = entries.isEmpty() ? null : entries.get(entries.size() - 1);
+            for (UserProjectCount user : changed) {
+                byId.remove(user.getId());
+                if (ranksWithin(user, boundary)) {
+                    byId.put(user.getId(), user);
+                }
+            }
+            List<UserProjectCount> merged = new ArrayList<>(byId.values());
+            merged.sort(RANKING);
+            boolean stillComplete = complete;
+            if (merged.size() > capacity) {
+                // The dropped tail ranks after the new boundary, so the prefix stays exact
+                merged = merged.subList(0, capacity);
+                stillComplete = false;
+            }
+            return new Snapshot(List.copyOf(merged), stillComplete, loadedAtNanos);
+        }
+
+        private boolean ranksWithin(UserProjectCount user, UserProjectCount boundary) {
+            if (user.getProjectsCount() == null || user.getProjectsCount() < 1) {
+                return false;
+            }
+            // Every user with a project is in a complete snapshot
+            return complete || boundary == null || RANKING.compare(user, boundary) <= 0;
+        }
+    }
+}
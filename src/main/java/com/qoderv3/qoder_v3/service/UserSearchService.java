@@ -0,0 +1,57 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.repository.UserRepository;
+import com.qoderv3.qoder_v3.repository.projection.UserSummary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Admin user search over username, email and full name. Terms of three or more
+ * characters use the pg_trgm indexes and are ranked by trigram similarity;
+ * shorter terms, which produce no usable trigrams, fall back to an indexed
+ * case-insensitive prefix match on username and email.
+ */
+@Service
+@Transactional(readOnly = true)
+public class UserSearchService {
+
+    public static final int MIN_TRIGRAM_TERM_LENGTH = 3;
+    public static final int MAX_RESULTS = 100;
+
+    private final UserRepository userRepository;
+
+    public UserSearchService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Searches users by a free-text term
+     * @param searchTerm the term to search for
+     * @param limit maximum results (capped at {@value #MAX_RESULTS})
+     * @return matching user summaries, best matches first
+     */
+    public List<UserSummary> searchUsers(String searchTerm, int limit) {
+        String term = searchTerm == null ? "" : searchTerm.strip();
+        if (term.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        int max = Math.min(limit, MAX_RESULTS);
+        String escaped = escapeLike(term);
+        if (term.length() < MIN_TRIGRAM_TERM_LENGTH) {
+            return userRepository.searchUsersByPrefix(escaped.toLowerCase(Locale.ROOT) + "%", max);
+        }
+        return userRepository.searchUsersBySimilarity("%" + escaped + "%", term, max);
+    }
+
+    /**
+     * Escapes LIKE wildcards so the term is matched literally
+     * @param term the raw term
+     * @return the term with backslash, % and _ escaped
+     */
+    static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,362 @@
+package com.qoderv3.qoder_v3.text;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Splits text into chunks of at most {@code maxTokens} estimated tokens while
+ * reading it incrementally, so only about one chunk of input is buffered at a time.
+ * <p>Chunks are assembled from whole sentences, Markdown headings and fenced code
+ * blocks. A unit is only cut when it alone exceeds the budget: code blocks at line
+ * boundaries, prose at the last whitespace, and anything else at the character
+ * limit. Each chunk starts with up to {@code overlapTokens} of the trailing units
+ * of the previous chunk. Tokens are estimated from the character count.</p>
+ */
+public class TextChunker {
+
+    private static final String PARAGRAPH = "\n\n";
+    private static final String LINE = "\n";
+    private static final String SPACE = " ";
+    private static final String NONE = "";
+    private static final String FENCE = "```";
+
+    // Terminal punctuation, optional closing quotes or brackets, then whitespace
+    private static final Pattern SENTENCE_END = Pattern.compile("[.!?]+[\"')\\]]*\\s+");
+    private static final Pattern HEADING = Pattern.compile("#{1,6}\\s.*");
+
+    private final int maxTokens;
+    private final int overlapTokens;
+    private final double charsPerToken;
+    private final int maxChars;
+
+    /**
+     * @param maxTokens token budget of a chunk
+     * @param overlapTokens tokens of the previous chunk repeated at the start of the next
+     * @param charsPerToken characters per token used to estimate token counts
+     */
+    public TextChunker(int maxTokens, int overlapTokens, double charsPerToken) {
+        if (maxTokens < 1 || overlapTokens < 0 || overlapTokens >= maxTokens || !(charsPerToken > 0)) {
+            throw new IllegalArgumentException("Chunk budget must be positive and larger than the overlap");
+        }
+        this.maxTokens = maxTokens;
+        this.overlapTokens = overlapTokens;
+        this.charsPerToken = charsPerToken;
+        this.maxChars = (int) Math.max(1, Math.floor(maxTokens * charsPerToken));
+    }
+
+    /**
+     * Lazily splits the text read from a reader; the reader is not closed
+     * @param reader the text
+     * @return the chunks in order
+     */
+    public Iterator<String> chunks(Reader reader) {
+        return new ChunkIterator(new Segmenter(reader));
+    }
+
+    /**
+     * Lazily splits the text read from a reader; closing the stream closes the reader
+     * @param reader the text
+     * @return the chunks in order
+     */
+    public Stream<String> stream(Reader reader) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chunks(reader),
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Estimates the tokens of a text
+     * @param text the text
+     * @return estimated token count
+     */
+    public long estimateTokens(String text) {
+        return tokens(text.length());
+    }
+
+    private long tokens(int chars) {
+        return (long) Math.ceil(chars / charsPerToken);
+    }
+
+    /**
+     * A unit that is never split across chunks, and the text that joins it to the
+     * unit before it within a chunk
+     */
+    private record Segment(String text, String separator) {
+    }
+
+    /**
+     * Assembles segments into chunks and carries the overlap over
+     */
+    private final class ChunkIterator implements Iterator<String> {
+
+        private final Segmenter segmenter;
+        private final ArrayDeque<Segment> window = new ArrayDeque<>();
+        // Whether the window holds segments that have not been emitted yet
+        private boolean hasNew;
+        private String nextChunk;
+
+        private ChunkIterator(Segmenter segmenter) {
+            this.segmenter = segmenter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextChunk == null) {
+                try {
+                    nextChunk = advance();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return nextChunk != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String chunk = nextChunk;
+            nextChunk = null;
+            return chunk;
+        }
+
+        private String advance() throws IOException {
+            Segment segment;
+            while ((segment = segmenter.next()) != null) {
+                if (hasNew && tokens(chars(segment)) > maxTokens) {
+                    String chunk = join();
+                    hasNew = false;
+                    retainOverlap(segment);
+                    window.addLast(segment);
+                    hasNew = true;
+                    return chunk;
+                }
+                window.addLast(segment);
+                hasNew = true;
+            }
+            if (!hasNew) {
+                return null;
+            }
+            hasNew = false;
+            String chunk = join();
+            window.clear();
+            return chunk;
+        }
+
+        /**
+         * Drops emitted segments from the front until the rest fits the overlap budget
+         * and leaves room for the next segment
+         */
+        private void retainOverlap(Segment next) {
+            while (!window.isEmpty() && (tokens(chars(null)) > overlapTokens || tokens(chars(next)) > maxTokens)) {
+                window.removeFirst();
+            }
+        }
+
+        /**
+         * Characters of the window joined, plus the given segment if not null
+         */
+        private int chars(Segment next) {
+            int chars = 0;
+            boolean first = true;
+            for (Segment segment : window) {
+                chars += (first ? 0 : segment.separator().length()) + segment.text().length();
+                first = false;
+            }
+            if (next != null) {
+                chars += (first ? 0 : next.separator().length()) + next.text().length();
+            }
+            return chars;
+        }
+
+        private String join() {
+            StringBuilder chunk = new StringBuilder();
+            for (Segment segment : window) {
+                chunk.append(chunk.isEmpty() ? NONE : segment.separator()).append(segment.text());
+            }
+            return chunk.toString();
+        }
+    }
+
+    /**
+     * Reads lines of at most {@code maxChars} characters and turns them into
+     * sentence, heading and code segments no longer than {@code maxChars}
+     */
+    private final class Segmenter {
+
+        private final BufferedReader reader;
+        private final ArrayDeque<Segment> ready = new ArrayDeque<>();
+        private final StringBuilder prose = new StringBuilder();
+        private String proseSeparator = PARAGRAPH;
+        // Non-null inside a fenced code block
+        private StringBuilder code;
+        private String codeSeparator = PARAGRAPH;
+        // Whether the last line read was cut at the length limit
+        private boolean lineCut;
+        private boolean eof;
+
+        private Segmenter(Reader reader) {
+            this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        }
+
+        private Segment next() throws IOException {
+            while (ready.isEmpty() && !eof) {
+                boolean continuation = lineCut;
+                String line = readLine();
+                if (line == null) {
+                    eof = true;
+                    finishCode();
+                    flushProse();
+                } else {
+                    accept(line, continuation, lineCut);
+                }
+            }
+            return ready.poll();
+        }
+
+        /**
+         * @param continuation whether the line continues one that was cut at the length limit
+         * @param cut whether the line itself was cut, so its trailing whitespace is significant
+         */
+        private void accept(String line, boolean continuation, boolean cut) {
+            boolean fence = !continuation && line.strip().startsWith(FENCE);
+            if (code != null) {
+                appendCode(line, continuation ? NONE : LINE);
+                if (fence) {
+                    finishCode();
+                }
+            } else if (fence) {
+                flushProse();
+                code = new StringBuilder(line);
+                codeSeparator = PARAGRAPH;
+            } else if (!continuation && line.isBlank()) {
+                flushProse();
+            } else if (!continuation && HEADING.matcher(line).matches()) {
+                flushProse();
+                ready.add(new Segment(line.strip(), PARAGRAPH));
+            } else {
+                String text = cut ? line.stripLeading() : line.strip();
+                if (continuation) {
+                    prose.append(cut ? line : line.stripTrailing());
+                } else {
+                    boolean joined = prose.isEmpty() || Character.isWhitespace(prose.charAt(prose.length() - 1));
+                    prose.append(joined ? NONE : SPACE).append(text);
+                }
+                emitSentences();
+            }
+        }
+
+        private void emitSentences() {
+            Matcher matcher = SENTENCE_END.matcher(prose);
+            int start = 0;
+            while (matcher.find()) {
+                emitProse(prose.substring(start, matcher.end()).strip());
+                start = matcher.end();
+            }
+            prose.delete(0, start);
+            // A run-on sentence longer than a chunk is cut at the last whitespace
+            while (prose.length() > maxChars) {
+                int cut = prose.lastIndexOf(SPACE, maxChars);
+                if (cut > 0) {
+                    emitProse(prose.substring(0, cut));
+                    prose.delete(0, cut + 1);
+                } else {
+                    ready.add(new Segment(prose.substring(0, maxChars), proseSeparator));
+                    proseSeparator = NONE;
+                    prose.delete(0, maxChars);
+                }
+            }
+        }
+
+        private void emitProse(String sentence) {
+            if (sentence.isEmpty()) {
+                return;
+            }
+            if (sentence.length() > maxChars) {
+                // Only reachable for a sentence spanning an appended line; cut it like a run-on
+                int cut = sentence.lastIndexOf(SPACE, maxChars);
+                int end = cut > 0 ? cut : maxChars;
+                emitProse(sentence.substring(0, end));
+                if (cut <= 0) {
+                    proseSeparator = NONE;
+                }
+                emitProse(sentence.substring(cut > 0 ? cut + 1 : end));
+                return;
+            }
+            ready.add(new Segment(sentence, proseSeparator));
+            proseSeparator = SPACE;
+        }
+
+        private void flushProse() {
+            emitProse(prose.toString().strip());
+            prose.setLength(0);
+            proseSeparator = PARAGRAPH;
+        }
+
+        private void appendCode(String piece, String join) {
+            if (!code.isEmpty() && code.length() + join.length() + piece.length() > maxChars) {
+                ready.add(new Segment(code.toString(), codeSeparator));
+                codeSeparator = join;
+                code.setLength(0);
+                code.append(piece);
+                return;
+            }
+            code.append(code.isEmpty() ? NONE : join).append(piece);
+        }
+
+        private void finishCode() {
+            if (code == null) {
+                return;
+            }
+            if (!code.isEmpty()) {
+                ready.add(new Segment(code.toString(), codeSeparator));
+            }
+            code = null;
+            proseSeparator = PARAGRAPH;
+        }
+
+        /**
+         * Reads up to the end of the line or {@code maxChars} characters, whichever
+         * comes first
+         * @return the line without its terminator, or null at the end of input
+         */
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            lineCut = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (c == '\n') {
+                    return stripCarriageReturn(line);
+                }
+                line.append((char) c);
+                if (line.length() == maxChars) {
+                    lineCut = true;
+                    return line.toString();
+                }
+            }
+            return line.isEmpty() ? null : stripCarriageReturn(line);
+        }
+
+        private static String stripCarriageReturn(StringBuilder line) {
+            int length = line.length();
+            return length > 0 && line.charAt(length - 1) == '\r' ? line.substring(0, length - 1) : line.toString();
+        }
+    }
+}
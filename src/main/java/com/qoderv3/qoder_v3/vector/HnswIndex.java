@@ -0,0 +1,597 @@
+package com.qoderv3.qoder_v3.vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory Hierarchical Navigable Small World graph for approximate cosine
+ * nearest-neighbour search (Malkov &amp; Yashunin). Vectors are normalized on insert
+ * so the distance used internally is {@code 1 - dot(a, b)}.
+ *
+ * <p>Searches run concurrently under a read lock; inserts and removals take the
+ * write lock. Removed vectors are tombstoned and keep serving as graph waypoints
+ * until {@link #compact()} rebuilds the graph from the live entries. The rebuild
+ * runs outside the lock; only the swap, which replays the changes made during the
+ * rebuild, holds the write lock.</p>
+ */
+public class HnswIndex {
+
+    private static final Comparator<Candidate> NEAREST_FIRST = Comparator.comparingDouble(Candidate::distance);
+    private static final Comparator<Candidate> FARTHEST_FIRST = NEAREST_FIRST.reversed();
+
+    private static final ThreadLocal<VisitedSet> VISITED = ThreadLocal.withInitial(VisitedSet::new);
+
+    private final int dimensions;
+    private final int m;
+    private final int maxConnectionsLayer0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Graph graph = new Graph();
+    private long generation;
+    private List<Change> rebuildLog;
+
+    /**
+     * Creates an empty index
+     * @param dimensions vector dimensions accepted by the index
+     * @param m maximum connections per node on upper layers (layer 0 allows 2 * m)
+     * @param efConstruction candidate list size used while inserting
+     * @param seed seed for the level generator
+     */
+    public HnswIndex(int dimensions, int m, int efConstruction, long seed) {
+        if (dimensions <= 0 || m < 2 || efConstruction < 1) {
+            throw new IllegalArgumentException("Invalid HNSW parameters: dimensions=" + dimensions +
+                    ", m=" + m + ", efConstruction=" + efConstruction);
+        }
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxConnectionsLayer0 = m * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1d / Math.log(m);
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Inserts or replaces a vector
+     * @param id unique identifier of the vector
+     * @param contentId identifier of the source content
+     * @param createdAtMillis creation time in epoch milliseconds
+     * @param vector the vector components
+     */
+    public void add(UUID id, UUID contentId, long createdAtMillis, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+        float[] normalized = VectorMath.normalize(vector);
+        lock.writeLock().lock();
+        try {
+            Node node = new Node(id, contentId, createdAtMillis, normalized, randomLevel());
+            graph.put(node);
+            log(new Change(id, node));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a vector by id
+     * @param id the vector id
+     * @return true if the vector was present
+     */
+    public boolean remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            if (!graph.remove(id)) {
+                return false;
+            }
+            log(new Change(id, null));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every live vector matching the predicate
+     * @param predicate filter over the stored entries
+     * @return number of removed vectors
+     */
+    public int removeIf(Predicate<Entry> predicate) {
+        lock.writeLock().lock();
+        try {
+            int removed = 0;
+            var iterator = graph.nodeIndexById.values().iterator();
+            while (iterator.hasNext()) {
+                int index = iterator.next();
+                Node node = graph.nodes.get(index);
+                if (predicate.test(node.entry())) {
+                    iterator.remove();
+                    graph.markDeleted(index);
+                    log(new Change(node.id, null));
+                    removed++;
+                }
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks whether a vector id is indexed
+     * @param id the vector id
+     * @return true if a live vector exists
+     */
+    public boolean contains(UUID id) {
+        lock.readLock().lock();
+        try {
+            return graph.nodeIndexById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the stored entry for a vector id
+     * @param id the vector id
+     * @return the entry or null if the id is not indexed
+     */
+    public Entry get(UUID id) {
+        lock.readLock().lock();
+        try {
+            Integer index = graph.nodeIndexById.get(id);
+            return index != null ? graph.nodes.get(index).entry() : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate top-k cosine search
+     * @param query the query vector
+     * @param k number of results
+     * @param efSearch candidate list size; larger values trade latency for recall
+     * @return results ordered by descending similarity
+     */
+    public List<Result> search(float[] query, int k, int efSearch) {
+        if (query.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + query.length);
+        }
+        float[] normalized = VectorMath.normalize(query);
+        lock.readLock().lock();
+        try {
+            Graph current = graph;
+            if (current.entryPoint < 0 || k <= 0) {
+                return List.of();
+            }
+            int closest = current.entryPoint;
+            for (int level = current.maxLevel; level > 0; level--) {
+                closest = current.greedyClosest(normalized, closest, level);
+            }
+            List<Candidate> candidates = current.searchLayer(normalized, closest, Math.max(efSearch, k), 0);
+            List<Result> results = new ArrayList<>(Math.min(k, candidates.size()));
+            for (Candidate candidate : candidates) {
+                Node node = current.nodes.get(candidate.node());
+                if (!node.deleted) {
+                    results.add(new Result(node.entry(), 1f - candidate.distance()));
+                    if (results.size() == k) {
+                        break;
+                    }
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Exact top-k cosine search over all live vectors, used to measure recall. Only
+     * the list of live nodes is taken under the read lock; distances are computed
+     * without it.
+     * @param query the query vector
+     * @param k number of results
+     * @return results ordered by descending similarity
+     */
+    public List<Result> exactSearch(float[] query, int k) {
+        float[] normalized = VectorMath.normalize(query);
+        List<Node> live;
+        lock.readLock().lock();
+        try {
+            live = graph.liveNodes();
+        } finally {
+            lock.readLock().unlock();
+        }
+        PriorityQueue<ScoredNode> best = new PriorityQueue<>(Comparator.comparingDouble(ScoredNode::distance)
+                .reversed());
+        for (Node node : live) {
+            best.add(new ScoredNode(node, distance(normalized, node.vector)));
+            if (best.size() > k) {
+                best.poll();
+            }
+        }
+        List<ScoredNode> ordered = new ArrayList<>(best);
+        ordered.sort(Comparator.comparingDouble(ScoredNode::distance));
+        List<Result> results = new ArrayList<>(ordered.size());
+        for (ScoredNode scored : ordered) {
+            results.add(new Result(scored.node().entry(), 1f - scored.distance()));
+        }
+        return results;
+    }
+
+    /**
+     * Rebuilds the graph from live entries, dropping tombstoned nodes. Searches and
+     * writes continue against the current graph during the rebuild; writes made in
+     * the meantime are replayed onto the new graph when it is swapped in. Does
+     * nothing if a rebuild is already running.
+     */
+    public void compact() {
+        List<Node> live;
+        long startedGeneration;
+        lock.writeLock().lock();
+        try {
+            if (rebuildLog != null) {
+                return;
+            }
+            live = graph.liveNodes();
+            rebuildLog = new ArrayList<>();
+            startedGeneration = generation;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Graph rebuilt = new Graph();
+        boolean built = false;
+        try {
+            for (Node node : live) {
+                rebuilt.insert(node.copy());
+            }
+            built = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                // A clear() during the rebuild makes the rebuilt graph obsolete
+                if (built && generation == startedGeneration) {
+                    for (Change change : rebuildLog) {
+                        if (change.node() != null) {
+                            rebuilt.put(change.node().copy());
+                        } else {
+                            rebuilt.remove(change.id());
+                        }
+                    }
+                    graph = rebuilt;
+                }
+                rebuildLog = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Removes every vector and drops the graph, without leaving tombstones
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            graph = new Graph();
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of live vectors
+     * @return live vector count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return graph.nodeIndexById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of tombstoned nodes still present in the graph
+     * @return deleted node count
+     */
+    public int deletedCount() {
+        lock.readLock().lock();
+        try {
+            return graph.deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    private void log(Change change) {
+        if (rebuildLog != null) {
+            rebuildLog.add(change);
+        }
+    }
+
+    private int randomLevel() {
+        double uniform = 1d - random.nextDouble();
+        return (int) Math.floor(-Math.log(uniform) * levelMultiplier);
+    }
+
+    private static float distance(float[] a, float[] b) {
+        return Math.max(0f, 1f - VectorMath.dot(a, b));
+    }
+
+    /**
+     * Nodes and links of one graph; replaced as a whole when the index is compacted
+     */
+    private final class Graph {
+        private final List<Node> nodes = new ArrayList<>();
+        private final Map<UUID, Integer> nodeIndexById = new HashMap<>();
+        private int entryPoint = -1;
+        private int maxLevel = -1;
+        private int deletedCount;
+
+        private void put(Node node) {
+            remove(node.id);
+            insert(node);
+        }
+
+        private boolean remove(UUID id) {
+            Integer index = nodeIndexById.remove(id);
+            if (index == null) {
+                return false;
+            }
+            markDeleted(index);
+            return true;
+        }
+
+        private List<Node> liveNodes() {
+            List<Node> live = new ArrayList<>(nodeIndexById.size());
+            for (int index : nodeIndexById.values()) {
+                live.add(nodes.get(index));
+            }
+            return live;
+        }
+
+        private void insert(Node node) {
+            int index = nodes.size();
+            nodes.add(node);
+            nodeIndexById.put(node.id, index);
+            if (entryPoint < 0) {
+                entryPoint = index;
+                maxLevel = node.level;
+                return;
+            }
+            int current = entryPoint;
+            for (int level = maxLevel; level > node.level; level--) {
+                current = greedyClosest(node.vector, current, level);
+            }
+            for (int level = Math.min(node.level, maxLevel); level >= 0; level--) {
+                List<Candidate> candidates = searchLayer(node.vector, current, efConstruction, level);
+                int[] neighbours = selectNeighbours(candidates, m);
+                node.links[level] = neighbours;
+                for (int neighbour : neighbours) {
+                    connect(neighbour, index, level);
+                }
+                current = candidates.get(0).node();
+            }
+            if (node.level > maxLevel) {
+                entryPoint = index;
+                maxLevel = node.level;
+            }
+        }
+
+        private void connect(int from, int to, int level) {
+            Node node = nodes.get(from);
+            int[] links = node.links[level];
+            int maxConnections = level == 0 ? maxConnectionsLayer0 : m;
+            if (links.length < maxConnections) {
+                int[] grown = Arrays.copyOf(links, links.length + 1);
+                grown[links.length] = to;
+                node.links[level] = grown;
+                return;
+            }
+            List<Candidate> candidates = new ArrayList<>(links.length + 1);
+            candidates.add(new Candidate(to, distance(node.vector, nodes.get(to).vector)));
+            for (int link : links) {
+                candidates.add(new Candidate(link, distance(node.vector, nodes.get(link).vector)));
+            }
+            candidates.sort(NEAREST_FIRST);
+            node.links[level] = selectNeighbours(candidates, maxConnections);
+        }
+
+        /**
+         * Neighbour selection heuristic: prefer candidates closer to the base node than to any
+         * already selected neighbour, then back-fill with pruned candidates to keep connectivity.
+         */
+        private int[] selectNeighbours(List<Candidate> candidatesNearestFirst, int maxConnections) {
+            int[] selected = new int[Math.min(maxConnections, candidatesNearestFirst.size())];
+            int count = 0;
+            List<Candidate> pruned = new ArrayList<>();
+            for (Candidate candidate : candidatesNearestFirst) {
+                if (count == selected.length) {
+                    break;
+                }
+                float[] vector = nodes.get(candidate.node()).vector;
+                boolean diverse = true;
+                for (int i = 0; i < count; i++) {
+                    if (distance(vector, nodes.get(selected[i]).vector) < candidate.distance()) {
+                        diverse = false;
+                        break;
+                    }
+                }
+                if (diverse) {
+                    selected[count++] = candidate.node();
+                } else {
+                    pruned.add(candidate);
+                }
+            }
+            for (int i = 0; i < pruned.size() && count < selected.length; i++) {
+                selected[count++] = pruned.get(i).node();
+            }
+            return count == selected.length ? selected : Arrays.copyOf(selected, count);
+        }
+
+        private int greedyClosest(float[] query, int start, int level) {
+            int current = start;
+            float currentDistance = distance(query, nodes.get(current).vector);
+            boolean improved = true;
+            while (improved) {
+                improved = false;
+                for (int neighbour : nodes.get(current).links[level]) {
+                    float candidateDistance = distance(query, nodes.get(neighbour).vector);
+                    if (candidateDistance < currentDistance) {
+                        current = neighbour;
+                        currentDistance = candidateDistance;
+                        improved = true;
+                    }
+                }
+            }
+            return current;
+        }
+
+        private List<Candidate> searchLayer(float[] query, int entry, int ef, int level) {
+            VisitedSet visited = VISITED.get();
+            visited.reset(nodes.size());
+            PriorityQueue<Candidate> candidates = new PriorityQueue<>(NEAREST_FIRST);
+            PriorityQueue<Candidate> results = new PriorityQueue<>(FARTHEST_FIRST);
+            Candidate start = new Candidate(entry, distance(query, nodes.get(entry).vector));
+            visited.add(entry);
+            candidates.add(start);
+            results.add(start);
+            while (!candidates.isEmpty()) {
+                Candidate closest = candidates.poll();
+                if (closest.distance() > results.peek().distance() && results.size() >= ef) {
+                    break;
+                }
+                int[][] links = nodes.get(closest.node()).links;
+                if (level >= links.length) {
+                    continue;
+                }
+                for (int neighbour : links[level]) {
+                    if (!visited.add(neighbour)) {
+                        continue;
+                    }
+                    float neighbourDistance = distance(query, nodes.get(neighbour).vector);
+                    if (results.size() < ef || neighbourDistance < results.peek().distance()) {
+                        Candidate candidate = new Candidate(neighbour, neighbourDistance);
+                        candidates.add(candidate);
+                        results.add(candidate);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+            List<Candidate> ordered = new ArrayList<>(results);
+            ordered.sort(NEAREST_FIRST);
+            return ordered;
+        }
+
+        private void markDeleted(int index) {
+            Node node = nodes.get(index);
+            if (!node.deleted) {
+                node.deleted = true;
+                deletedCount++;
+            }
+        }
+    }
+
+    /**
+     * Identifying data stored alongside each vector
+     */
+    public record Entry(UUID id, UUID contentId, long createdAtMillis) {
+    }
+
+    /**
+     * Search hit with its cosine similarity
+     */
+    public record Result(Entry entry, float similarity) {
+    }
+
+    private record Candidate(int node, float distance) {
+    }
+
+    private record ScoredNode(Node node, float distance) {
+    }
+
+    /**
+     * Write made while a compaction is rebuilding the graph; a null node is a removal
+     */
+    private record Change(UUID id, Node node) {
+    }
+
+    private static final class Node {
+        private final UUID id;
+        private final UUID contentId;
+        private final long createdAtMillis;
+        private final float[] vector;
+        private final int level;
+        private final int[][] links;
+        private volatile boolean deleted;
+
+        private Node(UUID id, UUID contentId, long createdAtMillis, float[] vector, int level) {
+            this.id = id;
+            this.contentId = contentId;
+            this.createdAtMillis = createdAtMillis;
+            this.vector = vector;
+            this.level = level;
+            this.links = new int[level + 1][];
+            Arrays.fill(this.links, new int[0]);
+        }
+
+        private Entry entry() {
+            return new Entry(id, contentId, createdAtMillis);
+        }
+
+        /**
+         * Copies the node without its links, for insertion into another graph
+         */
+        private Node copy() {
+            return new Node(id, contentId, createdAtMillis, vector, level);
+        }
+    }
+
+    /**
+     * Generation-stamped visited set reused per thread to avoid allocating per search
+     */
+    private static final class VisitedSet {
+        private int[] stamps = new int[0];
+        private int generation;
+
+        private void reset(int size) {
+            if (stamps.length < size) {
+                stamps = new int[Math.max(size, stamps.length * 2)];
+                generation = 0;
+            }
+            generation++;
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(stamps, 0);
+                generation = 1;
+            }
+        }
+
+        private boolean add(int index) {
+            if (stamps[index] == generation) {
+                return false;
+            }
+            stamps[index] = generation;
+            return true;
+        }
+    }
+}
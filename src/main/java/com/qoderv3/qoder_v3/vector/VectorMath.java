@@ -0,0 +1,95 @@
+package com.qoderv3.qoder_v3.vector;
+
+/**
+ * Small set of vector helpers used by the in-process similarity search code.
+ */
+public final class VectorMath {
+
+    private VectorMath() {
+    }
+
+    /**
+     * Computes the dot product of two vectors of equal length
+     * @param a first vector
+     * @param b second vector
+     * @return dot product
+     */
+    public static float dot(float[] a, float[] b) {
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Computes the cosine similarity of two vectors
+     * @param a first vector
+     * @param b second vector
+     * @return cosine similarity in [-1, 1], or 0 if either vector is all zeros
+     */
+    public static float cosineSimilarity(float[] a, float[] b) {
+        float dot = 0f;
+        float normA = 0f;
+        float normB = 0f;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        if (normA == 0f || normB == 0f) {
+            return 0f;
+        }
+        return (float) (dot / Math.sqrt((double) normA * normB));
+    }
+
+    /**
+     * Returns a unit-length copy of the vector so cosine similarity becomes a dot product
+     * @param vector the vector to normalize
+     * @return normalized copy (all zeros if the input has no magnitude)
+     */
+    public static float[] normalize(float[] vector) {
+        double norm = 0d;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        float[] normalized = new float[vector.length];
+        if (norm == 0d) {
+            return normalized;
+        }
+        float scale = (float) (1d / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+
+    /**
+     * Packs the sign of every component into bits, as pgvector binary_quantize does
+     * @param vector the vector
+     * @return one bit per component, set when the component is positive
+     */
+    public static long[] binaryQuantize(float[] vector) {
+        long[] bits = new long[(vector.length + 63) / 64];
+        for (int i = 0; i < vector.length; i++) {
+            if (vector[i] > 0f) {
+                bits[i >>> 6] |= 1L << (i & 63);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Counts the differing bits of two binary-quantized vectors
+     * @param a first vector
+     * @param b second vector
+     * @return Hamming distance
+     */
+    public static int hammingDistance(long[] a, long[] b) {
+        int distance = 0;
+        for (int i = 0; i < a.length; i++) {
+            distance += Long.bitCount(a[i] ^ b[i]);
+        }
+        return distance;
+    }
+}
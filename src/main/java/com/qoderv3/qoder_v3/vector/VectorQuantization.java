@@ -0,0 +1,17 @@
+package com.qoderv3.qoder_v3.vector;
+
+/**
+ * Representation used to find approximate nearest-neighbour candidates before
+ * they are re-ranked with the full-precision vectors.
+ */
+public enum VectorQuantization {
+    /**
+     * Full-precision float32 vectors (4 bytes per dimension)
+     */
+    NONE,
+
+    /**
+     * Sign bit per component compared by Hamming distance (32x smaller)
+     */
+    BINARY
+}
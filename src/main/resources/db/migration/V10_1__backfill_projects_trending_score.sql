@@ -0,0 +1,31 @@
+-- Scores projects created before V10.
+-- Runs outside a migration transaction (see the .conf file) and commits every
+-- batch, so locks and WAL stay bounded; rows inserted meanwhile get the column
+-- default. Existing stars and forks have no timestamps; they are credited at
+-- creation with the default weights, which keeps today's "new and popular"
+-- ordering until events arrive.
+
+DO $$
+DECLARE
+  last_id UUID := '00000000-0000-0000-0000-000000000000';
+  batch_last UUID;
+BEGIN
+  LOOP
+    SELECT b.id INTO batch_last
+    FROM (SELECT p.id FROM projects p WHERE p.id > last_id ORDER BY p.id LIMIT 5000) b
+    ORDER BY b.id DESC
+    LIMIT 1;
+    EXIT WHEN batch_last IS NULL;
+
+    -- Scoring existing rows is not an edit: keep updated_at as it is. The trigger
+    -- is off only until this batch commits, and writers wait for that batch.
+    ALTER TABLE projects DISABLE TRIGGER set_timestamp_projects;
+    UPDATE projects SET trending_score = project_trending_weight(1 + stars_count + 2 * forks_count, created_at)
+    WHERE id > last_id AND id <= batch_last AND trending_score IS NULL;
+    ALTER TABLE projects ENABLE TRIGGER set_timestamp_projects;
+
+    last_id := batch_last;
+    COMMIT;
+  END LOOP;
+END;
+$$;
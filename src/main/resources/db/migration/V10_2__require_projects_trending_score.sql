@@ -0,0 +1,22 @@
+-- Makes projects.trending_score NOT NULL and indexes it, without blocking writers
+-- for a table scan. Runs outside a migration transaction (see the .conf file).
+-- The NOT VALID check is added under a brief lock and validated under a lock
+-- that lets writes continue; SET NOT NULL then uses the validated check instead
+-- of scanning the table, so its exclusive lock is held only for the catalog change.
+
+ALTER TABLE projects DROP CONSTRAINT IF EXISTS projects_trending_score_not_null;
+ALTER TABLE projects ADD CONSTRAINT projects_trending_score_not_null CHECK (trending_score IS NOT NULL) NOT VALID;
+ALTER TABLE projects VALIDATE CONSTRAINT projects_trending_score_not_null;
+ALTER TABLE projects ALTER COLUMN trending_score SET NOT NULL;
+ALTER TABLE projects DROP CONSTRAINT projects_trending_score_not_null;
+
+-- A failed concurrent build leaves an invalid index behind; drop it so a retry rebuilds it
+DROP INDEX CONCURRENTLY IF EXISTS idx_projects_public_trending_score;
+
+-- Trending public projects: ORDER BY trending_score DESC, id DESC
+CREATE INDEX CONCURRENTLY idx_projects_public_trending_score ON projects(trending_score DESC, id DESC)
+    WHERE visibility = 'PUBLIC' AND status = 'ACTIVE';
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_projects_public_trending_keyset;
+
+COMMENT ON INDEX idx_projects_public_trending_score IS 'Keyset pagination of trending public projects';
@@ -0,0 +1,27 @@
+-- Time-decayed trending score for projects
+-- Uses forward decay: an event of weight w at time t adds w * 2^((t - epoch) / half-life)
+-- to a project's score instead of every score being decayed as the clock moves.
+-- All projects are scaled by the same factor, so the ordering matches the
+-- exponentially decayed score at any moment and no rows are rewritten over time.
+-- The sum grows without bound, so it is stored as its natural log and events are
+-- added with a log-sum-exp. The half-life (2 days) is fixed here; changing it
+-- requires recomputing every score.
+
+CREATE OR REPLACE FUNCTION project_trending_weight(weight DOUBLE PRECISION, at TIMESTAMPTZ)
+RETURNS DOUBLE PRECISION AS $$
+  SELECT LN(weight) + (CAST(EXTRACT(EPOCH FROM at) AS DOUBLE PRECISION) - 1735689600) * LN(2) / 172800
+$$ LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE;
+
+-- ln(e^a + e^b) without overflow; the exponent is clamped to stay clear of float underflow
+CREATE OR REPLACE FUNCTION trending_log_add(a DOUBLE PRECISION, b DOUBLE PRECISION)
+RETURNS DOUBLE PRECISION AS $$
+  SELECT GREATEST(a, b) + LN(1 + EXP(-LEAST(ABS(a - b), 700)))
+$$ LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE;
+
+-- Adding a nullable column without a default only touches the catalog. The
+-- default then applies to new rows, while existing rows stay NULL until V10_1
+-- backfills them in batches; V10_2 makes the column NOT NULL.
+ALTER TABLE projects ADD COLUMN trending_score DOUBLE PRECISION;
+ALTER TABLE projects ALTER COLUMN trending_score SET DEFAULT project_trending_weight(1, NOW());
+
+COMMENT ON COLUMN projects.trending_score IS 'Log of the forward-decayed star/fork/activity weight; only comparable between projects';
@@ -0,0 +1,38 @@
+-- Hashes embeddings written before V11 and builds the vector reuse index.
+-- Runs outside a migration transaction (see the .conf file) and commits every
+-- batch, so locks and WAL stay bounded; rows written meanwhile are hashed by
+-- the V11 trigger.
+
+DO $$
+DECLARE
+  last_id UUID := '00000000-0000-0000-0000-000000000000';
+  batch_last UUID;
+BEGIN
+  LOOP
+    SELECT b.id INTO batch_last
+    FROM (SELECT e.id FROM embeddings e WHERE e.id > last_id ORDER BY e.id LIMIT 5000) b
+    ORDER BY b.id DESC
+    LIMIT 1;
+    EXIT WHEN batch_last IS NULL;
+
+    -- Hashing existing rows is not an edit: keep updated_at as it is. The trigger
+    -- is off only until this batch commits, and writers wait for that batch.
+    ALTER TABLE embeddings DISABLE TRIGGER set_timestamp_embeddings;
+    UPDATE embeddings SET content_hash = sha256(convert_to(content_text, 'UTF8'))
+    WHERE id > last_id AND id <= batch_last AND content_hash IS NULL;
+    ALTER TABLE embeddings ENABLE TRIGGER set_timestamp_embeddings;
+
+    last_id := batch_last;
+    COMMIT;
+  END LOOP;
+END;
+$$;
+
+-- A failed concurrent build leaves an invalid index behind; drop it so a retry can rebuild it
+DROP INDEX CONCURRENTLY IF EXISTS idx_embeddings_model_content_hash;
+
+-- Reusable vector lookup: WHERE embedding_model = ? AND content_hash IN (...)
+CREATE INDEX CONCURRENTLY idx_embeddings_model_content_hash ON embeddings(embedding_model, content_hash)
+    WHERE embedding_vector IS NOT NULL;
+
+COMMENT ON INDEX idx_embeddings_model_content_hash IS 'Embedded rows by model and content hash, for vector reuse';
@@ -0,0 +1,24 @@
+-- SHA-256 of embeddings.content_text, so identical text already embedded with
+-- the same model can reuse its vector instead of calling the model again.
+-- Maintained by a trigger rather than a generated column: convert_to is not
+-- immutable. Every insert path (JPA, JDBC chunk batches, COPY imports) is covered.
+
+ALTER TABLE embeddings ADD COLUMN content_hash BYTEA;
+
+CREATE OR REPLACE FUNCTION trigger_set_embeddings_content_hash()
+RETURNS TRIGGER AS $$
+BEGIN
+  NEW.content_hash := sha256(convert_to(NEW.content_text, 'UTF8'));
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER set_content_hash_embeddings
+    BEFORE INSERT OR UPDATE OF content_text ON embeddings
+    FOR EACH ROW
+    EXECUTE PROCEDURE trigger_set_embeddings_content_hash();
+
+-- Existing rows are hashed, and the lookup index built, by V11_1 in committed
+-- batches outside this migration's transaction.
+
+COMMENT ON COLUMN embeddings.content_hash IS 'SHA-256 of the UTF-8 content_text, maintained by trigger';
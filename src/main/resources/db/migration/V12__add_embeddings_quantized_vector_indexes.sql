@@ -0,0 +1,87 @@
+-- Quantized ANN indexes over embeddings.embedding_vector (requires pgvector 0.7+)
+-- The table keeps the float32 vector for exact re-ranking; the indexes hold a
+-- compact copy used only to find candidates:
+--   halfvec(1536)           2 bytes per dimension  (2x smaller than vector)
+--   binary_quantize -> bit  1 bit per dimension    (32x smaller than vector)
+-- Which one a content type uses is chosen by qoder.vector.quantization.modes.
+-- They replace the V4 ivfflat L2 index, which stores full float32 vectors and
+-- is never used: every search orders by cosine distance. The ivfflat cosine
+-- index stays for content types left at NONE.
+-- Built CONCURRENTLY, so this script runs outside a transaction (see the .conf file).
+
+-- A failed concurrent build leaves an invalid index behind; drop it so a retry rebuilds it
+DROP INDEX CONCURRENTLY IF EXISTS idx_embeddings_vector_halfvec_cosine;
+DROP INDEX CONCURRENTLY IF EXISTS idx_embeddings_vector_binary_hamming;
+
+CREATE INDEX CONCURRENTLY idx_embeddings_vector_halfvec_cosine ON embeddings
+USING hnsw ((embedding_vector::halfvec(1536)) halfvec_cosine_ops);
+
+CREATE INDEX CONCURRENTLY idx_embeddings_vector_binary_hamming ON embeddings
+USING hnsw ((binary_quantize(embedding_vector)::bit(1536)) bit_hamming_ops);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_embeddings_vector_l2;
+
+-- Similarity search that takes candidates from a quantized index and re-ranks
+-- them with the full-precision cosine distance. quantization is 'HALF',
+-- 'BINARY' or 'NONE' (plain find_similar_embeddings). An HNSW scan returns at
+-- most hnsw.ef_search rows (default 40), so the candidate count raises it for
+-- the rest of the calling transaction.
+CREATE OR REPLACE FUNCTION find_similar_embeddings_quantized(
+    query_vector vector(1536),
+    quantization TEXT,
+    content_type_filter embedding_content_type DEFAULT NULL,
+    similarity_threshold FLOAT DEFAULT 0.7,
+    max_results INTEGER DEFAULT 10,
+    candidates INTEGER DEFAULT 40
+)
+RETURNS TABLE (
+    id UUID,
+    content_id UUID,
+    content_type embedding_content_type,
+    content_text TEXT,
+    similarity FLOAT,
+    metadata JSONB
+) AS $$
+BEGIN
+    PERFORM set_config('hnsw.ef_search',
+        GREATEST(candidates, max_results, COALESCE(NULLIF(current_setting('hnsw.ef_search', true), '')::int, 40))::text,
+        true);
+
+    IF quantization = 'HALF' THEN
+        RETURN QUERY
+        SELECT c.id, c.content_id, c.content_type, c.content_text,
+               1 - (c.embedding_vector <=> query_vector) AS similarity, c.metadata
+        FROM (
+            SELECT e.id, e.content_id, e.content_type, e.content_text, e.embedding_vector, e.metadata
+            FROM embeddings e
+            WHERE content_type_filter IS NULL OR e.content_type = content_type_filter
+            ORDER BY e.embedding_vector::halfvec(1536) <=> query_vector::halfvec(1536)
+            LIMIT GREATEST(candidates, max_results)
+        ) c
+        WHERE (1 - (c.embedding_vector <=> query_vector)) >= similarity_threshold
+        ORDER BY c.embedding_vector <=> query_vector
+        LIMIT max_results;
+    ELSIF quantization = 'BINARY' THEN
+        RETURN QUERY
+        SELECT c.id, c.content_id, c.content_type, c.content_text,
+               1 - (c.embedding_vector <=> query_vector) AS similarity, c.metadata
+        FROM (
+            SELECT e.id, e.content_id, e.content_type, e.content_text, e.embedding_vector, e.metadata
+            FROM embeddings e
+            WHERE content_type_filter IS NULL OR e.content_type = content_type_filter
+            ORDER BY binary_quantize(e.embedding_vector)::bit(1536) <~> binary_quantize(query_vector)
+            LIMIT GREATEST(candidates, max_results)
+        ) c
+        WHERE (1 - (c.embedding_vector <=> query_vector)) >= similarity_threshold
+        ORDER BY c.embedding_vector <=> query_vector
+        LIMIT max_results;
+    ELSE
+        RETURN QUERY
+        SELECT * FROM find_similar_embeddings(query_vector, content_type_filter, similarity_threshold, max_results);
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON INDEX idx_embeddings_vector_halfvec_cosine IS 'Half-precision HNSW candidates for cosine search';
+COMMENT ON INDEX idx_embeddings_vector_binary_hamming IS 'Binary-quantized HNSW candidates (Hamming) for cosine search';
+COMMENT ON FUNCTION find_similar_embeddings_quantized IS 'Quantized candidate search re-ranked by full-precision cosine similarity';
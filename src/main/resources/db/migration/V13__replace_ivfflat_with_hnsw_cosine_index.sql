@@ -0,0 +1,71 @@
+-- Single HNSW cosine index over embeddings.embedding_vector
+-- V4 built two ivfflat indexes (cosine and L2) with a fixed lists = 100; V12
+-- already replaced the L2 one. ivfflat recall drops as the table outgrows its
+-- list count, while HNSW needs no training data and keeps recall as rows are
+-- added. Its build parameters come from the spring.flyway.placeholders[hnsw_*]
+-- properties and the per-query candidate list size is set with hnsw.ef_search
+-- (see EmbeddingRepositoryCustom).
+-- The V12 halfvec index is dropped as well: it serves the same cosine search at
+-- lower precision, so with this index in place it only adds write cost and saves
+-- no storage. The HALF mode goes with it; the binary index stays as the 32x
+-- smaller candidate option.
+-- Built CONCURRENTLY, so this script runs outside a transaction (see the .conf file)
+-- and the build memory is a session setting rather than SET LOCAL.
+
+SET maintenance_work_mem = '${hnsw_maintenance_work_mem}';
+
+-- A failed concurrent build leaves an invalid index behind; drop it so a retry rebuilds it
+DROP INDEX CONCURRENTLY IF EXISTS idx_embeddings_vector_hnsw_cosine;
+
+CREATE INDEX CONCURRENTLY idx_embeddings_vector_hnsw_cosine ON embeddings
+USING hnsw (embedding_vector vector_cosine_ops) WITH (m = ${hnsw_m}, ef_construction = ${hnsw_ef_construction});
+
+RESET maintenance_work_mem;
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_embeddings_vector_cosine;
+DROP INDEX CONCURRENTLY IF EXISTS idx_embeddings_vector_halfvec_cosine;
+
+-- Without the HALF branch; anything but BINARY uses the full-precision index
+CREATE OR REPLACE FUNCTION find_similar_embeddings_quantized(
+    query_vector vector(1536),
+    quantization TEXT,
+    content_type_filter embedding_content_type DEFAULT NULL,
+    similarity_threshold FLOAT DEFAULT 0.7,
+    max_results INTEGER DEFAULT 10,
+    candidates INTEGER DEFAULT 40
+)
+RETURNS TABLE (
+    id UUID,
+    content_id UUID,
+    content_type embedding_content_type,
+    content_text TEXT,
+    similarity FLOAT,
+    metadata JSONB
+) AS $$
+BEGIN
+    PERFORM set_config('hnsw.ef_search',
+        GREATEST(candidates, max_results, COALESCE(NULLIF(current_setting('hnsw.ef_search', true), '')::int, 40))::text,
+        true);
+
+    IF quantization = 'BINARY' THEN
+        RETURN QUERY
+        SELECT c.id, c.content_id, c.content_type, c.content_text,
+               1 - (c.embedding_vector <=> query_vector) AS similarity, c.metadata
+        FROM (
+            SELECT e.id, e.content_id, e.content_type, e.content_text, e.embedding_vector, e.metadata
+            FROM embeddings e
+            WHERE content_type_filter IS NULL OR e.content_type = content_type_filter
+            ORDER BY binary_quantize(e.embedding_vector)::bit(1536) <~> binary_quantize(query_vector)
+            LIMIT GREATEST(candidates, max_results)
+        ) c
+        WHERE (1 - (c.embedding_vector <=> query_vector)) >= similarity_threshold
+        ORDER BY c.embedding_vector <=> query_vector
+        LIMIT max_results;
+    ELSE
+        RETURN QUERY
+        SELECT * FROM find_similar_embeddings(query_vector, content_type_filter, similarity_threshold, max_results);
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON INDEX idx_embeddings_vector_hnsw_cosine IS 'HNSW approximate nearest-neighbour index for cosine similarity';
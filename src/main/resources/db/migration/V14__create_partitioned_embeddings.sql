@@ -0,0 +1,168 @@
+-- List-partitioned embeddings table, step 1 of 3: create and mirror
+-- The embeddings table mixes every content type in one heap and one ANN index,
+-- so a search for one type walks an index full of the others and filters them
+-- out. embeddings_partitioned has one partition per embedding_content_type, each
+-- with its own indexes, so a content type filter prunes to a single partition.
+-- Rows are copied online:
+--   V14  creates the partitioned table and mirrors every write made to
+--        embeddings from now on (short lock while the trigger is created)
+--   V15  copies the existing rows in committed batches
+--   V16  reconciles both tables while writers continue, then swaps them
+--        under an exclusive lock held only for the drop and renames
+-- Adding a value to embedding_content_type now also needs a new partition.
+
+CREATE TABLE embeddings_partitioned (
+    id UUID NOT NULL DEFAULT uuid_generate_v4(),
+    content_id UUID NOT NULL,
+    content_type embedding_content_type NOT NULL,
+    content_text TEXT NOT NULL,
+    embedding_vector vector(1536),
+    embedding_model VARCHAR(100) DEFAULT 'text-embedding-ada-002',
+    chunk_index INTEGER DEFAULT 0,
+    chunk_total INTEGER DEFAULT 1,
+    metadata JSONB,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    content_hash BYTEA,
+
+    -- The partition key must be part of the primary key; ids stay UUIDs
+    CONSTRAINT embeddings_partitioned_pkey PRIMARY KEY (id, content_type),
+    CONSTRAINT embeddings_chunk_index_positive CHECK (chunk_index >= 0),
+    CONSTRAINT embeddings_chunk_total_positive CHECK (chunk_total >= 1),
+    CONSTRAINT embeddings_chunk_index_less_than_total CHECK (chunk_index < chunk_total),
+    CONSTRAINT embeddings_content_text_not_empty CHECK (length(trim(content_text)) > 0)
+) PARTITION BY LIST (content_type);
+
+CREATE TABLE embeddings_project_description PARTITION OF embeddings_partitioned FOR VALUES IN ('PROJECT_DESCRIPTION');
+CREATE TABLE embeddings_project_documentation PARTITION OF embeddings_partitioned FOR VALUES IN ('PROJECT_DOCUMENTATION');
+CREATE TABLE embeddings_code_snippet PARTITION OF embeddings_partitioned FOR VALUES IN ('CODE_SNIPPET');
+CREATE TABLE embeddings_user_profile PARTITION OF embeddings_partitioned FOR VALUES IN ('USER_PROFILE');
+CREATE TABLE embeddings_commit_message PARTITION OF embeddings_partitioned FOR VALUES IN ('COMMIT_MESSAGE');
+CREATE TABLE embeddings_issue_description PARTITION OF embeddings_partitioned FOR VALUES IN ('ISSUE_DESCRIPTION');
+CREATE TABLE embeddings_pull_request_description PARTITION OF embeddings_partitioned FOR VALUES IN ('PULL_REQUEST_DESCRIPTION');
+CREATE TABLE embeddings_comment PARTITION OF embeddings_partitioned FOR VALUES IN ('COMMENT');
+
+-- Indexes are created on the parent and cloned into every partition. The
+-- content_type leading columns of V4 are dropped: the partition is the filter.
+-- Named *_p_* until V16 drops the old table and takes over its names.
+CREATE INDEX idx_embeddings_p_content_id ON embeddings_partitioned(content_id);
+CREATE INDEX idx_embeddings_p_created_at ON embeddings_partitioned(created_at);
+CREATE INDEX idx_embeddings_p_model ON embeddings_partitioned(embedding_model);
+CREATE INDEX idx_embeddings_p_metadata ON embeddings_partitioned USING GIN(metadata);
+CREATE INDEX idx_embeddings_p_pending_vector ON embeddings_partitioned(id)
+    WHERE embedding_vector IS NULL;
+CREATE INDEX idx_embeddings_p_content_tsv ON embeddings_partitioned
+USING GIN (to_tsvector('english', content_text));
+CREATE INDEX idx_embeddings_p_model_content_hash ON embeddings_partitioned(embedding_model, content_hash)
+    WHERE embedding_vector IS NOT NULL;
+CREATE INDEX idx_embeddings_p_vector_hnsw_cosine ON embeddings_partitioned
+USING hnsw (embedding_vector vector_cosine_ops) WITH (m = ${hnsw_m}, ef_construction = ${hnsw_ef_construction});
+CREATE INDEX idx_embeddings_p_vector_binary_hamming ON embeddings_partitioned
+USING hnsw ((binary_quantize(embedding_vector)::bit(1536)) bit_hamming_ops);
+
+CREATE TRIGGER set_timestamp_embeddings
+    BEFORE UPDATE ON embeddings_partitioned
+    FOR EACH ROW
+    EXECUTE PROCEDURE trigger_set_timestamp();
+
+CREATE TRIGGER set_content_hash_embeddings
+    BEFORE INSERT OR UPDATE OF content_text ON embeddings_partitioned
+    FOR EACH ROW
+    EXECUTE PROCEDURE trigger_set_embeddings_content_hash();
+
+-- The partition key has to be part of the primary key, so (id, content_type)
+-- alone would let two content types share an id. The entity is keyed on id, so
+-- embedding_ids keeps one row per id, and its primary key makes ids unique
+-- across partitions. The triggers below keep it in step: an insert claims the
+-- id, a key change moves the claim, and a delete releases the id once no
+-- partition holds it. A claim of an id held by another content_type fails.
+CREATE TABLE embedding_ids (
+    id UUID PRIMARY KEY,
+    content_type embedding_content_type NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION trigger_claim_embedding_id()
+RETURNS TRIGGER AS $$
+BEGIN
+  IF TG_OP = 'UPDATE' THEN
+    IF NEW.id = OLD.id THEN
+      -- A content_type change moves the row to another partition; the insert
+      -- into that partition then finds the claim already moved
+      UPDATE embedding_ids SET content_type = NEW.content_type WHERE id = NEW.id;
+      RETURN NEW;
+    END IF;
+    DELETE FROM embedding_ids WHERE id = OLD.id;
+  END IF;
+  INSERT INTO embedding_ids (id, content_type) VALUES (NEW.id, NEW.content_type)
+  ON CONFLICT (id) DO UPDATE SET content_type = EXCLUDED.content_type
+      WHERE embedding_ids.content_type = EXCLUDED.content_type;
+  IF NOT FOUND THEN
+    RAISE EXCEPTION 'embedding id % is already used by another content_type', NEW.id
+      USING ERRCODE = 'unique_violation';
+  END IF;
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Runs after the statement's rows are in place, so a row moved to another
+-- partition by an UPDATE keeps its claim
+CREATE OR REPLACE FUNCTION trigger_release_embedding_id()
+RETURNS TRIGGER AS $$
+BEGIN
+  DELETE FROM embedding_ids i
+  WHERE i.id = OLD.id AND NOT EXISTS (SELECT 1 FROM embeddings_partitioned e WHERE e.id = OLD.id);
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER claim_embedding_id_insert
+    BEFORE INSERT ON embeddings_partitioned
+    FOR EACH ROW
+    EXECUTE PROCEDURE trigger_claim_embedding_id();
+
+CREATE TRIGGER claim_embedding_id_update
+    BEFORE UPDATE OF id, content_type ON embeddings_partitioned
+    FOR EACH ROW
+    WHEN (OLD.id IS DISTINCT FROM NEW.id OR OLD.content_type IS DISTINCT FROM NEW.content_type)
+    EXECUTE PROCEDURE trigger_claim_embedding_id();
+
+CREATE TRIGGER release_embedding_id
+    AFTER DELETE ON embeddings_partitioned
+    FOR EACH ROW
+    EXECUTE PROCEDURE trigger_release_embedding_id();
+
+-- Mirror writes to the old table. The insert is an upsert: a V15 batch may
+-- have copied the row without committing yet, and the mirror then waits for it
+-- and overwrites the copy instead of failing on the duplicate key. A row whose
+-- content_type changed is deleted from its old partition first.
+CREATE OR REPLACE FUNCTION trigger_mirror_embeddings_to_partitioned()
+RETURNS TRIGGER AS $$
+BEGIN
+  IF TG_OP = 'DELETE' OR (TG_OP = 'UPDATE' AND (OLD.id, OLD.content_type) IS DISTINCT FROM (NEW.id, NEW.content_type)) THEN
+    DELETE FROM embeddings_partitioned WHERE id = OLD.id AND content_type = OLD.content_type;
+  END IF;
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    INSERT INTO embeddings_partitioned (id, content_id, content_type, content_text, embedding_vector, embedding_model,
+            chunk_index, chunk_total, metadata, created_at, updated_at, content_hash)
+    VALUES (NEW.id, NEW.content_id, NEW.content_type, NEW.content_text, NEW.embedding_vector, NEW.embedding_model,
+            NEW.chunk_index, NEW.chunk_total, NEW.metadata, NEW.created_at, NEW.updated_at, NEW.content_hash)
+    ON CONFLICT (id, content_type) DO UPDATE SET
+        content_id = EXCLUDED.content_id,
+        content_text = EXCLUDED.content_text,
+        embedding_vector = EXCLUDED.embedding_vector,
+        embedding_model = EXCLUDED.embedding_model,
+        chunk_index = EXCLUDED.chunk_index,
+        chunk_total = EXCLUDED.chunk_total,
+        metadata = EXCLUDED.metadata,
+        created_at = EXCLUDED.created_at,
+        updated_at = EXCLUDED.updated_at,
+        content_hash = EXCLUDED.content_hash;
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER mirror_embeddings_to_partitioned
+    AFTER INSERT OR UPDATE OR DELETE ON embeddings
+    FOR EACH ROW
+    EXECUTE PROCEDURE trigger_mirror_embeddings_to_partitioned();
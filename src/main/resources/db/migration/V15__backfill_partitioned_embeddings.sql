@@ -0,0 +1,30 @@
+-- List-partitioned embeddings table, step 2 of 3: copy existing rows
+-- Runs outside a migration transaction (see the .conf file) and commits every
+-- batch, so locks and WAL stay bounded and writers are never blocked. Rows
+-- already written by the V14 mirror trigger are newer and are kept.
+
+DO $$
+DECLARE
+  last_id UUID := '00000000-0000-0000-0000-000000000000';
+  batch_last UUID;
+BEGIN
+  LOOP
+    SELECT b.id INTO batch_last
+    FROM (SELECT e.id FROM embeddings e WHERE e.id > last_id ORDER BY e.id LIMIT 5000) b
+    ORDER BY b.id DESC
+    LIMIT 1;
+    EXIT WHEN batch_last IS NULL;
+
+    INSERT INTO embeddings_partitioned (id, content_id, content_type, content_text, embedding_vector, embedding_model,
+            chunk_index, chunk_total, metadata, created_at, updated_at, content_hash)
+    SELECT id, content_id, content_type, content_text, embedding_vector, embedding_model,
+            chunk_index, chunk_total, metadata, created_at, updated_at, content_hash
+    FROM embeddings
+    WHERE id > last_id AND id <= batch_last
+    ON CONFLICT DO NOTHING;
+
+    last_id := batch_last;
+    COMMIT;
+  END LOOP;
+END;
+$$;
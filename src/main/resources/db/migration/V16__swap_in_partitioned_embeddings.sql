@@ -0,0 +1,187 @@
+-- List-partitioned embeddings table, step 3 of 3: reconcile and swap
+-- Rows can still differ after V15: a batch may have copied a row just before a
+-- concurrent delete or update of it committed, and every row is missing if V15
+-- was skipped. The reconciliation compares full row contents and runs while
+-- writers continue; the V14 mirror keeps every later write in step. Only the
+-- rows it changed are copied again under the exclusive lock, in case a write
+-- raced the pass, so the lock is held for a few index lookups plus the swap.
+
+CREATE TEMP TABLE embeddings_reconciled (id UUID NOT NULL);
+
+WITH stale AS (
+    DELETE FROM embeddings_partitioned p
+    WHERE NOT EXISTS (
+        SELECT 1 FROM embeddings e
+        WHERE e.id = p.id AND e.content_type = p.content_type
+          AND (e.content_id, e.content_text, e.embedding_vector, e.embedding_model, e.chunk_index, e.chunk_total,
+               e.metadata, e.created_at, e.updated_at, e.content_hash)
+              IS NOT DISTINCT FROM
+              (p.content_id, p.content_text, p.embedding_vector, p.embedding_model, p.chunk_index, p.chunk_total,
+               p.metadata, p.created_at, p.updated_at, p.content_hash))
+    RETURNING p.id
+)
+INSERT INTO embeddings_reconciled SELECT id FROM stale;
+
+WITH missing AS (
+    INSERT INTO embeddings_partitioned (id, content_id, content_type, content_text, embedding_vector, embedding_model,
+        chunk_index, chunk_total, metadata, created_at, updated_at, content_hash)
+    SELECT id, content_id, content_type, content_text, embedding_vector, embedding_model,
+        chunk_index, chunk_total, metadata, created_at, updated_at, content_hash
+    FROM embeddings e
+    WHERE NOT EXISTS (SELECT 1 FROM embeddings_partitioned p WHERE p.id = e.id AND p.content_type = e.content_type)
+    -- A row the mirror wrote since this statement started is newer; keep it
+    ON CONFLICT DO NOTHING
+    RETURNING id
+)
+INSERT INTO embeddings_reconciled SELECT id FROM missing;
+
+LOCK TABLE embeddings IN ACCESS EXCLUSIVE MODE;
+
+DELETE FROM embeddings_partitioned p
+WHERE p.id IN (SELECT id FROM embeddings_reconciled);
+
+INSERT INTO embeddings_partitioned (id, content_id, content_type, content_text, embedding_vector, embedding_model,
+    chunk_index, chunk_total, metadata, created_at, updated_at, content_hash)
+SELECT id, content_id, content_type, content_text, embedding_vector, embedding_model,
+    chunk_index, chunk_total, metadata, created_at, updated_at, content_hash
+FROM embeddings e
+WHERE e.id IN (SELECT id FROM embeddings_reconciled);
+
+DROP TABLE embeddings;
+DROP FUNCTION trigger_mirror_embeddings_to_partitioned();
+DROP TABLE embeddings_reconciled;
+
+ALTER TABLE embeddings_partitioned RENAME TO embeddings;
+ALTER TABLE embeddings RENAME CONSTRAINT embeddings_partitioned_pkey TO embeddings_pkey;
+ALTER INDEX idx_embeddings_p_content_id RENAME TO idx_embeddings_content_id;
+ALTER INDEX idx_embeddings_p_created_at RENAME TO idx_embeddings_created_at;
+ALTER INDEX idx_embeddings_p_model RENAME TO idx_embeddings_model;
+ALTER INDEX idx_embeddings_p_metadata RENAME TO idx_embeddings_metadata;
+ALTER INDEX idx_embeddings_p_pending_vector RENAME TO idx_embeddings_pending_vector;
+ALTER INDEX idx_embeddings_p_content_tsv RENAME TO idx_embeddings_content_tsv;
+ALTER INDEX idx_embeddings_p_model_content_hash RENAME TO idx_embeddings_model_content_hash;
+ALTER INDEX idx_embeddings_p_vector_hnsw_cosine RENAME TO idx_embeddings_vector_hnsw_cosine;
+ALTER INDEX idx_embeddings_p_vector_binary_hamming RENAME TO idx_embeddings_vector_binary_hamming;
+
+-- The id release of V14 names the table it checks
+CREATE OR REPLACE FUNCTION trigger_release_embedding_id()
+RETURNS TRIGGER AS $$
+BEGIN
+  DELETE FROM embedding_ids i
+  WHERE i.id = OLD.id AND NOT EXISTS (SELECT 1 FROM embeddings e WHERE e.id = OLD.id);
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Similarity search with a plain content_type = filter in its own branch, so
+-- the planner prunes to one partition instead of scanning every partition's
+-- index for the OR ... IS NULL form.
+CREATE OR REPLACE FUNCTION find_similar_embeddings(
+    query_vector vector(1536),
+    content_type_filter embedding_content_type DEFAULT NULL,
+    similarity_threshold FLOAT DEFAULT 0.7,
+    max_results INTEGER DEFAULT 10
+)
+RETURNS TABLE (
+    id UUID,
+    content_id UUID,
+    content_type embedding_content_type,
+    content_text TEXT,
+    similarity FLOAT,
+    metadata JSONB
+) AS $$
+BEGIN
+    IF content_type_filter IS NULL THEN
+        RETURN QUERY
+        SELECT e.id, e.content_id, e.content_type, e.content_text,
+               1 - (e.embedding_vector <=> query_vector) AS similarity, e.metadata
+        FROM embeddings e
+        WHERE (1 - (e.embedding_vector <=> query_vector)) >= similarity_threshold
+        ORDER BY e.embedding_vector <=> query_vector
+        LIMIT max_results;
+    ELSE
+        RETURN QUERY
+        SELECT e.id, e.content_id, e.content_type, e.content_text,
+               1 - (e.embedding_vector <=> query_vector) AS similarity, e.metadata
+        FROM embeddings e
+        WHERE e.content_type = content_type_filter
+          AND (1 - (e.embedding_vector <=> query_vector)) >= similarity_threshold
+        ORDER BY e.embedding_vector <=> query_vector
+        LIMIT max_results;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Same split for the quantized candidate search of V12
+CREATE OR REPLACE FUNCTION find_similar_embeddings_quantized(
+    query_vector vector(1536),
+    quantization TEXT,
+    content_type_filter embedding_content_type DEFAULT NULL,
+    similarity_threshold FLOAT DEFAULT 0.7,
+    max_results INTEGER DEFAULT 10,
+    candidates INTEGER DEFAULT 40
+)
+RETURNS TABLE (
+    id UUID,
+    content_id UUID,
+    content_type embedding_content_type,
+    content_text TEXT,
+    similarity FLOAT,
+    metadata JSONB
+) AS $$
+BEGIN
+    PERFORM set_config('hnsw.ef_search',
+        GREATEST(candidates, max_results, COALESCE(NULLIF(current_setting('hnsw.ef_search', true), '')::int, 40))::text,
+        true);
+
+    IF quantization = 'BINARY' AND content_type_filter IS NULL THEN
+        RETURN QUERY
+        SELECT c.id, c.content_id, c.content_type, c.content_text,
+               1 - (c.embedding_vector <=> query_vector) AS similarity, c.metadata
+        FROM (
+            SELECT e.id, e.content_id, e.content_type, e.content_text, e.embedding_vector, e.metadata
+            FROM embeddings e
+            ORDER BY binary_quantize(e.embedding_vector)::bit(1536) <~> binary_quantize(query_vector)
+            LIMIT GREATEST(candidates, max_results)
+        ) c
+        WHERE (1 - (c.embedding_vector <=> query_vector)) >= similarity_threshold
+        ORDER BY c.embedding_vector <=> query_vector
+        LIMIT max_results;
+    ELSIF quantization = 'BINARY' THEN
+        RETURN QUERY
+        SELECT c.id, c.content_id, c.content_type, c.content_text,
+               1 - (c.embedding_vector <=> query_vector) AS similarity, c.metadata
+        FROM (
+            SELECT e.id, e.content_id, e.content_type, e.content_text, e.embedding_vector, e.metadata
+            FROM embeddings e
+            WHERE e.content_type = content_type_filter
+            ORDER BY binary_quantize(e.embedding_vector)::bit(1536) <~> binary_quantize(query_vector)
+            LIMIT GREATEST(candidates, max_results)
+        ) c
+        WHERE (1 - (c.embedding_vector <=> query_vector)) >= similarity_threshold
+        ORDER BY c.embedding_vector <=> query_vector
+        LIMIT max_results;
+    ELSE
+        RETURN QUERY
+        SELECT * FROM find_similar_embeddings(query_vector, content_type_filter, similarity_threshold, max_results);
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON TABLE embeddings IS 'Vector embeddings storage for AI/ML features in qoder-v3, list-partitioned by content_type';
+COMMENT ON COLUMN embeddings.id IS 'Primary key (with content_type) - UUID identifier for the embedding, unique across partitions through embedding_ids';
+COMMENT ON TABLE embedding_ids IS 'One row per embedding id; its primary key keeps ids unique across the embeddings partitions';
+COMMENT ON COLUMN embeddings.content_id IS 'Reference to the source content (project, user, etc.)';
+COMMENT ON COLUMN embeddings.content_type IS 'Type of content that was embedded; the partition key';
+COMMENT ON COLUMN embeddings.content_text IS 'Original text content that was embedded';
+COMMENT ON COLUMN embeddings.embedding_vector IS 'High-dimensional vector representation of the content';
+COMMENT ON COLUMN embeddings.embedding_model IS 'AI model used to generate the embedding';
+COMMENT ON COLUMN embeddings.chunk_index IS 'Index of this chunk if content was split';
+COMMENT ON COLUMN embeddings.chunk_total IS 'Total number of chunks for this content';
+COMMENT ON COLUMN embeddings.metadata IS 'Additional metadata about the embedding in JSON format';
+COMMENT ON COLUMN embeddings.content_hash IS 'SHA-256 of the UTF-8 content_text, maintained by trigger';
+COMMENT ON INDEX idx_embeddings_pending_vector IS 'Keyset scan of embeddings that still need a vector';
+COMMENT ON INDEX idx_embeddings_content_tsv IS 'Full-text search over embedding content text';
+COMMENT ON INDEX idx_embeddings_model_content_hash IS 'Embedded rows by model and content hash, for vector reuse';
+COMMENT ON INDEX idx_embeddings_vector_hnsw_cosine IS 'HNSW approximate nearest-neighbour index for cosine similarity';
+COMMENT ON INDEX idx_embeddings_vector_binary_hamming IS 'Binary-quantized HNSW candidates (Hamming) for cosine search';
@@ -0,0 +1,8 @@
+-- Support the embedding backfill pipeline
+-- Rows without a vector are read in id order (keyset pagination), so a partial
+-- index over just those rows keeps each page an index range scan.
+
+CREATE INDEX idx_embeddings_pending_vector ON embeddings(id)
+    WHERE embedding_vector IS NULL;
+
+COMMENT ON INDEX idx_embeddings_pending_vector IS 'Keyset scan of embeddings that still need a vector';
@@ -0,0 +1,34 @@
+-- Keyset (seek) pagination for the public project listings
+-- Each listing orders by its sort keys plus id as a unique tie-breaker and seeks
+-- with a row comparison such as (stars_count, created_at, id) < (?, ?, ?).
+-- Row comparisons skip NULLs, so the sort columns are made NOT NULL; all of them
+-- already default to 0 / NOW() and are always populated by the application.
+
+UPDATE projects SET stars_count = 0 WHERE stars_count IS NULL;
+UPDATE projects SET forks_count = 0 WHERE forks_count IS NULL;
+UPDATE projects SET created_at = NOW() WHERE created_at IS NULL;
+
+ALTER TABLE projects
+    ALTER COLUMN stars_count SET NOT NULL,
+    ALTER COLUMN forks_count SET NOT NULL,
+    ALTER COLUMN created_at SET NOT NULL;
+
+-- Most starred public projects: ORDER BY stars_count DESC, created_at DESC, id DESC
+CREATE INDEX idx_projects_public_stars_keyset ON projects(stars_count DESC, created_at DESC, id DESC)
+    WHERE visibility = 'PUBLIC' AND status = 'ACTIVE';
+
+-- Trending public projects: ORDER BY stars_count DESC, forks_count DESC, id DESC
+CREATE INDEX idx_projects_public_trending_keyset ON projects(stars_count DESC, forks_count DESC, id DESC)
+    WHERE visibility = 'PUBLIC' AND status = 'ACTIVE';
+
+-- Recently active public projects: ORDER BY last_activity_at DESC, id DESC
+CREATE INDEX idx_projects_public_activity_keyset ON projects(last_activity_at DESC, id DESC)
+    WHERE visibility = 'PUBLIC' AND status = 'ACTIVE';
+
+-- Listing by visibility and status: ORDER BY created_at DESC, id DESC
+CREATE INDEX idx_projects_visibility_status_keyset ON projects(visibility, status, created_at DESC, id DESC);
+
+COMMENT ON INDEX idx_projects_public_stars_keyset IS 'Keyset pagination of most starred public projects';
+COMMENT ON INDEX idx_projects_public_trending_keyset IS 'Keyset pagination of trending public projects';
+COMMENT ON INDEX idx_projects_public_activity_keyset IS 'Keyset pagination of recently active public projects';
+COMMENT ON INDEX idx_projects_visibility_status_keyset IS 'Keyset pagination of projects by visibility and status';
@@ -0,0 +1,15 @@
+-- Indexed full-text search over embeddings.content_text
+-- A GIN index on the tsvector expression turns the @@ match into an index
+-- lookup instead of a sequential scan. It is an expression index rather than a
+-- stored generated column, because adding a stored column rewrites the whole
+-- table under an ACCESS EXCLUSIVE lock. Queries must use the expression
+-- to_tsvector('english', content_text) exactly as written here to match it.
+-- Built CONCURRENTLY, so this script runs outside a transaction (see the .conf file).
+
+-- A failed concurrent build leaves an invalid index behind; drop it so a retry rebuilds it
+DROP INDEX CONCURRENTLY IF EXISTS idx_embeddings_content_tsv;
+
+CREATE INDEX CONCURRENTLY idx_embeddings_content_tsv ON embeddings
+USING GIN (to_tsvector('english', content_text));
+
+COMMENT ON INDEX idx_embeddings_content_tsv IS 'Full-text search over embedding content text';
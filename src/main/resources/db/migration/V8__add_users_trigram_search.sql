@@ -0,0 +1,27 @@
+-- Trigram-indexed user search
+-- Substring searches ('%term%') cannot use B-tree indexes. pg_trgm GIN indexes
+-- serve ILIKE '%term%' and similarity() ranking for terms of 3+ characters;
+-- shorter terms fall back to prefix matches on lower(...) text_pattern_ops indexes.
+-- Built CONCURRENTLY, so this script runs outside a transaction (see the .conf file).
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- A failed concurrent build leaves an invalid index behind; drop it so a retry rebuilds it
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_username_trgm;
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_email_trgm;
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_full_name_trgm;
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_username_lower_prefix;
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_email_lower_prefix;
+
+CREATE INDEX CONCURRENTLY idx_users_username_trgm ON users USING GIN(username gin_trgm_ops);
+CREATE INDEX CONCURRENTLY idx_users_email_trgm ON users USING GIN(email gin_trgm_ops);
+CREATE INDEX CONCURRENTLY idx_users_full_name_trgm ON users USING GIN(full_name gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY idx_users_username_lower_prefix ON users(lower(username) text_pattern_ops);
+CREATE INDEX CONCURRENTLY idx_users_email_lower_prefix ON users(lower(email) text_pattern_ops);
+
+COMMENT ON INDEX idx_users_username_trgm IS 'Trigram index for substring and similarity search on username';
+COMMENT ON INDEX idx_users_email_trgm IS 'Trigram index for substring and similarity search on email';
+COMMENT ON INDEX idx_users_full_name_trgm IS 'Trigram index for substring and similarity search on full name';
+COMMENT ON INDEX idx_users_username_lower_prefix IS 'Case-insensitive prefix search on username for short terms';
+COMMENT ON INDEX idx_users_email_lower_prefix IS 'Case-insensitive prefix search on email for short terms';
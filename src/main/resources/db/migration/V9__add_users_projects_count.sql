@@ -0,0 +1,50 @@
+-- Denormalized project count per user
+-- Maintained by a trigger on projects for inserts, deletes and ownership
+-- transfers, so "top users by project count" is an index scan instead of a
+-- GROUP BY over users x projects.
+
+ALTER TABLE users ADD COLUMN projects_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE users u SET projects_count = c.count
+FROM (SELECT owner_id, COUNT(*) AS count FROM projects GROUP BY owner_id) c
+WHERE u.id = c.owner_id;
+
+ALTER TABLE users ADD CONSTRAINT users_projects_count_non_negative CHECK (projects_count >= 0);
+
+-- Top users by project count: ORDER BY projects_count DESC, id
+CREATE INDEX idx_users_projects_count ON users(projects_count DESC, id);
+
+CREATE OR REPLACE FUNCTION trigger_maintain_users_projects_count()
+RETURNS TRIGGER AS $$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    UPDATE users SET projects_count = projects_count - 1 WHERE id = OLD.owner_id;
+  END IF;
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    UPDATE users SET projects_count = projects_count + 1 WHERE id = NEW.owner_id;
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER maintain_users_projects_count_insert_delete
+    AFTER INSERT OR DELETE ON projects
+    FOR EACH ROW
+    EXECUTE PROCEDURE trigger_maintain_users_projects_count();
+
+CREATE TRIGGER maintain_users_projects_count_transfer
+    AFTER UPDATE OF owner_id ON projects
+    FOR EACH ROW
+    WHEN (OLD.owner_id IS DISTINCT FROM NEW.owner_id)
+    EXECUTE PROCEDURE trigger_maintain_users_projects_count();
+
+-- Count maintenance is not a user edit: only bump updated_at for top-level updates
+DROP TRIGGER set_timestamp_users ON users;
+CREATE TRIGGER set_timestamp_users
+    BEFORE UPDATE ON users
+    FOR EACH ROW
+    WHEN (pg_trigger_depth() = 0)
+    EXECUTE PROCEDURE trigger_set_timestamp();
+
+COMMENT ON COLUMN users.projects_count IS 'Number of projects owned by the user, maintained by trigger';
+COMMENT ON INDEX idx_users_projects_count IS 'Top users by project count';
@@ -0,0 +1,78 @@
+package com.qoderv3.qoder_v3.controller;
+
+import com.qoderv3.qoder_v3.config.SecurityConfig;
+import com.qoderv3.qoder_v3.service.BulkImportService;
+import com.qoderv3.qoder_v3.service.DataExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Web tests for access to the admin data API.
+ */
+@WebMvcTest({ExportController.class, ImportController.class})
+@Import(SecurityConfig.class)
+class AdminApiSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private DataExportService exportService;
+
+    @MockitoBean
+    private BulkImportService importService;
+
+    @Test
+    void whenExportWithoutCredentials_thenUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/export/users")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser
+    void whenExportAsRegularUser_thenForbidden() throws Exception {
+        mockMvc.perform(get("/api/export/users")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void whenExportAsAdmin_thenStreamedWithACsrfCookie() throws Exception {
+        mockMvc.perform(get("/api/export/users"))
+                .andExpect(status().isOk())
+                .andExpect(cookie().exists("XSRF-TOKEN"));
+    }
+
+    @Test
+    @WithMockUser
+    void whenImportAsRegularUser_thenForbidden() throws Exception {
+        mockMvc.perform(post("/api/import/users").with(csrf()).contentType("text/csv").content("username,email\n"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(importService);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void whenImportAsAdminWithoutCsrfToken_thenForbidden() throws Exception {
+        mockMvc.perform(post("/api/import/users").contentType("text/csv").content("username,email\n"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(importService);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void whenImportAsAdminWithCsrfToken_thenImported() throws Exception {
+        mockMvc.perform(post("/api/import/users").with(csrf()).contentType("text/csv").content("username,email\n"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,82 @@
+package com.qoderv3.qoder_v3.persistence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the connection admission semaphore.
+ */
+class AdmissionControlDataSourceTest {
+
+    private DataSource target;
+    private AdmissionControlDataSource dataSource;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        when(target.getConnection()).then(invocation -> mock(Connection.class));
+        dataSource = new AdmissionControlDataSource(target, 2, Duration.ofMillis(50));
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource.bindTo(meterRegistry);
+    }
+
+    @Test
+    void whenAllPermitsHeld_thenNextCallerTimesOut() throws SQLException {
+        // Given
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        // When / Then
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(meterRegistry.get("qoder.db.admission.timeouts").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("qoder.db.admission.in_use").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void whenConnectionClosedTwice_thenPermitReleasedOnce() throws SQLException {
+        // Given
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        // When
+        first.close();
+        first.close();
+
+        // Then - one permit is free again, the other is still held by the open connection
+        Connection third = dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        verify(((ConnectionProxy) first).getTargetConnection(), times(2)).close();
+        assertThat(second.isWrapperFor(ConnectionProxy.class)).isTrue();
+        assertThat(third).isNotNull();
+    }
+
+    @Test
+    void whenTargetFailsToConnect_thenPermitReturned() throws SQLException {
+        // Given
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+        }
+
+        // Then
+        assertThat(meterRegistry.get("qoder.db.admission.in_use").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,47 @@
+package com.qoderv3.qoder_v3.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PgVector text and binary encoding.
+ */
+class PgVectorTest {
+
+    @Test
+    void whenEncodeBinary_thenDecodeReturnsSameValues() throws Exception {
+        // Given
+        PgVector vector = new PgVector(new float[]{0.5f, -1.25f, 3.0f});
+        byte[] bytes = new byte[vector.lengthInBytes()];
+
+        // When
+        vector.toBytes(bytes, 0);
+        PgVector decoded = new PgVector();
+        decoded.setByteValue(bytes, 0);
+
+        // Then
+        assertThat(bytes).hasSize(4 + 3 * Float.BYTES);
+        assertThat(decoded.toArray()).containsExactly(0.5f, -1.25f, 3.0f);
+    }
+
+    @Test
+    void whenParseText_thenReturnComponents() {
+        assertThat(PgVector.parse("[0.1,0.2, 0.3]")).containsExactly(0.1f, 0.2f, 0.3f);
+        assertThat(PgVector.parse("[]")).isEmpty();
+    }
+
+    @Test
+    void whenFormatText_thenRoundTrips() throws Exception {
+        // Given
+        float[] values = {1.0f, 2.5f, -0.75f};
+
+        // When
+        PgVector vector = new PgVector();
+        vector.setValue(PgVector.format(values));
+
+        // Then
+        assertThat(vector.getValue()).isEqualTo("[1.0,2.5,-0.75]");
+        assertThat(vector.toArray()).containsExactly(values);
+    }
+}
@@ -0,0 +1,120 @@
+package com.qoderv3.qoder_v3.persistence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing tests with two in-memory H2 databases standing in for the primary and
+ * a replica; each holds a row naming itself.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource primary = database("primary");
+        DriverManagerDataSource replica = database("replica");
+        routing = new ReplicaRoutingDataSource(primary, Map.of("replica-1", replica), Duration.ofSeconds(5));
+        routing.bindTo(new SimpleMeterRegistry());
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        ReadYourWrites.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void whenTransactionIsReadOnly_thenRoutedToReplica() {
+        assertThat(readOnlyServer()).isEqualTo("replica");
+        assertThat(readWriteServer()).isEqualTo("primary");
+    }
+
+    @Test
+    void whenCallerJustWrote_thenReadsStayOnPrimary() {
+        // Given
+        readWrite.executeWithoutResult(status ->
+                jdbcTemplate.update("UPDATE server SET writes = writes + 1"));
+
+        // When
+        String reader = readOnlyServer();
+
+        // Then
+        assertThat(reader).isEqualTo("primary");
+        ReadYourWrites.clear();
+        assertThat(readOnlyServer()).isEqualTo("replica");
+    }
+
+    @Test
+    void whenReplicaLagCheckFails_thenReadsFallBackToPrimaryUntilItRecovers() {
+        // Given - H2 has no pg_is_in_recovery(), like a replica that cannot be queried
+        ReplicaLagMonitor failing = new ReplicaLagMonitor(routing, "SELECT pg_is_in_recovery()",
+                Duration.ofSeconds(5), new SimpleMeterRegistry());
+        ReplicaLagMonitor healthy = new ReplicaLagMonitor(routing, "SELECT 0", Duration.ofSeconds(5),
+                new SimpleMeterRegistry());
+
+        // When / Then
+        failing.check();
+        assertThat(readOnlyServer()).isEqualTo("primary");
+        healthy.check();
+        assertThat(readOnlyServer()).isEqualTo("replica");
+    }
+
+    @Test
+    void whenReplicaLagsBeyondLimit_thenTakenOutOfRotation() {
+        // Given
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(routing, "SELECT 30", Duration.ofSeconds(5),
+                new SimpleMeterRegistry());
+
+        // When
+        monitor.check();
+
+        // Then
+        assertThat(routing.isReplicaAvailable("replica-1")).isFalse();
+        assertThat(readOnlyServer()).isEqualTo("primary");
+    }
+
+    private String readOnlyServer() {
+        return readOnly.execute(status -> server());
+    }
+
+    private String readWriteServer() {
+        return readWrite.execute(status -> server());
+    }
+
+    private String server() {
+        return jdbcTemplate.queryForObject("SELECT name FROM server", String.class);
+    }
+
+    private static DriverManagerDataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS server (name VARCHAR(20), writes INT)");
+        jdbc.update("DELETE FROM server");
+        jdbc.update("INSERT INTO server VALUES (?, 0)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,132 @@
+package com.qoderv3.qoder_v3.persistence;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the per-method repository metrics.
+ */
+class RepositoryMetricsInterceptorTest {
+
+    interface SampleRepository {
+        List<String> findAll();
+
+        Page<String> findPage();
+
+        Optional<String> findMissing();
+
+        Stream<String> streamAll();
+
+        long count();
+
+        void fail();
+    }
+
+    private SimpleMeterRegistry registry;
+    private SampleRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        ProxyFactory proxyFactory = new ProxyFactory(new SampleRepository() {
+            @Override
+            public List<String> findAll() {
+                return List.of("a", "b", "c");
+            }
+
+            @Override
+            public Page<String> findPage() {
+                return new PageImpl<>(List.of("a", "b"));
+            }
+
+            @Override
+            public Optional<String> findMissing() {
+                return Optional.empty();
+            }
+
+            @Override
+            public Stream<String> streamAll() {
+                return Stream.of("a", "b", "c", "d");
+            }
+
+            @Override
+            public long count() {
+                return 42;
+            }
+
+            @Override
+            public void fail() {
+                throw new QueryTimeoutException("timeout");
+            }
+        });
+        proxyFactory.addAdvice(new RepositoryMetricsInterceptor("SampleRepository", registry));
+        repository = (SampleRepository) proxyFactory.getProxy();
+    }
+
+    @Test
+    void whenQueryReturnsRows_thenLatencyAndRowsRecordedPerMethod() {
+        // When
+        repository.findAll();
+        repository.findAll();
+        repository.findPage();
+        repository.findMissing();
+        repository.count();
+
+        // Then
+        assertThat(timer("findAll", "none").count()).isEqualTo(2);
+        assertThat(rows("findAll").totalAmount()).isEqualTo(6);
+        assertThat(rows("findPage").totalAmount()).isEqualTo(2);
+        assertThat(rows("findMissing").count()).isEqualTo(1);
+        assertThat(rows("findMissing").totalAmount()).isZero();
+        assertThat(timer("count", "none").count()).isEqualTo(1);
+        assertThat(registry.find("qoder.repository.rows").tag("method", "count").summary()).isNull();
+    }
+
+    @Test
+    void whenStreamIsClosed_thenRowsConsumedAreRecorded() {
+        // When
+        try (Stream<String> stream = repository.streamAll()) {
+            assertThat(timer("streamAll", "none").count()).isZero();
+            assertThat(stream.limit(3).toList()).hasSize(3);
+        }
+
+        // Then
+        assertThat(timer("streamAll", "none").count()).isEqualTo(1);
+        assertThat(rows("streamAll").totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    void whenQueryFails_thenTimedWithExceptionTag() {
+        // When
+        assertThatThrownBy(repository::fail).isInstanceOf(QueryTimeoutException.class);
+
+        // Then
+        assertThat(timer("fail", "QueryTimeoutException").count()).isEqualTo(1);
+        assertThat(timer("fail", "none").count()).isZero();
+    }
+
+    private Timer timer(String method, String exception) {
+        return registry.get("qoder.repository.invocations")
+                .tags("repository", "SampleRepository", "method", method, "exception", exception)
+                .timer();
+    }
+
+    private DistributionSummary rows(String method) {
+        return registry.get("qoder.repository.rows").tags("repository", "SampleRepository", "method", method)
+                .summary();
+    }
+}
@@ -0,0 +1,121 @@
+package com.qoderv3.qoder_v3.repository;
+
+import com.qoderv3.qoder_v3.support.PostgresTestContainer;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration test of the online move to the list-partitioned embeddings table:
+ * the V14 mirror trigger, the V15 copy and the V16 reconciliation and swap,
+ * migrated step by step on PostgreSQL.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class EmbeddingPartitionMigrationIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = PostgresTestContainer.create();
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(),
+                postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void whenMigratedWhileWritersRun_thenThePartitionedTableMatchesTheOldOne() {
+        // Given - rows written before the partitioned table exists
+        migrateTo("13");
+        UUID updatedBeforeCopy = insert("CODE_SNIPPET", "updated before the copy, v1");
+        UUID deletedBeforeCopy = insert("CODE_SNIPPET", "deleted before the copy");
+        UUID updatedAfterCopy = insert("USER_PROFILE", "updated after the copy, v1");
+        UUID copiedStale = insert("USER_PROFILE", "copied before a concurrent update");
+
+        // When - V14 mirrors writes to rows the copy has not reached yet
+        migrateTo("14");
+        UUID insertedWhileMirrored = insert("PROJECT_DESCRIPTION", "inserted while mirrored");
+        jdbcTemplate.update("UPDATE embeddings SET content_text = 'updated before the copy, v2' WHERE id = ?",
+                updatedBeforeCopy);
+        jdbcTemplate.update("DELETE FROM embeddings WHERE id = ?", deletedBeforeCopy);
+
+        // Then
+        assertThat(partitionedText(insertedWhileMirrored)).isEqualTo("inserted while mirrored");
+        assertThat(partitionedText(updatedBeforeCopy)).isEqualTo("updated before the copy, v2");
+
+        // When - V15 copies the rest; an update of a copied row is upserted by the mirror
+        migrateTo("15");
+        jdbcTemplate.update("UPDATE embeddings SET content_text = 'updated after the copy, v2' WHERE id = ?",
+                updatedAfterCopy);
+
+        // Then
+        assertThat(partitionedText(updatedBeforeCopy)).isEqualTo("updated before the copy, v2");
+        assertThat(partitionedText(updatedAfterCopy)).isEqualTo("updated after the copy, v2");
+        assertThat(partitionedText(deletedBeforeCopy)).isNull();
+
+        // Given - differences a copy racing concurrent writers leaves behind
+        jdbcTemplate.update("UPDATE embeddings_partitioned SET content_text = 'stale copy' WHERE id = ?", copiedStale);
+        jdbcTemplate.update("DELETE FROM embeddings_partitioned WHERE id = ?", insertedWhileMirrored);
+        UUID ghost = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO embeddings_partitioned (id, content_id, content_type, content_text) "
+                + "VALUES (?, ?, 'COMMIT_MESSAGE', 'deleted while being copied')", ghost, UUID.randomUUID());
+
+        // When - V16 reconciles and swaps the tables
+        migrateTo("16");
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT relkind = 'p' FROM pg_class WHERE oid = 'embeddings'::regclass", Boolean.class)).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass('embeddings_partitioned') IS NULL",
+                Boolean.class)).isTrue();
+        Map<UUID, String> texts = new HashMap<>();
+        jdbcTemplate.query("SELECT id, content_text FROM embeddings",
+                rs -> {
+                    texts.put(rs.getObject("id", UUID.class), rs.getString("content_text"));
+                });
+        assertThat(texts).containsOnly(
+                Map.entry(updatedBeforeCopy, "updated before the copy, v2"),
+                Map.entry(updatedAfterCopy, "updated after the copy, v2"),
+                Map.entry(copiedStale, "copied before a concurrent update"),
+                Map.entry(insertedWhileMirrored, "inserted while mirrored"));
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM embedding_ids", UUID.class))
+                .containsExactlyInAnyOrderElementsOf(texts.keySet());
+    }
+
+    private void migrateTo(String version) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .placeholders(Map.of("hnsw_m", "16", "hnsw_ef_construction", "64",
+                        "hnsw_maintenance_work_mem", "64MB"))
+                .target(version)
+                .load()
+                .migrate();
+    }
+
+    private UUID insert(String contentType, String text) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO embeddings (id, content_id, content_type, content_text) "
+                + "VALUES (?, ?, CAST(? AS embedding_content_type), ?)", id, UUID.randomUUID(), contentType, text);
+        return id;
+    }
+
+    private String partitionedText(UUID id) {
+        return jdbcTemplate.query("SELECT content_text FROM embeddings_partitioned WHERE id = ?",
+                rs -> rs.next() ? rs.getString(1) : null, id);
+    }
+}
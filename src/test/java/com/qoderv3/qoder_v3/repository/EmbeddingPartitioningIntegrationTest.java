@@ -0,0 +1,149 @@
+package com.qoderv3.qoder_v3.repository;
+
+import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+import com.qoderv3.qoder_v3.support.PostgresTestContainer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for the list-partitioned embeddings table, run on
+ * PostgreSQL with the Flyway migrations applied.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=none")
+class EmbeddingPartitioningIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = PostgresTestContainer.create();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void whenMigrated_thenEveryContentTypeHasItsOwnPartition() {
+        // When
+        Integer partitions = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_inherits WHERE inhparent = 'embeddings'::regclass", Integer.class);
+        Integer contentTypes = jdbcTemplate.queryForObject(
+                "SELECT cardinality(enum_range(NULL::embedding_content_type))", Integer.class);
+
+        // Then
+        assertThat(partitions).isEqualTo(contentTypes);
+    }
+
+    @Test
+    void whenInserted_thenTheRowIsStoredInItsContentTypePartition() {
+        // Given
+        UUID id = insert(UUID.randomUUID(), EmbeddingContentType.CODE_SNIPPET, null);
+
+        // When
+        String partition = jdbcTemplate.queryForObject(
+                "SELECT CAST(tableoid::regclass AS text) FROM embeddings WHERE id = ?", String.class, id);
+
+        // Then
+        assertThat(partition).isEqualTo("embeddings_code_snippet");
+    }
+
+    @Test
+    void whenIdIsUsedByAnotherContentType_thenTheInsertIsRejected() {
+        // Given
+        UUID id = insert(UUID.randomUUID(), EmbeddingContentType.CODE_SNIPPET, null);
+
+        // When / Then
+        assertThatThrownBy(() -> insert(id, EmbeddingContentType.USER_PROFILE, null))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("already used by another content_type");
+    }
+
+    @Test
+    void whenContentTypeChanges_thenTheRowMovesAndKeepsItsId() {
+        // Given
+        UUID id = insert(UUID.randomUUID(), EmbeddingContentType.CODE_SNIPPET, null);
+
+        // When
+        jdbcTemplate.update("UPDATE embeddings SET content_type = 'USER_PROFILE' WHERE id = ?", id);
+
+        // Then - the claim moved with the row, so the old content type cannot take the id back
+        assertThat(jdbcTemplate.queryForObject("SELECT CAST(tableoid::regclass AS text) FROM embeddings WHERE id = ?",
+                String.class, id)).isEqualTo("embeddings_user_profile");
+        assertThat(jdbcTemplate.queryForObject("SELECT CAST(content_type AS text) FROM embedding_ids WHERE id = ?",
+                String.class, id)).isEqualTo("USER_PROFILE");
+        assertThatThrownBy(() -> insert(id, EmbeddingContentType.CODE_SNIPPET, null))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void whenDeleted_thenTheIdCanBeReused() {
+        // Given
+        UUID id = insert(UUID.randomUUID(), EmbeddingContentType.CODE_SNIPPET, null);
+
+        // When
+        jdbcTemplate.update("DELETE FROM embeddings WHERE id = ?", id);
+        insert(id, EmbeddingContentType.USER_PROFILE, null);
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject("SELECT CAST(content_type AS text) FROM embedding_ids WHERE id = ?",
+                String.class, id)).isEqualTo("USER_PROFILE");
+    }
+
+    @Test
+    void whenSimilaritySearchIsTyped_thenOnlyThatPartitionIsScanned() {
+        // Given
+        insert(UUID.randomUUID(), EmbeddingContentType.CODE_SNIPPET, vector(0));
+        insert(UUID.randomUUID(), EmbeddingContentType.CODE_SNIPPET, vector(1));
+        insert(UUID.randomUUID(), EmbeddingContentType.USER_PROFILE, vector(0));
+        insert(UUID.randomUUID(), EmbeddingContentType.PROJECT_DESCRIPTION, vector(2));
+
+        // When
+        Integer found = jdbcTemplate.queryForObject("SELECT count(*) FROM find_similar_embeddings("
+                + "CAST(? AS vector), CAST('CODE_SNIPPET' AS embedding_content_type), -1.0, 10)",
+                Integer.class, vector(0));
+
+        // Then - scans made by this transaction so far, per partition
+        Map<String, Long> scans = new HashMap<>();
+        jdbcTemplate.query("SELECT relname, seq_scan + COALESCE(idx_scan, 0) AS scans "
+                + "FROM pg_stat_xact_user_tables WHERE relname LIKE 'embeddings\\_%'",
+                rs -> {
+                    scans.put(rs.getString("relname"), rs.getLong("scans"));
+                });
+        assertThat(found).isEqualTo(2);
+        assertThat(scans.remove("embeddings_code_snippet")).isPositive();
+        assertThat(scans).isNotEmpty().allSatisfy((partition, count) -> assertThat(count).as(partition).isZero());
+    }
+
+    private UUID insert(UUID id, EmbeddingContentType contentType, String vector) {
+        jdbcTemplate.update("INSERT INTO embeddings (id, content_id, content_type, content_text, embedding_vector) "
+                        + "VALUES (?, ?, CAST(? AS embedding_content_type), ?, CAST(CAST(? AS text) AS vector))",
+                id, UUID.randomUUID(), contentType.name(), "chunk of " + contentType, vector);
+        return id;
+    }
+
+    /**
+     * A 1536-dimension unit vector along one axis, as pgvector text
+     */
+    private static String vector(int axis) {
+        float[] components = new float[1536];
+        components[axis] = 1f;
+        return Arrays.toString(components).replace(" ", "");
+    }
+}
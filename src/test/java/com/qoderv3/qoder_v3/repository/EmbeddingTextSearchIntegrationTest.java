@@ -0,0 +1,122 @@
+package com.qoderv3.qoder_v3.repository;
+
+import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+import com.qoderv3.qoder_v3.repository.projection.TextSearchHit;
+import com.qoderv3.qoder_v3.support.PostgresTestContainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the full-text search over embedding content, run on
+ * PostgreSQL with the Flyway migrations applied.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=none")
+class EmbeddingTextSearchIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = PostgresTestContainer.create();
+
+    @Autowired
+    private EmbeddingRepository embeddingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID poolTuning;
+    private UUID poolMention;
+    private UUID poolSnippet;
+
+    @BeforeEach
+    void setUp() {
+        poolTuning = insert(EmbeddingContentType.PROJECT_DOCUMENTATION,
+                "Connection pool tuning: size the connection pool to the number of cores, "
+                        + "then measure connection pool wait time before growing it.");
+        poolMention = insert(EmbeddingContentType.PROJECT_DOCUMENTATION,
+                "The service reads its settings at startup and keeps a small connection pool.");
+        poolSnippet = insert(EmbeddingContentType.CODE_SNIPPET, "// raise the connection pool size here when the cores grow");
+        insert(EmbeddingContentType.PROJECT_DOCUMENTATION, "Rendering templates with Thymeleaf fragments.");
+    }
+
+    @Test
+    void whenSearchRanked_thenBestMatchesComeFirstWithHighlightedSnippets() {
+        // When
+        List<TextSearchHit> hits = embeddingRepository.searchRankedByContentText("connection pool", null, 10);
+
+        // Then
+        assertThat(hits).extracting(TextSearchHit::getId).containsExactlyInAnyOrder(poolTuning, poolMention,
+                poolSnippet);
+        assertThat(hits.get(0).getId()).isEqualTo(poolTuning);
+        assertThat(hits).extracting(TextSearchHit::getRank).isSortedAccordingTo((a, b) -> Double.compare(b, a));
+        assertThat(hits.get(0).getSnippet()).contains("<mark>connection</mark>", "<mark>pool</mark>");
+    }
+
+    @Test
+    void whenSearchRankedWithContentType_thenOnlyThatTypeIsReturned() {
+        // When
+        List<TextSearchHit> hits = embeddingRepository.searchRankedByContentText("connection pool",
+                EmbeddingContentType.CODE_SNIPPET.name(), 10);
+
+        // Then
+        assertThat(hits).extracting(TextSearchHit::getId).containsExactly(poolSnippet);
+        assertThat(hits.get(0).getContentType()).isEqualTo(EmbeddingContentType.CODE_SNIPPET);
+    }
+
+    @Test
+    void whenSearchRankedWithLimit_thenOnlyTheBestMatchesAreReturned() {
+        // When
+        List<TextSearchHit> hits = embeddingRepository.searchRankedByContentText("connection pool", null, 1);
+
+        // Then
+        assertThat(hits).extracting(TextSearchHit::getId).containsExactly(poolTuning);
+    }
+
+    @Test
+    void whenSearchByContentText_thenStemmedTermsMatch() {
+        // When - "templating" and "templates" share the English stem
+        var page = embeddingRepository.searchByContentText("templating", PageRequest.of(0, 10));
+
+        // Then
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.getContent().get(0).getContentText()).contains("Thymeleaf");
+    }
+
+    @Test
+    void whenSearching_thenTheExpressionIndexIsUsed() {
+        // Given - make a sequential scan unattractive on this tiny table
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+
+        // When
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN SELECT id FROM embeddings e "
+                + "WHERE to_tsvector('english', e.content_text) @@ plainto_tsquery('english', 'connection pool')",
+                String.class);
+
+        // Then
+        assertThat(String.join("\n", plan)).contains("Bitmap Index Scan").doesNotContain("Seq Scan");
+    }
+
+    private UUID insert(EmbeddingContentType contentType, String text) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO embeddings (id, content_id, content_type, content_text) "
+                + "VALUES (?, ?, CAST(? AS embedding_content_type), ?)", id, UUID.randomUUID(), contentType.name(), text);
+        return id;
+    }
+}
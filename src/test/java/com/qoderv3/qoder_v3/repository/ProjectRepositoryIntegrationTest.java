@@ -5,6 +5,9 @@ import com.qoderv3.qoder_v3.entity.ProjectStatus;
 import com.qoderv3.qoder_v3.entity.ProjectVisibility;
 import com.qoderv3.qoder_v3.entity.User;
 import com.qoderv3.qoder_v3.entity.UserStatus;
+import com.qoderv3.qoder_v3.repository.projection.ProjectSummary;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,14 +15,18 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * Integration tests for ProjectRepository to verify JPA entity mappings and repository operations.
  */
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @ActiveProfiles("test")
 class ProjectRepositoryIntegrationTest {
 
@@ -257,6 +264,95 @@ class ProjectRepositoryIntegrationTest {
         assertThat(project.getFullName()).isEqualTo("projectowner/full-name-test");
     }
 
+    @Test
+    void whenPagingMostStarredWithKeyset_thenEveryPublicProjectIsReturnedOnceInOrder() {
+        // Given
+        int[] stars = {5, 40, 12, 0, 33};
+        for (int i = 0; i < stars.length; i++) {
+            Project project = createProject("Starred " + i, "starred-" + i, testUser);
+            project.setStarsCount(stars[i]);
+            projectRepository.save(project);
+        }
+        Project hidden = createProject("Private", "private", testUser);
+        hidden.setVisibility(ProjectVisibility.PRIVATE);
+        hidden.setStarsCount(100);
+        projectRepository.save(hidden);
+        entityManager.flush();
+
+        // When - start after a synthetic row that sorts before every real one
+        List<Integer> seen = new ArrayList<>();
+        int afterStars = Integer.MAX_VALUE;
+        OffsetDateTime afterCreatedAt = OffsetDateTime.now().plusDays(1);
+        UUID afterId = new UUID(-1L, -1L);
+        List<ProjectSummary> page;
+        while (!(page = projectRepository.findMostStarredProjectsAfter(afterStars, afterCreatedAt, afterId, 2))
+                .isEmpty()) {
+            assertThat(page).hasSizeLessThanOrEqualTo(2);
+            page.forEach(summary -> seen.add(summary.getStarsCount()));
+            ProjectSummary last = page.get(page.size() - 1);
+            afterStars = last.getStarsCount();
+            afterCreatedAt = last.getCreatedAt();
+            afterId = last.getId();
+        }
+
+        // Then
+        assertThat(seen).containsExactly(40, 33, 12, 5, 0);
+    }
+
+    @Test
+    void whenPagingRecentlyActiveWithKeyset_thenRowValueComparisonSkipsPreviousPages() {
+        // Given
+        OffsetDateTime now = OffsetDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            Project project = createProject("Active " + i, "active-" + i, testUser);
+            project.setLastActivityAt(now.minusHours(i));
+            projectRepository.save(project);
+        }
+        Project stale = createProject("Stale", "stale", testUser);
+        stale.setLastActivityAt(now.minusDays(30));
+        projectRepository.save(stale);
+        entityManager.flush();
+        OffsetDateTime since = now.minusDays(7);
+
+        // When
+        List<ProjectSummary> first = projectRepository.findRecentlyActiveProjectsAfter(since, now.plusDays(1),
+                new UUID(-1L, -1L), 3);
+        ProjectSummary last = first.get(first.size() - 1);
+        List<ProjectSummary> second = projectRepository.findRecentlyActiveProjectsAfter(since,
+                last.getLastActivityAt(), last.getId(), 3);
+
+        // Then
+        assertThat(first).extracting(ProjectSummary::getSlug).containsExactly("active-0", "active-1", "active-2");
+        assertThat(second).extracting(ProjectSummary::getSlug).containsExactly("active-3", "active-4");
+    }
+
+    @Test
+    void whenFindWithOwnerByIdIn_thenProjectsAndOwnersLoadInOneStatement() {
+        // Given - each project has its own owner, so lazy owners would cost a query each
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            User owner = new User();
+            owner.setUsername("owner" + i);
+            owner.setEmail("owner" + i + "@example.com");
+            owner.setStatus(UserStatus.ACTIVE);
+            userRepository.save(owner);
+            ids.add(projectRepository.save(createProject("Owned " + i, "owned-" + i, owner)).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        List<Project> projects = projectRepository.findWithOwnerByIdIn(ids);
+        List<String> owners = projects.stream().map(project -> project.getOwner().getUsername()).toList();
+
+        // Then
+        assertThat(owners).containsExactlyInAnyOrder("owner0", "owner1", "owner2");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
     private Project createProject(String name, String slug, User owner) {
         Project project = new Project();
         project.setName(name);
@@ -0,0 +1,111 @@
+package com.qoderv3.qoder_v3.repository;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.qoderv3.qoder_v3.config.HibernateCacheConfig;
+import com.qoderv3.qoder_v3.config.HibernateCacheProperties;
+import com.qoderv3.qoder_v3.entity.User;
+import com.qoderv3.qoder_v3.entity.UserStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the second-level cache on user lookups. Each repository
+ * call runs in its own transaction so reads go through the shared cache rather
+ * than a test-wide persistence context.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(HibernateCacheConfig.class)
+@EnableConfigurationProperties(HibernateCacheProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserRepositoryCacheIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void whenFindByUsernameTwice_thenSecondLookupIsServedFromCache() {
+        // Given
+        userRepository.save(user("cacheduser"));
+        entityManagerFactory.getCache().evictAll();
+
+        // When
+        assertThat(userRepository.findByUsername("cacheduser")).isPresent();
+        long entityHitsAfterFirst = statistics.getSecondLevelCacheHitCount();
+        assertThat(userRepository.findByUsername("cacheduser")).isPresent();
+
+        // Then
+        assertThat(statistics.getNaturalIdCacheHitCount()).isPositive();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(entityHitsAfterFirst);
+        assertThat(userRepository.findByUsername("missinguser")).isEmpty();
+    }
+
+    @Test
+    void whenUserIsRenamed_thenCachedLookupsReflectTheChange() {
+        // Given
+        User user = userRepository.save(user("beforerename"));
+        assertThat(userRepository.findByUsername("beforerename")).isPresent();
+
+        // When
+        user.setUsername("afterrename");
+        user.setBio("Updated bio");
+        userRepository.save(user);
+
+        // Then
+        assertThat(userRepository.findByUsername("beforerename")).isEmpty();
+        assertThat(userRepository.findByUsername("afterrename"))
+                .hasValueSatisfying(found -> assertThat(found.getBio()).isEqualTo("Updated bio"));
+    }
+
+    @Test
+    void whenContextStarts_thenItOwnsItsCacheManager() {
+        // Then - the provider default is shared by every context in the JVM
+        CacheManager shared = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        assertThat(hibernateCacheManager).isNotSameAs(shared);
+        assertThat(hibernateCacheManager.getCacheNames()).contains(User.class.getName());
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setStatus(UserStatus.ACTIVE);
+        return user;
+    }
+}
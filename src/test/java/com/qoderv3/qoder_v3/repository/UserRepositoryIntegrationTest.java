@@ -2,12 +2,17 @@ package com.qoderv3.qoder_v3.repository;
 
 import com.qoderv3.qoder_v3.entity.User;
 import com.qoderv3.qoder_v3.entity.UserStatus;
+import com.qoderv3.qoder_v3.repository.projection.UserProjectCount;
+import com.qoderv3.qoder_v3.repository.projection.UserSummary;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -161,6 +166,91 @@ class UserRepositoryIntegrationTest {
         assertThat(userRepository.countByEmailVerifiedTrue()).isEqualTo(2);
     }
 
+    @Test
+    void whenSearchUsersBySimilarity_thenClosestMatchComesFirst() {
+        // Given
+        User exact = createUser("alice", "alice@example.com", UserStatus.ACTIVE);
+        User partial = createUser("malice_dev", "dev@example.com", UserStatus.ACTIVE);
+        User byName = createUser("someone", "someone@example.com", UserStatus.ACTIVE);
+        byName.setFullName("Alice Wonder");
+        User other = createUser("bob", "bob@example.com", UserStatus.ACTIVE);
+        userRepository.save(exact);
+        userRepository.save(partial);
+        userRepository.save(byName);
+        userRepository.save(other);
+        entityManager.flush();
+
+        // When
+        List<UserSummary> results = userRepository.searchUsersBySimilarity("%ALICE%", "alice", 10);
+
+        // Then
+        assertThat(results).extracting(UserSummary::getUsername)
+                .containsExactlyInAnyOrder("alice", "malice_dev", "someone")
+                .first().isEqualTo("alice");
+    }
+
+    @Test
+    void whenSearchUsersByPrefix_thenMatchesUsernameOrEmailStart() {
+        // Given
+        userRepository.save(createUser("abby", "abby@example.com", UserStatus.ACTIVE));
+        userRepository.save(createUser("zed", "ab.zed@example.com", UserStatus.ACTIVE));
+        userRepository.save(createUser("cab", "cab@example.com", UserStatus.ACTIVE));
+        entityManager.flush();
+
+        // When & Then
+        assertThat(userRepository.searchUsersByPrefix("ab%", 10))
+                .extracting(UserSummary::getUsername).containsExactly("abby", "zed");
+    }
+
+    @Test
+    void whenFindSummariesByStatus_thenOnlyListColumnsAreReturned() {
+        // Given
+        User active = createUser("summaryuser", "summary@example.com", UserStatus.ACTIVE);
+        active.setBio("A long biography that list views never show");
+        userRepository.save(active);
+        userRepository.save(createUser("suspended", "suspended@example.com", UserStatus.SUSPENDED));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        Page<UserSummary> page = userRepository.findSummariesByStatus(UserStatus.ACTIVE, PageRequest.of(0, 10));
+
+        // Then
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        UserSummary summary = page.getContent().get(0);
+        assertThat(summary.getId()).isEqualTo(active.getId());
+        assertThat(summary.getStatus()).isEqualTo(UserStatus.ACTIVE);
+        assertThat(summary.getDisplayName()).isEqualTo("summaryuser");
+        assertThat(summary.getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    void whenProjectsCountIsMaintained_thenTopUsersAreOrderedByIt() {
+        // Given - the trigger that maintains projects_count only exists in PostgreSQL
+        User few = userRepository.save(createUser("fewprojects", "few@example.com", UserStatus.ACTIVE));
+        User many = userRepository.save(createUser("manyprojects", "many@example.com", UserStatus.ACTIVE));
+        userRepository.save(createUser("noprojects", "none@example.com", UserStatus.ACTIVE));
+        entityManager.flush();
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE users SET projects_count = CASE WHEN id = :many THEN 5 ELSE 2 END " +
+                        "WHERE id IN (:many, :few)")
+                .setParameter("many", many.getId())
+                .setParameter("few", few.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        // When
+        List<UserProjectCount> top = userRepository.findTopUserProjectCounts(PageRequest.of(0, 10));
+
+        // Then
+        assertThat(top).extracting(UserProjectCount::getUsername).containsExactly("manyprojects", "fewprojects");
+        assertThat(top.get(0).getProjectsCount()).isEqualTo(5);
+        assertThat(userRepository.findUserProjectCountsByIdIn(List.of(few.getId())))
+                .extracting(UserProjectCount::getProjectsCount).containsExactly(2);
+        assertThat(userRepository.findTopUsersByProjectCount(PageRequest.of(0, 1)))
+                .extracting(User::getUsername).containsExactly("manyprojects");
+    }
+
     private User createUser(String username, String email, UserStatus status) {
         User user = new User();
         user.setUsername(username);
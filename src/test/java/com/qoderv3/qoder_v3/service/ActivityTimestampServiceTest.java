@@ -0,0 +1,138 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.ActivityTimestampProperties;
+import com.qoderv3.qoder_v3.entity.Project;
+import com.qoderv3.qoder_v3.entity.User;
+import com.qoderv3.qoder_v3.repository.ProjectRepository;
+import com.qoderv3.qoder_v3.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the write-behind activity and login timestamps.
+ */
+class ActivityTimestampServiceTest {
+
+    private static final OffsetDateTime T1 = OffsetDateTime.parse("2024-01-01T10:00:00Z");
+    private static final OffsetDateTime T2 = OffsetDateTime.parse("2024-01-01T10:00:05Z");
+
+    private ProjectRepository projectRepository;
+    private UserRepository userRepository;
+    private ActivityTimestampService timestampService;
+
+    @BeforeEach
+    void setUp() {
+        projectRepository = mock(ProjectRepository.class);
+        userRepository = mock(UserRepository.class);
+        ActivityTimestampProperties properties = new ActivityTimestampProperties();
+        properties.setMaxBatchSize(2);
+        timestampService = new ActivityTimestampService(projectRepository, userRepository, properties,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void whenRowTouchedRepeatedly_thenOnlyLatestTimestampIsWrittenOnce() {
+        // Given
+        UUID projectId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        timestampService.recordProjectActivity(projectId, T1);
+        timestampService.recordProjectActivity(projectId, T2);
+        timestampService.recordProjectActivity(projectId, T1);
+        timestampService.recordUserLogin(userId, T1);
+        when(projectRepository.applyLastActivityAt(anyMap())).thenReturn(1);
+        when(userRepository.applyLastLoginAt(anyMap())).thenReturn(1);
+
+        // Then - reads merge persisted and pending timestamps
+        assertThat(timestampService.getLastActivityAt(project(projectId, T1))).isEqualTo(T2);
+
+        // When
+        assertThat(timestampService.flush()).isEqualTo(2);
+        assertThat(timestampService.flush()).isZero();
+
+        // Then
+        verify(projectRepository, times(1)).applyLastActivityAt(Map.of(projectId, T2));
+        verify(userRepository, times(1)).applyLastLoginAt(Map.of(userId, T1));
+        assertThat(timestampService.getLastActivityAt(project(projectId, T1))).isEqualTo(T1);
+    }
+
+    @Test
+    void whenFlushFails_thenTimestampsAreRequeuedKeepingTheLatest() {
+        // Given
+        UUID projectId = UUID.randomUUID();
+        timestampService.recordProjectActivity(projectId, T1);
+        when(projectRepository.applyLastActivityAt(anyMap())).thenThrow(new QueryTimeoutException("timeout"));
+
+        // When
+        assertThat(timestampService.flush()).isZero();
+        timestampService.recordProjectActivity(projectId, T2);
+
+        // Then
+        assertThat(timestampService.getLastActivityAt(project(projectId, null))).isEqualTo(T2);
+        verify(userRepository, never()).applyLastLoginAt(anyMap());
+    }
+
+    @Test
+    void whenMoreRowsThanBatchSize_thenWrittenInSeveralStatements() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            timestampService.recordUserLogin(UUID.randomUUID(), T1);
+        }
+        when(userRepository.applyLastLoginAt(anyMap())).thenAnswer(call -> ((Map<?, ?>) call.getArgument(0)).size());
+
+        // When
+        int updated = timestampService.flush();
+
+        // Then
+        assertThat(updated).isEqualTo(5);
+        verify(userRepository, times(3)).applyLastLoginAt(anyMap());
+        verify(projectRepository, never()).applyLastActivityAt(anyMap());
+    }
+
+    @Test
+    void whenKnownUserAuthenticates_thenLoginIsWrittenBehind() {
+        // Given
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.empty());
+        when(userRepository.applyLastLoginAt(anyMap())).thenReturn(1);
+
+        // When - the operator account has no user row
+        timestampService.onAuthenticationSuccess(new AuthenticationSuccessEvent(
+                UsernamePasswordAuthenticationToken.authenticated("alice", null, List.of())));
+        timestampService.onAuthenticationSuccess(new AuthenticationSuccessEvent(
+                UsernamePasswordAuthenticationToken.authenticated("admin", null, List.of())));
+
+        // Then
+        OffsetDateTime loginAt = timestampService.getLastLoginAt(user);
+        assertThat(loginAt).isNotNull();
+        assertThat(timestampService.flush()).isEqualTo(1);
+        verify(userRepository).applyLastLoginAt(Map.of(user.getId(), loginAt));
+    }
+
+    private static Project project(UUID id, OffsetDateTime lastActivityAt) {
+        Project project = new Project();
+        project.setId(id);
+        project.setLastActivityAt(lastActivityAt);
+        return project;
+    }
+}
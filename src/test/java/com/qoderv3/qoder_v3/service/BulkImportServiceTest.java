@@ -0,0 +1,88 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.service.BulkImportService.ImportTable;
+import com.qoderv3.qoder_v3.service.BulkImportService.StagedColumn;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the header handling and SQL generation of the bulk import.
+ */
+class BulkImportServiceTest {
+
+    private static final ImportTable TABLE = new ImportTable("users", List.of(
+            new StagedColumn("id", "uuid", "COALESCE(id, uuid_generate_v4())", true),
+            new StagedColumn("username", "text", "username", true),
+            new StagedColumn("email", "text", "email", true),
+            new StagedColumn("status", "text", "CAST(COALESCE(status, 'ACTIVE') AS user_status)", true),
+            new StagedColumn("projects_count", "integer", null, false),
+            new StagedColumn("created_at", "timestamptz", "COALESCE(created_at, NOW())", true)),
+            List.of("username", "email"), "", List.of("username"), List.of());
+
+    @Test
+    void whenReadingHeader_thenDataRowsAreLeftForCopy() throws Exception {
+        // Given
+        InputStream in = new ByteArrayInputStream("\uFEFFusername,email\r\nalice,a@example.com\r\n"
+                .getBytes(StandardCharsets.UTF_8));
+
+        // When
+        String header = BulkImportService.readHeader(in);
+
+        // Then
+        assertThat(header).isEqualTo("username,email");
+        assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("alice,a@example.com\r\n");
+    }
+
+    @Test
+    void whenHeaderIsInvalid_thenRejectedBeforeCopy() {
+        assertThatThrownBy(() -> TABLE.headerColumns("username,email,password_hash"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("password_hash");
+        assertThatThrownBy(() -> TABLE.headerColumns("username"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("email");
+        assertThatThrownBy(() -> TABLE.headerColumns("username,email,username"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void whenHeaderIsSubset_thenOnlyThoseColumnsAreWrittenAndUpdated() {
+        // Given
+        List<String> header = TABLE.headerColumns("\"Email\", username, projects_count, id, created_at");
+
+        // When
+        String upsert = TABLE.upsertSql(header);
+
+        // Then - COPY follows file order; status keeps its table default and derived columns are skipped
+        assertThat(header).containsExactly("email", "username", "projects_count", "id", "created_at");
+        assertThat(upsert)
+                .startsWith("INSERT INTO users (id, username, email, created_at)")
+                .contains("FROM import_users WHERE reject_reason IS NULL")
+                .endsWith("ON CONFLICT (id) DO UPDATE SET username = EXCLUDED.username, email = EXCLUDED.email")
+                .doesNotContain("status", "projects_count");
+    }
+
+    @Test
+    void whenTableHasCompositeKey_thenConflictTargetsItAndKeyColumnsAreNotUpdated() {
+        // Given
+        ImportTable partitioned = new ImportTable("embeddings", List.of(
+                new StagedColumn("id", "uuid", "COALESCE(id, uuid_generate_v4())", true),
+                new StagedColumn("content_type", "text", "CAST(content_type AS embedding_content_type)", true),
+                new StagedColumn("content_text", "text", "content_text", true)),
+                List.of("content_type", "content_text"), "", List.of(), List.of(), List.of("id", "content_type"));
+
+        // When
+        String upsert = partitioned.upsertSql(partitioned.headerColumns("id,content_type,content_text"));
+
+        // Then
+        assertThat(upsert)
+                .endsWith("ON CONFLICT (id, content_type) DO UPDATE SET content_text = EXCLUDED.content_text");
+    }
+}
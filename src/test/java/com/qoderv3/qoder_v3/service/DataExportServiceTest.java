@@ -0,0 +1,118 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.qoderv3.qoder_v3.entity.Project;
+import com.qoderv3.qoder_v3.entity.User;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepository;
+import com.qoderv3.qoder_v3.repository.ProjectRepository;
+import com.qoderv3.qoder_v3.repository.UserRepository;
+import com.qoderv3.qoder_v3.service.DataExportService.Dataset;
+import com.qoderv3.qoder_v3.service.DataExportService.Format;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the streaming NDJSON and CSV export.
+ */
+class DataExportServiceTest {
+
+    private ProjectRepository projectRepository;
+    private UserRepository userRepository;
+    private EntityManager entityManager;
+    private DataExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        projectRepository = mock(ProjectRepository.class);
+        userRepository = mock(UserRepository.class);
+        entityManager = mock(EntityManager.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new DataExportService(projectRepository, userRepository, mock(EmbeddingRepository.class),
+                entityManager, objectMapper, transactionManager, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void whenExportingUsersAsNdjson_thenOneObjectPerLineWithoutCredentials() throws Exception {
+        // Given
+        User alice = user(1, "alice");
+        alice.setPasswordHash("secret-hash");
+        alice.setPasswordResetToken("reset-token");
+        User bob = user(2, "bob");
+        AtomicBoolean closed = new AtomicBoolean();
+        when(userRepository.streamAllForExport()).thenReturn(Stream.of(alice, bob).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long rows = exportService.export(Dataset.USERS, Format.NDJSON, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        Map<String, Object> first = new ObjectMapper().readValue(lines[0], new TypeReference<>() {
+        });
+        assertThat(first.get("username")).isEqualTo("alice");
+        assertThat(first).doesNotContainKeys("password_hash", "password_reset_token");
+        assertThat(out.toString(StandardCharsets.UTF_8)).doesNotContain("secret-hash", "reset-token");
+        assertThat(closed).isTrue();
+        verify(entityManager).detach(alice);
+        verify(entityManager).detach(bob);
+    }
+
+    @Test
+    void whenExportingProjectsAsCsv_thenHeaderAndEscapedValues() {
+        // Given
+        Project project = new Project();
+        project.setId(new UUID(0, 7));
+        project.setName("Widgets, \"Pro\"");
+        project.setSlug("widgets");
+        project.setOwner(user(1, "alice"));
+        project.setTags(new String[]{"java", "cli"});
+        when(projectRepository.streamAllForExport()).thenReturn(Stream.of(project));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        exportService.export(Dataset.PROJECTS, Format.CSV, out);
+
+        // Then
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).startsWith("id,name,slug,description,detailed_description,owner_id,");
+        assertThat(lines.get(1)).startsWith(project.getId() + ",\"Widgets, \"\"Pro\"\"\",widgets,,,"
+                + new UUID(0, 1) + ",");
+        assertThat(lines.get(1)).contains("\"[\"\"java\"\",\"\"cli\"\"]\"");
+    }
+
+    private static User user(int id, String username) {
+        User user = new User();
+        user.setId(new UUID(0, id));
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        return user;
+    }
+}
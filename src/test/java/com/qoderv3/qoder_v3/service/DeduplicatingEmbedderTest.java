@@ -0,0 +1,107 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.EmbeddingDeduplicationProperties;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for content-hash vector reuse.
+ */
+class DeduplicatingEmbedderTest {
+
+    private static final String MODEL = "text-embedding-ada-002";
+
+    private EmbeddingModel embeddingModel;
+    private EmbeddingRepository embeddingRepository;
+    private DeduplicatingEmbedder embedder;
+
+    @BeforeEach
+    void setUp() {
+        embeddingModel = mock(EmbeddingModel.class);
+        embeddingRepository = mock(EmbeddingRepository.class);
+        when(embeddingModel.embed(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            List<float[]> vectors = new ArrayList<>();
+            texts.forEach(text -> vectors.add(new float[]{text.length(), 0f, 1f}));
+            return vectors;
+        });
+        embedder = new DeduplicatingEmbedder(embeddingModel, embeddingRepository,
+                new EmbeddingDeduplicationProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void whenSameTextTwiceInOneCall_thenModelEmbedsItOnce() {
+        // When
+        List<float[]> vectors = embedder.embed(List.of("alpha", "beta", "alpha"), MODEL);
+
+        // Then
+        verify(embeddingModel).embed(List.of("alpha", "beta"));
+        assertThat(vectors).hasSize(3);
+        assertThat(vectors.get(2)).containsExactly(vectors.get(0));
+    }
+
+    @Test
+    void whenTextWasEmbeddedBefore_thenCachedVectorIsReused() {
+        // Given
+        embedder.embed(List.of("alpha"), MODEL);
+
+        // When
+        List<float[]> vectors = embedder.embed(List.of("alpha"), MODEL);
+
+        // Then
+        assertThat(vectors.get(0)).containsExactly(5f, 0f, 1f);
+        verify(embeddingModel, times(1)).embed(anyList());
+        verify(embeddingRepository, times(1)).findVectorsByContentHashes(anyCollection(), eq(MODEL));
+    }
+
+    @Test
+    void whenTextIsStored_thenStoredVectorIsReusedWithoutModelCall() {
+        // Given
+        String hash = DeduplicatingEmbedder.hash("stored text");
+        when(embeddingRepository.findVectorsByContentHashes(Set.of(hash), MODEL))
+                .thenReturn(Map.of(hash, new float[]{9f, 9f, 9f}));
+
+        // When
+        List<float[]> vectors = embedder.embed(List.of("stored text"), MODEL);
+
+        // Then
+        assertThat(vectors.get(0)).containsExactly(9f, 9f, 9f);
+        verify(embeddingModel, never()).embed(anyList());
+    }
+
+    @Test
+    void whenModelDiffers_thenVectorIsNotReused() {
+        // Given
+        embedder.embed(List.of("alpha"), MODEL);
+
+        // When
+        embedder.embed(List.of("alpha"), "other-model");
+
+        // Then
+        verify(embeddingModel, times(2)).embed(anyList());
+    }
+
+    @Test
+    void whenHash_thenMatchesSha256OfUtf8Text() {
+        assertThat(DeduplicatingEmbedder.hash("abc"))
+                .isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+}
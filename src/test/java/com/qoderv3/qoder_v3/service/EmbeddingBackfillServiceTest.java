@@ -0,0 +1,110 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.EmbeddingBackfillProperties;
+import com.qoderv3.qoder_v3.config.EmbeddingDeduplicationProperties;
+import com.qoderv3.qoder_v3.dto.BackfillReport;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepository;
+import com.qoderv3.qoder_v3.repository.projection.PendingEmbedding;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the embedding backfill pipeline.
+ */
+class EmbeddingBackfillServiceTest {
+
+    private EmbeddingRepository embeddingRepository;
+    private EmbeddingModel embeddingModel;
+    private EmbeddingBackfillProperties properties;
+    private EmbeddingBackfillService backfillService;
+
+    @BeforeEach
+    void setUp() {
+        embeddingRepository = mock(EmbeddingRepository.class);
+        embeddingModel = mock(EmbeddingModel.class);
+        properties = new EmbeddingBackfillProperties();
+        properties.setDimensions(3);
+        properties.setMaxTokensPerBatch(10);
+        properties.setMaxItemsPerBatch(2);
+        properties.setConcurrency(2);
+        backfillService = new EmbeddingBackfillService(embeddingRepository, embedder(), properties,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void whenSplitPage_thenBatchesRespectTokenBudgetAndItemLimit() {
+        // Given - 4 chars per token, so 20 chars is 5 tokens and 60 chars is 15 tokens
+        List<PendingEmbedding> page = List.of(pending("a".repeat(20)), pending("b".repeat(20)),
+                pending("c".repeat(20)), pending("d".repeat(60)), pending("e".repeat(4)));
+
+        // When
+        List<List<PendingEmbedding>> batches = backfillService.toMicroBatches(page);
+
+        // Then
+        assertThat(batches).extracting(List::size).containsExactly(2, 1, 1, 1);
+    }
+
+    @Test
+    void whenBackfill_thenEveryPendingRowIsEmbeddedAndWrittenInBatches() {
+        // Given
+        List<PendingEmbedding> page = List.of(pending("one"), pending("two"), pending("three"));
+        when(embeddingRepository.findPendingEmbeddingsAfter(any(UUID.class), anyInt()))
+                .thenReturn(page)
+                .thenReturn(List.of());
+        when(embeddingModel.embed(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            List<float[]> vectors = new ArrayList<>();
+            texts.forEach(text -> vectors.add(new float[]{1f, 2f, 3f}));
+            return vectors;
+        });
+        when(embeddingRepository.batchFillMissingVectors(anyList(), eq("text-embedding-ada-002")))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        // When
+        BackfillReport report = backfillService.backfill();
+
+        // Then
+        assertThat(report.embedded()).isEqualTo(3);
+        assertThat(report.failed()).isZero();
+        assertThat(report.batches()).isEqualTo(2);
+        verify(embeddingRepository, times(2)).batchFillMissingVectors(anyList(), eq("text-embedding-ada-002"));
+        assertThat(backfillService.isRunning()).isFalse();
+    }
+
+    private static PendingEmbedding pending(String text) {
+        UUID id = UUID.randomUUID();
+        return new PendingEmbedding() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getContentText() {
+                return text;
+            }
+        };
+    }
+
+    private DeduplicatingEmbedder embedder() {
+        return new DeduplicatingEmbedder(embeddingModel, embeddingRepository, new EmbeddingDeduplicationProperties(),
+                new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,137 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.EmbeddingBackfillProperties;
+import com.qoderv3.qoder_v3.config.EmbeddingDeduplicationProperties;
+import com.qoderv3.qoder_v3.config.EmbeddingChunkingProperties;
+import com.qoderv3.qoder_v3.dto.ChunkingReport;
+import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepository;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepositoryCustom.ChunkInsert;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for chunked content embedding.
+ */
+class EmbeddingChunkingServiceTest {
+
+    private static final UUID CONTENT_ID = UUID.randomUUID();
+
+    private EmbeddingRepository embeddingRepository;
+    private EmbeddingModel embeddingModel;
+    private EmbeddingChunkingProperties properties;
+    private EmbeddingBackfillProperties modelProperties;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        embeddingRepository = mock(EmbeddingRepository.class);
+        embeddingModel = mock(EmbeddingModel.class);
+        properties = new EmbeddingChunkingProperties();
+        properties.setMaxTokens(10);
+        properties.setOverlapTokens(0);
+        modelProperties = new EmbeddingBackfillProperties();
+        modelProperties.setDimensions(3);
+        modelProperties.setMaxItemsPerBatch(2);
+        when(embeddingModel.embed(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            List<float[]> vectors = new ArrayList<>();
+            texts.forEach(text -> vectors.add(new float[]{1f, 2f, 3f}));
+            return vectors;
+        });
+        when(embeddingRepository.insertChunks(eq(CONTENT_ID), any(), anyList(), anyInt(), eq("text-embedding-ada-002")))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(2)).size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenEmbedLongText_thenChunksAreEmbeddedInBatchesAndReplacedWithOneWrite() {
+        // Given - 40 chars per chunk, so each sentence becomes its own chunk
+        String text = "First sentence of the documentation. Second sentence of the docs. Third and final one.";
+
+        // When
+        ChunkingReport report = service().embed(CONTENT_ID, EmbeddingContentType.PROJECT_DOCUMENTATION, text);
+
+        // Then - two model batches, then the old chunks are deleted and all new ones written at once
+        ArgumentCaptor<List<ChunkInsert>> chunks = ArgumentCaptor.forClass(List.class);
+        InOrder order = inOrder(embeddingModel, embeddingRepository);
+        order.verify(embeddingModel, times(2)).embed(anyList());
+        order.verify(embeddingRepository).deleteByContentIdAndContentType(CONTENT_ID,
+                EmbeddingContentType.PROJECT_DOCUMENTATION);
+        order.verify(embeddingRepository).insertChunks(eq(CONTENT_ID),
+                eq(EmbeddingContentType.PROJECT_DOCUMENTATION), chunks.capture(), eq(3),
+                eq("text-embedding-ada-002"));
+        List<ChunkInsert> written = chunks.getValue();
+        assertThat(written).extracting(ChunkInsert::index).containsExactly(0, 1, 2);
+        assertThat(written).extracting(ChunkInsert::text).containsExactly(
+                "First sentence of the documentation.", "Second sentence of the docs.", "Third and final one.");
+        assertThat(report.chunks()).isEqualTo(3);
+        assertThat(report.batches()).isEqualTo(2);
+        assertThat(report.truncated()).isFalse();
+    }
+
+    @Test
+    void whenTextExceedsChunkLimit_thenItFailsAndNothingIsWrittenAfterTheLimit() {
+        // Given
+        properties.setMaxChunks(2);
+        String text = "One sentence right here. Two sentence right here. Three sentence right here.";
+        EmbeddingChunkingService service = service();
+
+        // When / Then - nothing is written, keeping the previous chunks
+        assertThatThrownBy(() -> service.embed(CONTENT_ID, EmbeddingContentType.PROJECT_DOCUMENTATION, text))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("exceeds 2 chunks");
+        verify(embeddingRepository, never()).deleteByContentIdAndContentType(any(), any());
+        verify(embeddingRepository, never()).insertChunks(any(), any(), anyList(), anyInt(), any());
+    }
+
+    @Test
+    void whenTextExceedsChunkLimitWithTruncation_thenRestIsNotEmbeddedAndReported() {
+        // Given
+        properties.setMaxChunks(2);
+        properties.setTruncate(true);
+        String text = "One sentence right here. Two sentence right here. Three sentence right here.";
+
+        // When
+        ChunkingReport report = service().embed(CONTENT_ID, EmbeddingContentType.PROJECT_DOCUMENTATION, text);
+
+        // Then
+        assertThat(report.chunks()).isEqualTo(2);
+        assertThat(report.truncated()).isTrue();
+        verify(embeddingModel, times(1)).embed(anyList());
+        verify(embeddingRepository).insertChunks(eq(CONTENT_ID), eq(EmbeddingContentType.PROJECT_DOCUMENTATION),
+                anyList(), eq(2), eq("text-embedding-ada-002"));
+    }
+
+    private EmbeddingChunkingService service() {
+        return new EmbeddingChunkingService(embeddingRepository, embedder(), properties, modelProperties,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    }
+
+    private DeduplicatingEmbedder embedder() {
+        return new DeduplicatingEmbedder(embeddingModel, embeddingRepository, new EmbeddingDeduplicationProperties(),
+                new SimpleMeterRegistry());
+    }
+}
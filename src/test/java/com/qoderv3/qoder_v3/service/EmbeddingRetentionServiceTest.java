@@ -0,0 +1,96 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.EmbeddingRetentionProperties;
+import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for per content type embedding retention.
+ */
+class EmbeddingRetentionServiceTest {
+
+    private EmbeddingRepository embeddingRepository;
+    private EmbeddingRetentionProperties properties;
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private EmbeddingRetentionService service;
+
+    @BeforeEach
+    void setUp() {
+        embeddingRepository = mock(EmbeddingRepository.class);
+        properties = new EmbeddingRetentionProperties();
+        transactionManager = mock(PlatformTransactionManager.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new EmbeddingRetentionService(embeddingRepository, properties, transactionManager, meterRegistry);
+    }
+
+    @Test
+    void whenNoMaxAgeConfigured_thenNothingIsDeleted() {
+        // When
+        int deleted = service.purgeExpired();
+
+        // Then
+        assertThat(deleted).isZero();
+        verifyNoInteractions(embeddingRepository);
+    }
+
+    @Test
+    void whenMaxAgeConfigured_thenEachTypeIsDeletedInItsOwnTransaction() {
+        // Given
+        properties.getMaxAge().put(EmbeddingContentType.COMMIT_MESSAGE, Duration.ofDays(90));
+        properties.getMaxAge().put(EmbeddingContentType.COMMENT, Duration.ofDays(180));
+        when(embeddingRepository.deleteOldEmbeddingsByContentType(eq(EmbeddingContentType.COMMIT_MESSAGE), any()))
+                .thenReturn(5);
+        when(embeddingRepository.deleteOldEmbeddingsByContentType(eq(EmbeddingContentType.COMMENT), any()))
+                .thenReturn(2);
+        OffsetDateTime before = OffsetDateTime.now();
+
+        // When
+        int deleted = service.purgeExpired();
+
+        // Then
+        assertThat(deleted).isEqualTo(7);
+        ArgumentCaptor<OffsetDateTime> olderThan = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(embeddingRepository).deleteOldEmbeddingsByContentType(eq(EmbeddingContentType.COMMIT_MESSAGE),
+                olderThan.capture());
+        assertThat(olderThan.getValue()).isBetween(before.minusDays(90), OffsetDateTime.now().minusDays(90));
+        verify(transactionManager, times(2)).commit(any());
+        assertThat(meterRegistry.get("qoder.embeddings.retention.deleted")
+                .tag("content_type", "COMMIT_MESSAGE").counter().count()).isEqualTo(5.0);
+    }
+
+    @Test
+    void whenOneTypeFails_thenOtherTypesAreStillDeleted() {
+        // Given
+        properties.getMaxAge().put(EmbeddingContentType.COMMIT_MESSAGE, Duration.ofDays(90));
+        properties.getMaxAge().put(EmbeddingContentType.COMMENT, Duration.ofDays(180));
+        when(embeddingRepository.deleteOldEmbeddingsByContentType(eq(EmbeddingContentType.COMMIT_MESSAGE), any()))
+                .thenThrow(new IllegalStateException("lock timeout"));
+        when(embeddingRepository.deleteOldEmbeddingsByContentType(eq(EmbeddingContentType.COMMENT), any()))
+                .thenReturn(3);
+
+        // When
+        int deleted = service.purgeExpired();
+
+        // Then
+        assertThat(deleted).isEqualTo(3);
+        verify(transactionManager).rollback(any());
+    }
+}
@@ -0,0 +1,97 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.VectorQuantizationProperties;
+import com.qoderv3.qoder_v3.config.VectorSearchProperties;
+import com.qoderv3.qoder_v3.dto.SimilarEmbedding;
+import com.qoderv3.qoder_v3.entity.EmbeddingContentType;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepository;
+import com.qoderv3.qoder_v3.vector.VectorQuantization;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for similarity search routing.
+ */
+class EmbeddingSimilarityServiceTest {
+
+    private static final float[] QUERY = {1f, 0f, 0f};
+
+    private EmbeddingRepository embeddingRepository;
+    private ObjectProvider<EmbeddingVectorIndexService> vectorIndex;
+    private VectorQuantizationProperties properties;
+    private EmbeddingSimilarityService similarityService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        embeddingRepository = mock(EmbeddingRepository.class);
+        vectorIndex = mock(ObjectProvider.class);
+        properties = new VectorQuantizationProperties();
+        properties.getModes().put(EmbeddingContentType.COMMENT, VectorQuantization.BINARY);
+        properties.setRerankFactor(10);
+        similarityService = new EmbeddingSimilarityService(embeddingRepository, vectorIndex, properties,
+                new VectorSearchProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void whenContentTypeIsQuantized_thenCandidatesAreTakenFromItsRepresentation() {
+        // When
+        similarityService.findSimilar(QUERY, EmbeddingContentType.COMMENT, 0.5, 10);
+
+        // Then
+        verify(embeddingRepository).findSimilarReranked(QUERY, EmbeddingContentType.COMMENT,
+                VectorQuantization.BINARY, 0.5, 10, 100);
+    }
+
+    @Test
+    void whenContentTypeHasNoMode_thenDefaultModeIsSearchedWithDefaultEfSearch() {
+        // When
+        similarityService.findSimilar(QUERY, EmbeddingContentType.CODE_SNIPPET, 0.5, 2);
+
+        // Then
+        verify(embeddingRepository).setHnswEfSearch(40);
+        verify(embeddingRepository).findSimilarReranked(QUERY, EmbeddingContentType.CODE_SNIPPET,
+                VectorQuantization.NONE, 0.5, 2, 2);
+    }
+
+    @Test
+    void whenEfSearchIsBelowCandidates_thenItIsRaisedToCandidates() {
+        // When
+        similarityService.findSimilar(QUERY, EmbeddingContentType.COMMENT, 0.5, 10, 16);
+
+        // Then
+        verify(embeddingRepository).setHnswEfSearch(100);
+    }
+
+    @Test
+    void whenInProcessIndexIsReady_thenDatabaseIsNotQueried() {
+        // Given
+        EmbeddingVectorIndexService index = mock(EmbeddingVectorIndexService.class);
+        SimilarEmbedding hit = new SimilarEmbedding(UUID.randomUUID(), UUID.randomUUID(),
+                EmbeddingContentType.COMMENT, 0.9);
+        when(vectorIndex.getIfAvailable()).thenReturn(index);
+        when(index.search(QUERY, EmbeddingContentType.COMMENT, 0.5, 10)).thenReturn(Optional.of(List.of(hit)));
+
+        // When
+        List<SimilarEmbedding> results = similarityService.findSimilar(QUERY, EmbeddingContentType.COMMENT, 0.5, 10);
+
+        // Then
+        assertThat(results).containsExactly(hit);
+        verify(embeddingRepository, never()).findSimilarReranked(any(), any(), any(), anyDouble(), anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,157 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.HybridSearchProperties;
+import com.qoderv3.qoder_v3.config.VectorSearchProperties;
+import com.qoderv3.qoder_v3.config.WorkerExecutors;
+import com.qoderv3.qoder_v3.dto.ProjectSearchResult;
+import com.qoderv3.qoder_v3.entity.Project;
+import com.qoderv3.qoder_v3.entity.ProjectVisibility;
+import com.qoderv3.qoder_v3.repository.EmbeddingRepository;
+import com.qoderv3.qoder_v3.repository.ProjectRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for hybrid project search.
+ */
+class HybridProjectSearchServiceTest {
+
+    private final UUID a = UUID.randomUUID();
+    private final UUID b = UUID.randomUUID();
+    private final UUID c = UUID.randomUUID();
+
+    private ProjectRepository projectRepository;
+    private EmbeddingRepository embeddingRepository;
+    private EmbeddingModel embeddingModel;
+    private HybridProjectSearchService searchService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        projectRepository = mock(ProjectRepository.class);
+        embeddingRepository = mock(EmbeddingRepository.class);
+        embeddingModel = mock(EmbeddingModel.class);
+        searchService = new HybridProjectSearchService(projectRepository, embeddingRepository, embeddingModel,
+                mock(ObjectProvider.class), new HybridSearchProperties(), new VectorSearchProperties(),
+                new WorkerExecutors(new MockEnvironment()), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchService.shutdown();
+    }
+
+    @Test
+    void whenFusingRankings_thenProjectsInBothListsWin() {
+        // When - b is second in both lists, a and c are first in one list only
+        List<HybridProjectSearchService.Candidate> fused = searchService.fuse(List.of(a, b), List.of(c, b));
+
+        // Then
+        assertThat(fused).extracting(candidate -> candidate.id).startsWith(b);
+        assertThat(fused.get(0).score).isEqualTo(2.0 / 62);
+        assertThat(fused).hasSize(3);
+    }
+
+    @Test
+    void whenSemanticSourceFails_thenLexicalResultsAreHydratedInOneFetch() {
+        // Given
+        when(projectRepository.findProjectIdsByFullText(anyString(), anyInt())).thenReturn(List.of(a, b));
+        when(embeddingModel.embed(anyString())).thenThrow(new IllegalStateException("model unavailable"));
+        Project hidden = project(b, ProjectVisibility.PRIVATE);
+        Project visible = project(a, ProjectVisibility.PUBLIC);
+        when(projectRepository.findWithOwnerByIdIn(any())).thenReturn(List.of(hidden, visible));
+
+        // When
+        List<ProjectSearchResult> results = searchService.search("vector search", 10);
+
+        // Then - private projects are dropped after hydration
+        assertThat(results).extracting(ProjectSearchResult::project).containsExactly(visible);
+        assertThat(results.get(0).lexicalRank()).isEqualTo(1);
+        assertThat(results.get(0).semanticRank()).isNull();
+    }
+
+    @Test
+    void whenLeadingCandidatesAreFilteredOut_thenLaterCandidatesFillTheLimit() {
+        // Given - the first window (twice the limit) holds only private projects
+        when(projectRepository.findProjectIdsByFullText(anyString(), anyInt())).thenReturn(List.of(a, b, c));
+        when(embeddingModel.embed(anyString())).thenThrow(new IllegalStateException("model unavailable"));
+        Project visible = project(c, ProjectVisibility.PUBLIC);
+        when(projectRepository.findWithOwnerByIdIn(any())).thenReturn(
+                List.of(project(a, ProjectVisibility.PRIVATE), project(b, ProjectVisibility.PRIVATE), visible));
+
+        // When
+        List<ProjectSearchResult> results = searchService.search("vector search", 1);
+
+        // Then
+        assertThat(results).extracting(ProjectSearchResult::project).containsExactly(visible);
+        verify(projectRepository, times(2)).findWithOwnerByIdIn(any());
+    }
+
+    @Test
+    void whenBothSourcesHang_thenTheyShareOneDeadlineAndAreInterrupted() throws Exception {
+        // Given
+        HybridSearchProperties properties = new HybridSearchProperties();
+        properties.setCandidateTimeout(Duration.ofMillis(300));
+        HybridProjectSearchService slowService = new HybridProjectSearchService(projectRepository,
+                embeddingRepository, embeddingModel, mockProvider(), properties, new VectorSearchProperties(),
+                new WorkerExecutors(new MockEnvironment()), new SimpleMeterRegistry());
+        CountDownLatch interrupted = new CountDownLatch(2);
+        Answer<Object> hang = invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        };
+        when(projectRepository.findProjectIdsByFullText(anyString(), anyInt())).thenAnswer(hang);
+        when(embeddingModel.embed(anyString())).thenAnswer(hang);
+
+        try {
+            // When
+            long start = System.nanoTime();
+            List<ProjectSearchResult> results = slowService.search("vector search", 10);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            // Then - one timeout in total, not one per source, and both queries are cancelled
+            assertThat(results).isEmpty();
+            assertThat(elapsed).isLessThan(Duration.ofMillis(550));
+            assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            slowService.shutdown();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<EmbeddingVectorIndexService> mockProvider() {
+        return mock(ObjectProvider.class);
+    }
+
+    private static Project project(UUID id, ProjectVisibility visibility) {
+        Project project = new Project();
+        project.setId(id);
+        project.setVisibility(visibility);
+        return project;
+    }
+}
@@ -0,0 +1,106 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.ProjectCounterProperties;
+import com.qoderv3.qoder_v3.config.ProjectTrendingProperties;
+import com.qoderv3.qoder_v3.entity.Project;
+import com.qoderv3.qoder_v3.repository.ProjectRepository;
+import com.qoderv3.qoder_v3.repository.ProjectRepositoryCustom.CounterDelta;
+import com.qoderv3.qoder_v3.repository.ProjectRepositoryCustom.TrendingWeights;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the write-behind project counters.
+ */
+class ProjectCounterServiceTest {
+
+    private ProjectRepository projectRepository;
+    private ProjectCounterService counterService;
+
+    @BeforeEach
+    void setUp() {
+        projectRepository = mock(ProjectRepository.class);
+        counterService = new ProjectCounterService(projectRepository, new ProjectCounterProperties(),
+                new ProjectTrendingProperties(), mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void whenUnstarBelowZero_thenClampMatchesPerClickUpdates() {
+        // Given - persisted 0: +1 -> 1, -1 -> 0, -1 -> 0 (clamped), +1 -> 1
+        Project project = project(0, 0);
+        counterService.incrementStars(project.getId());
+        counterService.decrementStars(project.getId());
+        counterService.decrementStars(project.getId());
+        counterService.incrementStars(project.getId());
+        counterService.incrementForks(project.getId());
+
+        // Then - reads merge persisted and pending deltas
+        assertThat(counterService.getStarsCount(project)).isEqualTo(1);
+        assertThat(counterService.getStarsCount(project(5, 0))).isEqualTo(5);
+        assertThat(counterService.getForksCount(project)).isEqualTo(1);
+
+        // When
+        when(projectRepository.applyCounterDeltas(anyList(), any())).thenReturn(1);
+        assertThat(counterService.flush()).isEqualTo(1);
+
+        // Then - one batched write carrying the composed delta
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CounterDelta>> captor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<TrendingWeights> weights = ArgumentCaptor.forClass(TrendingWeights.class);
+        verify(projectRepository).applyCounterDeltas(captor.capture(), weights.capture());
+        CounterDelta delta = captor.getValue().get(0);
+        assertThat(delta.starsNet()).isZero();
+        assertThat(delta.starsMinPrefix()).isEqualTo(-1);
+        assertThat(delta.forksDelta()).isEqualTo(1);
+        assertThat(delta.lastActivityAt()).isNotNull();
+        // The net-zero stars do not count towards trending; the fork and the activity do
+        assertThat(delta.trendingWeight(weights.getValue())).isEqualTo(2.25);
+        assertThat(counterService.getStarsCount(project)).isZero();
+    }
+
+    @Test
+    void whenFlushFails_thenDeltasAreRequeuedBeforeNewerClicks() {
+        // Given
+        Project project = project(0, 0);
+        counterService.decrementStars(project.getId());
+        counterService.incrementStars(project.getId());
+        when(projectRepository.applyCounterDeltas(anyList(), any())).thenThrow(new QueryTimeoutException("timeout"));
+
+        // When
+        assertThat(counterService.flush()).isZero();
+        counterService.decrementStars(project.getId());
+
+        // Then - from 0: 0 (clamped) -> 1 -> 0; from 3: 2 -> 3 -> 2
+        assertThat(counterService.getStarsCount(project)).isZero();
+        assertThat(counterService.getStarsCount(project(3, 0))).isEqualTo(2);
+    }
+
+    @Test
+    void whenNothingPending_thenFlushSkipsDatabase() {
+        assertThat(counterService.flush()).isZero();
+        verify(projectRepository, never()).applyCounterDeltas(anyList(), any());
+    }
+
+    private static Project project(int stars, int forks) {
+        Project project = new Project();
+        project.setId(UUID.nameUUIDFromBytes(new byte[]{1}));
+        project.setStarsCount(stars);
+        project.setForksCount(forks);
+        return project;
+    }
+}
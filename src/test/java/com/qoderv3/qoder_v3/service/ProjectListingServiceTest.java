@@ -0,0 +1,112 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.dto.CursorPage;
+import com.qoderv3.qoder_v3.repository.ProjectRepository;
+import com.qoderv3.qoder_v3.repository.projection.ProjectSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for cursor-paginated project listings.
+ */
+class ProjectListingServiceTest {
+
+    private ProjectRepository projectRepository;
+    private ProjectListingService listingService;
+
+    @BeforeEach
+    void setUp() {
+        projectRepository = mock(ProjectRepository.class);
+        listingService = new ProjectListingService(projectRepository);
+    }
+
+    @Test
+    void whenMoreRowsThanPageSize_thenNextCursorSeeksPastLastRow() {
+        // Given
+        ProjectSummary first = project(10, "2024-01-02T00:00:00Z");
+        ProjectSummary second = project(7, "2024-01-01T00:00:00Z");
+        ProjectSummary third = project(7, "2023-12-31T00:00:00Z");
+        when(projectRepository.findMostStarredProjectsAfter(anyInt(), any(), any(), eq(3)))
+                .thenReturn(List.of(first, second, third));
+
+        // When
+        CursorPage<ProjectSummary> page = listingService.getMostStarredProjects(null, 2);
+
+        // Then
+        assertThat(page.content()).containsExactly(first, second);
+        assertThat(page.hasNext()).isTrue();
+
+        // When - the cursor is passed back
+        when(projectRepository.findMostStarredProjectsAfter(7, second.getCreatedAt(), second.getId(), 3))
+                .thenReturn(List.of(third));
+        CursorPage<ProjectSummary> next = listingService.getMostStarredProjects(page.nextCursor(), 2);
+
+        // Then
+        verify(projectRepository).findMostStarredProjectsAfter(7, second.getCreatedAt(), second.getId(), 3);
+        assertThat(next.content()).containsExactly(third);
+        assertThat(next.hasNext()).isFalse();
+    }
+
+    @Test
+    void whenTrendingPageIsFull_thenNextCursorSeeksPastLastScore() {
+        // Given
+        ProjectSummary first = trending(98.25);
+        ProjectSummary second = trending(97.1234567890123);
+        when(projectRepository.findTrendingProjectsAfter(Double.MAX_VALUE, new UUID(-1L, -1L), 2))
+                .thenReturn(List.of(first, second));
+
+        // When
+        CursorPage<ProjectSummary> page = listingService.getTrendingProjects(null, 1);
+        listingService.getTrendingProjects(page.nextCursor(), 1);
+
+        // Then
+        assertThat(page.content()).containsExactly(first);
+        verify(projectRepository).findTrendingProjectsAfter(98.25, first.getId(), 2);
+    }
+
+    @Test
+    void whenCursorFromAnotherListingOrMalformed_thenRejected() {
+        // Given
+        ProjectSummary project = project(1, "2024-01-01T00:00:00Z");
+        when(projectRepository.findMostStarredProjectsAfter(anyInt(), any(), any(), anyInt()))
+                .thenReturn(List.of(project, project(0, "2023-01-01T00:00:00Z")));
+        String cursor = listingService.getMostStarredProjects(null, 1).nextCursor();
+        OffsetDateTime since = OffsetDateTime.parse("2020-01-01T00:00:00Z");
+
+        // Then
+        assertThatThrownBy(() -> listingService.getRecentlyActiveProjects(since, cursor, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> listingService.getMostStarredProjects("not a cursor!", 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> listingService.getMostStarredProjects(null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ProjectSummary trending(double score) {
+        return new SpelAwareProxyProjectionFactory().createProjection(ProjectSummary.class, Map.of(
+                "id", UUID.randomUUID(),
+                "trendingScore", score));
+    }
+
+    private static ProjectSummary project(int stars, String createdAt) {
+        return new SpelAwareProxyProjectionFactory().createProjection(ProjectSummary.class, Map.of(
+                "id", UUID.randomUUID(),
+                "starsCount", stars,
+                "createdAt", OffsetDateTime.parse(createdAt)));
+    }
+}
@@ -0,0 +1,96 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.entity.Project;
+import com.qoderv3.qoder_v3.entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for reporting project owners to the leaderboard.
+ */
+class ProjectOwnerListenerTest {
+
+    private UserLeaderboardService leaderboard;
+    private ProjectOwnerListener listener;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = mock(UserLeaderboardService.class);
+        listener = new ProjectOwnerListener(
+                new StaticListableBeanFactory(Map.of("leaderboard", leaderboard))
+                        .getBeanProvider(UserLeaderboardService.class),
+                new StaticListableBeanFactory().getBeanProvider(EntityManager.class));
+    }
+
+    @Test
+    void whenProjectIsTransferred_thenPreviousAndNewOwnersAreMarked() {
+        // Given
+        User previous = user();
+        User next = user();
+        Project project = project(previous);
+        listener.onLoaded(project);
+
+        // When
+        project.setOwner(next);
+        listener.onUpdated(project);
+
+        // Then
+        verify(leaderboard).markChanged(previous.getId());
+        verify(leaderboard).markChanged(next.getId());
+    }
+
+    @Test
+    void whenProjectIsUpdatedWithoutTransfer_thenNoOwnerIsMarked() {
+        // Given
+        Project project = project(user());
+        listener.onLoaded(project);
+
+        // When
+        project.setDescription("Updated");
+        listener.onUpdated(project);
+
+        // Then - the owner's project count did not change
+        verify(leaderboard, never()).markChanged(any());
+    }
+
+    @Test
+    void whenProjectIsCreatedThenTransferred_thenOwnersAreTrackedFromThePersist() {
+        // Given
+        User previous = user();
+        User next = user();
+        Project project = project(previous);
+        listener.onCreatedOrDeleted(project);
+
+        // When
+        project.setOwner(next);
+        listener.onUpdated(project);
+
+        // Then - once for the insert and once for the transfer
+        verify(leaderboard, times(2)).markChanged(previous.getId());
+        verify(leaderboard).markChanged(next.getId());
+    }
+
+    private static Project project(User owner) {
+        Project project = new Project();
+        project.setId(UUID.randomUUID());
+        project.setOwner(owner);
+        return project;
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+}
@@ -0,0 +1,108 @@
+package com.qoderv3.qoder_v3.service;
+
+import com.qoderv3.qoder_v3.config.UserLeaderboardProperties;
+import com.qoderv3.qoder_v3.repository.UserRepository;
+import com.qoderv3.qoder_v3.repository.projection.UserProjectCount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the in-memory project count leaderboard.
+ */
+class UserLeaderboardServiceTest {
+
+    private UserRepository userRepository;
+    private UserLeaderboardService leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        UserLeaderboardProperties properties = new UserLeaderboardProperties();
+        properties.setSize(2);
+        leaderboard = new UserLeaderboardService(userRepository, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void whenChangedUserOvertakesLeader_thenMergedWithoutReload() {
+        // Given - capacity is twice the size, so four rows are loaded
+        UserProjectCount first = user(1, 9);
+        UserProjectCount second = user(2, 7);
+        UserProjectCount third = user(3, 5);
+        UserProjectCount fourth = user(4, 5);
+        when(userRepository.findTopUserProjectCounts(PageRequest.of(0, 4)))
+                .thenReturn(List.of(first, second, third, fourth));
+        assertThat(leaderboard.getTopUsers(10)).containsExactly(first, second);
+
+        // When
+        UserProjectCount promoted = user(3, 12);
+        when(userRepository.findUserProjectCountsByIdIn(anyCollection())).thenReturn(List.of(promoted));
+        leaderboard.markChanged(promoted.getId());
+        leaderboard.refresh();
+
+        // Then - served from memory, one full load in total
+        assertThat(leaderboard.getTopUsers(2)).extracting(UserProjectCount::getId)
+                .containsExactly(promoted.getId(), first.getId());
+        verify(userRepository, times(1)).findTopUserProjectCounts(any());
+    }
+
+    @Test
+    void whenLeadersDropOutOfKnownRange_thenReloaded() {
+        // Given
+        UserProjectCount first = user(1, 9);
+        UserProjectCount second = user(2, 7);
+        UserProjectCount third = user(3, 5);
+        UserProjectCount fourth = user(4, 5);
+        when(userRepository.findTopUserProjectCounts(PageRequest.of(0, 4)))
+                .thenReturn(List.of(first, second, third, fourth));
+        leaderboard.refresh();
+
+        // When - three users fall below the last loaded row, where unloaded users may rank
+        when(userRepository.findUserProjectCountsByIdIn(anyCollection()))
+                .thenReturn(List.of(user(1, 1), user(2, 1), user(3, 0)));
+        leaderboard.markChanged(first.getId());
+        leaderboard.markChanged(second.getId());
+        leaderboard.markChanged(third.getId());
+        leaderboard.refresh();
+
+        // Then
+        verify(userRepository, times(2)).findTopUserProjectCounts(any());
+    }
+
+    @Test
+    void whenNothingChanged_thenRefreshSkipsDatabase() {
+        // Given
+        when(userRepository.findTopUserProjectCounts(any())).thenReturn(List.of(user(1, 3)));
+        leaderboard.refresh();
+
+        // When
+        leaderboard.refresh();
+
+        // Then
+        verify(userRepository, times(1)).findTopUserProjectCounts(any());
+        verify(userRepository, never()).findUserProjectCountsByIdIn(anyCollection());
+        assertThat(leaderboard.getTopUsers(0)).isEmpty();
+    }
+
+    private static UserProjectCount user(int id, int projectsCount) {
+        return new SpelAwareProxyProjectionFactory().createProjection(UserProjectCount.class, Map.of(
+                "id", new UUID(0, id),
+                "username", "user" + id,
+                "projectsCount", projectsCount));
+    }
+}
@@ -0,0 +1,46 @@
+package com.qoderv3.qoder_v3.support;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * H2 stand-in for the pg_trgm {@code similarity(text, text)} function, registered
+ * as an alias by the {@code h2-functions.sql} script that the test profile runs
+ * through {@code spring.sql.init}. Follows pg_trgm: words of alphanumeric
+ * characters are lower-cased, padded with two leading blanks and one trailing
+ * blank, and similarity is the Jaccard index of the two trigram sets.
+ */
+public final class H2TrigramFunctions {
+
+    private H2TrigramFunctions() {
+    }
+
+    public static double similarity(String a, String b) {
+        if (a == null || b == null) {
+            return 0d;
+        }
+        Set<String> left = trigrams(a);
+        Set<String> right = trigrams(b);
+        if (left.isEmpty() || right.isEmpty()) {
+            return 0d;
+        }
+        Set<String> common = new HashSet<>(left);
+        common.retainAll(right);
+        return (double) common.size() / (left.size() + right.size() - common.size());
+    }
+
+    private static Set<String> trigrams(String value) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : value.toLowerCase(Locale.ROOT).split("[^\\p{Alnum}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,26 @@
+package com.qoderv3.qoder_v3.support;
+
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * PostgreSQL with pgvector for tests of native queries and migrations that H2
+ * cannot run. Tests declare it as a {@code @Container @ServiceConnection} field
+ * and are skipped when Docker is not available.
+ */
+public final class PostgresTestContainer {
+
+    private static final DockerImageName IMAGE = DockerImageName.parse("pgvector/pgvector:pg16")
+            .asCompatibleSubstituteFor("postgres");
+
+    private PostgresTestContainer() {
+    }
+
+    /**
+     * Creates a container that is started by the Testcontainers JUnit extension
+     * @return a new, unstarted container
+     */
+    public static PostgreSQLContainer<?> create() {
+        return new PostgreSQLContainer<>(IMAGE);
+    }
+}
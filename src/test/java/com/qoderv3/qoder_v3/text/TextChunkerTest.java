@@ -0,0 +1,87 @@
+package com.qoderv3.qoder_v3.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the streaming text chunker.
+ */
+class TextChunkerTest {
+
+    @Test
+    void whenChunkProse_thenChunksEndOnSentencesAndCarryOverlap() {
+        // Given - 4 chars per token, so a chunk holds at most 80 chars and the overlap 20
+        TextChunker chunker = new TextChunker(20, 5, 4.0);
+        String text = "The first sentence is here. A second sentence follows it. Third one now.\nLast bit.";
+
+        // When
+        List<String> chunks = chunk(chunker, text);
+
+        // Then
+        assertThat(chunks).containsExactly(
+                "The first sentence is here. A second sentence follows it. Third one now.",
+                "Third one now. Last bit.");
+        assertThat(chunks).allSatisfy(chunk -> assertThat(chunker.estimateTokens(chunk)).isLessThanOrEqualTo(20));
+    }
+
+    @Test
+    void whenSentenceFitsOverlap_thenItIsRepeatedInNextChunk() {
+        // Given
+        TextChunker chunker = new TextChunker(10, 4, 4.0);
+        String text = "Alpha beta gamma delta. Short one. Epsilon zeta eta theta.";
+
+        // When
+        List<String> chunks = chunk(chunker, text);
+
+        // Then
+        assertThat(chunks).containsExactly("Alpha beta gamma delta. Short one.", "Short one. Epsilon zeta eta theta.");
+    }
+
+    @Test
+    void whenChunkCodeBlock_thenItIsKeptWholeOrCutAtLines() {
+        // Given
+        TextChunker chunker = new TextChunker(10, 0, 4.0);
+        String code = "```\n" + "line\n".repeat(12) + "```";
+
+        // When
+        List<String> small = chunk(chunker, "Intro.\n\n```\nint a;\n```\n\nOutro.");
+        List<String> large = chunk(chunker, code);
+
+        // Then
+        assertThat(small).containsExactly("Intro.\n\n```\nint a;\n```\n\nOutro.");
+        assertThat(String.join("\n", large)).isEqualTo(code);
+        assertThat(large).hasSizeGreaterThan(1)
+                .allSatisfy(chunk -> assertThat(chunk.length()).isLessThanOrEqualTo(40));
+    }
+
+    @Test
+    void whenRunOnTextExceedsBudget_thenItIsCutAtWhitespace() {
+        // Given
+        TextChunker chunker = new TextChunker(5, 0, 4.0);
+        String text = "word ".repeat(12).strip();
+
+        // When
+        List<String> chunks = chunk(chunker, text);
+
+        // Then
+        assertThat(chunks).allSatisfy(chunk -> {
+            assertThat(chunk.length()).isLessThanOrEqualTo(20);
+            assertThat(chunk).matches("word( word)*");
+        });
+        assertThat(String.join(" ", chunks)).isEqualTo(text);
+    }
+
+    @Test
+    void whenOverlapNotSmallerThanBudget_thenRejected() {
+        assertThatThrownBy(() -> new TextChunker(10, 10, 4.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<String> chunk(TextChunker chunker, String text) {
+        return chunker.stream(new StringReader(text)).toList();
+    }
+}
@@ -0,0 +1,172 @@
+package com.qoderv3.qoder_v3.vector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for the in-memory HNSW index.
+ */
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+
+    @Test
+    void whenSearch_thenRecallIsCloseToExactSearch() {
+        // Given
+        Random random = new Random(7);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 100, 1L);
+        for (int i = 0; i < 2000; i++) {
+            index.add(UUID.randomUUID(), UUID.randomUUID(), i, randomVector(random));
+        }
+
+        // When
+        int hits = 0;
+        int expected = 0;
+        for (int q = 0; q < 50; q++) {
+            float[] query = randomVector(random);
+            Set<UUID> exact = ids(index.exactSearch(query, 10));
+            for (HnswIndex.Result result : index.search(query, 10, 64)) {
+                if (exact.contains(result.entry().id())) {
+                    hits++;
+                }
+            }
+            expected += exact.size();
+        }
+
+        // Then
+        assertThat((double) hits / expected).isGreaterThan(0.9);
+    }
+
+    @Test
+    void whenRemoveVector_thenItIsNotReturned() {
+        // Given
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50, 1L);
+        Random random = new Random(11);
+        UUID target = UUID.randomUUID();
+        float[] vector = randomVector(random);
+        index.add(target, UUID.randomUUID(), 0L, vector);
+        for (int i = 0; i < 200; i++) {
+            index.add(UUID.randomUUID(), UUID.randomUUID(), i, randomVector(random));
+        }
+        assertThat(index.search(vector, 1, 32).get(0).entry().id()).isEqualTo(target);
+
+        // When
+        index.remove(target);
+
+        // Then
+        assertThat(ids(index.search(vector, 10, 32))).doesNotContain(target);
+        assertThat(index.size()).isEqualTo(200);
+        assertThat(index.deletedCount()).isEqualTo(1);
+
+        // When
+        index.compact();
+
+        // Then
+        assertThat(index.deletedCount()).isZero();
+        assertThat(index.size()).isEqualTo(200);
+    }
+
+    @Test
+    void whenAddExistingId_thenVectorIsReplaced() {
+        // Given
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50, 1L);
+        Random random = new Random(13);
+        UUID id = UUID.randomUUID();
+        index.add(id, UUID.randomUUID(), 0L, randomVector(random));
+        float[] replacement = randomVector(random);
+
+        // When
+        index.add(id, UUID.randomUUID(), 0L, replacement);
+
+        // Then
+        List<HnswIndex.Result> results = index.search(replacement, 1, 16);
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).entry().id()).isEqualTo(id);
+        assertThat(results.get(0).similarity()).isCloseTo(1f, within(1e-4f));
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void whenWritesRunDuringCompaction_thenTheyAreKeptInTheRebuiltGraph() throws Exception {
+        // Given
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50, 1L);
+        Random random = new Random(17);
+        List<UUID> initial = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            UUID id = UUID.randomUUID();
+            initial.add(id);
+            index.add(id, UUID.randomUUID(), i, randomVector(random));
+        }
+        for (int i = 0; i < 500; i++) {
+            index.remove(initial.get(i));
+        }
+        List<UUID> added = new ArrayList<>();
+        Set<UUID> removed = new HashSet<>(initial.subList(500, 600));
+        float[][] vectors = new float[200][];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = randomVector(random);
+        }
+
+        // When - writes race the rebuild; they must not block on it or be lost
+        Thread writer = new Thread(() -> {
+            for (float[] vector : vectors) {
+                UUID id = UUID.randomUUID();
+                added.add(id);
+                index.add(id, UUID.randomUUID(), 0L, vector);
+            }
+            removed.forEach(index::remove);
+        });
+        writer.start();
+        index.compact();
+        writer.join();
+        index.compact();
+
+        // Then
+        assertThat(index.size()).isEqualTo(1500 - removed.size() + added.size());
+        assertThat(index.deletedCount()).isZero();
+        added.forEach(id -> assertThat(index.contains(id)).isTrue());
+        removed.forEach(id -> assertThat(index.contains(id)).isFalse());
+        assertThat(index.search(vectors[0], 1, 64).get(0).entry().id()).isEqualTo(added.get(0));
+    }
+
+    @Test
+    void whenClear_thenIndexIsEmptyWithoutTombstones() {
+        // Given
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50, 1L);
+        Random random = new Random(19);
+        for (int i = 0; i < 100; i++) {
+            index.add(UUID.randomUUID(), UUID.randomUUID(), i, randomVector(random));
+        }
+
+        // When
+        index.clear();
+
+        // Then
+        assertThat(index.size()).isZero();
+        assertThat(index.deletedCount()).isZero();
+        assertThat(index.search(randomVector(random), 5, 16)).isEmpty();
+    }
+
+    private static Set<UUID> ids(List<HnswIndex.Result> results) {
+        Set<UUID> ids = new HashSet<>();
+        results.forEach(result -> ids.add(result.entry().id()));
+        return ids;
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,2 @@
+-- H2 stand-ins for PostgreSQL extension functions used by native queries
+CREATE ALIAS IF NOT EXISTS similarity FOR 'com.qoderv3.qoder_v3.support.H2TrigramFunctions.similarity';